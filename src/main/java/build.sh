@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+
+mkdir -p flannelscript/parser/generatednodes
+
+(cd flannelscript/parser/generatednodes; jjtree ../Parser.jjt && mv ./Parser.jj ../Parser.jj)
+(cd flannelscript/parser/; javacc ./Parser.jj)
+
+# `ScriptCache` keys its entries with this hash, so that a change to the
+# grammar or the lexer never loads a tree that was cached before it.
+grammarHash=$(
+    cat flannelscript/parser/Parser.jjt \
+        flannelscript/parser/ASTNode.java \
+        flannelscript/parser/LexerTokenManager.java \
+        flannelscript/lexer/*.java \
+        | sha256sum \
+        | cut -d ' ' -f 1
+)
+
+cat > flannelscript/parser/GrammarVersion.java <<END
+package flannelscript.parser;
+
+/**
+ * Generated by \`build.sh\` from a hash of the grammar and the lexer.
+ */
+public class GrammarVersion {
+    public static String getHash() {
+        return "$grammarHash";
+    }
+}
+END
+
+# Every source is compiled, since `javac` would only recompile the changed
+# ones that `Flannelscript.java` refers to directly.
+javac $(find flannelscript -name '*.java')
@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+
+# The parser is generated and everything is compiled when there are no
+# classes yet, or when the grammar or any source is newer than them, so
+# other runs start a single JVM with the prebuilt classes.
+if [ ! -f flannelscript/Flannelscript.class ] \
+    || [ -n "$(find flannelscript \( -name '*.java' -o -name '*.jjt' \) \
+        -newer flannelscript/Flannelscript.class -print -quit)" ]
+then
+    /bin/bash ./build.sh > /dev/null || exit 1
+fi
+
+java flannelscript.Flannelscript "$@"
@@ -0,0 +1,413 @@
+package flannelscript;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import flannelscript.cache.ScriptCache;
+import flannelscript.ir.Block;
+import flannelscript.ir.ConstantFolder;
+import flannelscript.ir.ExpressionHoister;
+import flannelscript.ir.Lowerer;
+import flannelscript.ir.TypeChecker;
+import flannelscript.lexer.Lexer;
+import flannelscript.lexer.Token;
+import flannelscript.parser.ASTNode;
+import flannelscript.parser.ParseException;
+import flannelscript.parser.Parser;
+import flannelscript.runtime.BytecodeInterpreter;
+import flannelscript.runtime.InlineCache;
+import flannelscript.runtime.Inliner;
+import flannelscript.runtime.JitCompiler;
+import flannelscript.runtime.MaxDepthException;
+import flannelscript.runtime.NodeEngine;
+import flannelscript.runtime.RuntimeNode;
+import flannelscript.runtime.TypeChecks;
+
+/**
+ * The launcher for running a `.flns` file. The file is lexed, parsed, lowered
+ * and run in a single JVM, and nothing besides the script's own output is
+ * printed unless it is asked for:
+ *
+ * - `--trace` prints the parser's trace of each production.
+ * - `--dump` prints the abstract syntax tree before running it.
+ * - `--time` prints how long lexing, parsing, lowering, folding, hoisting,
+ *   type checking and running took, how much running allocated and how many
+ *   garbage collections it caused, how many functions `JitCompiler`
+ *   compiled, and how often call sites found their function in their
+ *   `InlineCache`.
+ * - `--no-cache` always lexes and parses the file, instead of loading it
+ *   from the `ScriptCache` in `~/.flannelscript/cache` (or the directory in
+ *   the `FLANNELSCRIPT_CACHE` environment variable).
+ * - `--engine ENGINE` chooses how the program is run: `nodes` (the default)
+ *   compiles it into executable nodes with `NodeEngine`, `vm` compiles it
+ *   into bytecode for `BytecodeInterpreter`, while `tree` walks it with
+ *   `RuntimeNode`.
+ * - `--max-depth DEPTH` sets how many calls deep the `vm` engine, which keeps
+ *   the frames of calls on the heap, lets a program recurse (1000000 by
+ *   default). The other engines recurse on the JVM's stack, so they fail
+ *   after a few thousand calls, and suggest the `vm` engine instead.
+ * - `--max-alloc BYTES` fails once the program has run if running it
+ *   allocated more than `BYTES`, so that a benchmark can check that it stays
+ *   within its allocation. It is ignored if the JVM can't tell how much was
+ *   allocated.
+ * - `--no-jit` never compiles functions into JVM bytecode with `JitCompiler`,
+ *   even once they are called often.
+ * - `--no-fold` runs the program as it was lowered, instead of folding its
+ *   constant expressions with `ConstantFolder` first.
+ * - `--no-hoist` runs the program without moving repeated and loop-invariant
+ *   expressions into temporary locals with `ExpressionHoister` first.
+ * - `--no-typecheck` doesn't check the program's types with `TypeChecker`,
+ *   so the runtime checks them as it runs, like it does for programs that
+ *   don't pass.
+ * - `--report-types` prints why the program didn't pass `TypeChecker`.
+ * - `--report-inlining` prints which functions `Inliner` inlined at the
+ *   nodes engine's call sites, and why it didn't inline the others.
+ */
+public class Flannelscript {
+    public static void main(String[] args) {
+        String path = null;
+        boolean shouldTrace = false;
+        boolean shouldDump = false;
+        boolean shouldTime = false;
+        boolean shouldUseCache = true;
+        boolean shouldUseJit = true;
+        boolean shouldFold = true;
+        boolean shouldHoist = true;
+        boolean shouldTypecheck = true;
+        boolean shouldReportTypes = false;
+        boolean shouldReportInlining = false;
+        String engine = "nodes";
+        int maxDepth = 1000000;
+        long maxAllocated = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+
+            if (arg.equals("--engine") && i + 1 < args.length) {
+                engine = args[++i];
+            } else if (arg.equals("--max-depth") && i + 1 < args.length) {
+                try {
+                    maxDepth = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException exception) {
+                    maxDepth = 0;
+                }
+
+                if (maxDepth <= 0) {
+                    printUsage();
+                    System.exit(1);
+                }
+            } else if (arg.equals("--max-alloc") && i + 1 < args.length) {
+                try {
+                    maxAllocated = Long.parseLong(args[++i]);
+                } catch (NumberFormatException exception) {
+                    maxAllocated = -1;
+                }
+
+                if (maxAllocated < 0) {
+                    printUsage();
+                    System.exit(1);
+                }
+            } else if (arg.equals("--trace")) {
+                shouldTrace = true;
+            } else if (arg.equals("--dump")) {
+                shouldDump = true;
+            } else if (arg.equals("--time")) {
+                shouldTime = true;
+            } else if (arg.equals("--no-cache")) {
+                shouldUseCache = false;
+            } else if (arg.equals("--no-jit")) {
+                shouldUseJit = false;
+            } else if (arg.equals("--no-fold")) {
+                shouldFold = false;
+            } else if (arg.equals("--no-hoist")) {
+                shouldHoist = false;
+            } else if (arg.equals("--no-typecheck")) {
+                shouldTypecheck = false;
+            } else if (arg.equals("--report-types")) {
+                shouldReportTypes = true;
+            } else if (arg.equals("--report-inlining")) {
+                shouldReportInlining = true;
+            } else if (path == null && !arg.startsWith("--")) {
+                path = arg;
+            } else {
+                printUsage();
+                System.exit(1);
+            }
+        }
+
+        if (
+            path == null
+                || !engine.equals("nodes")
+                    && !engine.equals("vm")
+                    && !engine.equals("tree")
+        ) {
+            printUsage();
+            System.exit(1);
+        }
+
+        String input;
+
+        try {
+            input = new String(
+                Files.readAllBytes(Paths.get(path)),
+                StandardCharsets.UTF_8
+            );
+        } catch (Exception exception) {
+            System.out.println("error: The file " + path + " could not be read.");
+            System.exit(1);
+            return;
+        }
+
+        ScriptCache cache = null;
+        ASTNode rootNode = null;
+        long cacheTime = 0;
+        long lexTime = 0;
+        long parseTime = 0;
+
+        // Tracing needs the parser to run, so the cache is skipped.
+        if (shouldUseCache && !shouldTrace) {
+            long cacheStartTime = System.nanoTime();
+            cache = new ScriptCache(getCacheDirectory());
+            rootNode = cache.load(input);
+            cacheTime = System.nanoTime() - cacheStartTime;
+        }
+
+        boolean wasCached = rootNode != null;
+
+        if (!wasCached) {
+            long lexStartTime = System.nanoTime();
+            List<Token> tokens = Lexer.lex(input);
+            long parseStartTime = System.nanoTime();
+            lexTime = parseStartTime - lexStartTime;
+
+            try {
+                rootNode = Parser.parseTokens(tokens, shouldTrace);
+            } catch (ParseException parseException) {
+                System.out.println("error: A `ParseException` was raised:");
+                System.out.println(parseException);
+                System.exit(1);
+                return;
+            }
+
+            parseTime = System.nanoTime() - parseStartTime;
+
+            if (cache != null) {
+                long cacheStartTime = System.nanoTime();
+                cache.store(input, rootNode);
+                cacheTime += System.nanoTime() - cacheStartTime;
+            }
+        }
+
+        if (shouldDump) {
+            rootNode.dump("   ");
+        }
+
+        long lowerStartTime = System.nanoTime();
+        Block program = Lowerer.lower(rootNode);
+        long lowerTime = System.nanoTime() - lowerStartTime;
+        long foldTime = 0;
+
+        if (shouldFold) {
+            long foldStartTime = System.nanoTime();
+            program = ConstantFolder.fold(program);
+            foldTime = System.nanoTime() - foldStartTime;
+        }
+
+        long hoistTime = 0;
+
+        if (shouldHoist) {
+            long hoistStartTime = System.nanoTime();
+            program = ExpressionHoister.hoist(program);
+            hoistTime = System.nanoTime() - hoistStartTime;
+        }
+
+        // Nothing in the lowered program refers back to the parse tree.
+        rootNode = null;
+
+        List<String> typeProblems = null;
+        long typecheckTime = 0;
+
+        if (shouldTypecheck) {
+            long typecheckStartTime = System.nanoTime();
+            typeProblems = TypeChecker.check(program);
+            typecheckTime = System.nanoTime() - typecheckStartTime;
+        }
+
+        if (shouldReportTypes && typeProblems != null) {
+            for (String problem : typeProblems) {
+                System.err.println("type: " + problem);
+            }
+        }
+
+        TypeChecks.setEnabled(typeProblems == null || !typeProblems.isEmpty());
+        JitCompiler.setEnabled(shouldUseJit);
+        BytecodeInterpreter.setMaxDepth(maxDepth);
+        Inliner.setReporting(shouldReportInlining);
+
+        long runStartAllocated = getAllocatedBytes();
+        long runStartCollections = getCollectionCount();
+        long runStartTime = System.nanoTime();
+
+        try {
+            if (engine.equals("tree")) {
+                RuntimeNode.runProgram(program);
+            } else if (engine.equals("vm")) {
+                BytecodeInterpreter.runProgram(program);
+            } else {
+                NodeEngine.runProgram(program);
+            }
+        } catch (StackOverflowError error) {
+            System.out.println(
+                "error: The program recursed too deeply for the JVM's stack."
+            );
+
+            // The other engines call each function on the JVM's stack, which
+            // only fits a few thousand calls.
+            if (!engine.equals("vm")) {
+                System.out.println(
+                    "Run it with `--engine vm`, which keeps the frames of"
+                        + " calls on the heap."
+                );
+            }
+
+            System.exit(1);
+            return;
+        } catch (MaxDepthException exception) {
+            System.out.println("error: " + exception.getMessage());
+            System.out.println("Raise the limit with `--max-depth DEPTH`.");
+            System.exit(1);
+            return;
+        }
+
+        long runTime = System.nanoTime() - runStartTime;
+        long runAllocated = getAllocatedBytes() - runStartAllocated;
+        long runCollections = getCollectionCount() - runStartCollections;
+
+        if (shouldTime) {
+            if (cache != null) {
+                System.err.println(
+                    "cache: " + formatNanoseconds(cacheTime)
+                        + (wasCached ? " (hit)" : " (miss)")
+                );
+            }
+
+            System.err.println("lex:   " + formatNanoseconds(lexTime));
+            System.err.println("parse: " + formatNanoseconds(parseTime));
+            System.err.println("lower: " + formatNanoseconds(lowerTime));
+
+            if (shouldFold) {
+                System.err.println("fold:  " + formatNanoseconds(foldTime));
+            }
+
+            if (shouldHoist) {
+                System.err.println("hoist: " + formatNanoseconds(hoistTime));
+            }
+
+            if (shouldTypecheck) {
+                System.err.println(
+                    "types: " + formatNanoseconds(typecheckTime)
+                        + (typeProblems.isEmpty() ? " (passed)" : " (failed)")
+                );
+            }
+
+            System.err.println("run:   " + formatNanoseconds(runTime));
+
+            if (runStartAllocated != -1) {
+                System.err.println(
+                    "alloc: " + runAllocated + " bytes, "
+                        + runCollections + " collections"
+                );
+            }
+
+            if (shouldUseJit) {
+                System.err.println(
+                    "jit:   " + JitCompiler.getCompiledCount() + " compiled, "
+                        + JitCompiler.getNotCompilableCount() + " not compilable, "
+                        + JitCompiler.getInvalidatedCount() + " invalidated"
+                );
+            }
+
+            // `RuntimeNode` has no call sites to cache functions at.
+            if (!engine.equals("tree")) {
+                System.err.println(
+                    "calls: " + InlineCache.getHitCount() + " cache hits, "
+                        + InlineCache.getMissCount() + " cache misses"
+                );
+            }
+        }
+
+        if (shouldReportInlining) {
+            Inliner.printReport();
+        }
+
+        if (
+            maxAllocated != -1
+                && runStartAllocated != -1
+                && runAllocated > maxAllocated
+        ) {
+            System.out.println(
+                "error: Running allocated " + runAllocated
+                    + " bytes, more than the limit of " + maxAllocated + "."
+            );
+            System.exit(1);
+        }
+    }
+
+    private static Path getCacheDirectory() {
+        String cacheDirectory = System.getenv("FLANNELSCRIPT_CACHE");
+
+        if (cacheDirectory != null && !cacheDirectory.isEmpty()) {
+            return Paths.get(cacheDirectory);
+        }
+
+        return Paths.get(System.getProperty("user.home"), ".flannelscript", "cache");
+    }
+
+    /**
+     * @return How many bytes the current thread has allocated, or `-1` if the
+     * JVM can't tell.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        return ((com.sun.management.ThreadMXBean) threadBean)
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long getCollectionCount() {
+        long count = 0;
+
+        for (
+            GarbageCollectorMXBean collector
+                : ManagementFactory.getGarbageCollectorMXBeans()
+        ) {
+            count += Math.max(collector.getCollectionCount(), 0);
+        }
+
+        return count;
+    }
+
+    private static String formatNanoseconds(long nanoseconds) {
+        return String.format("%.3f ms", nanoseconds / 1000000.0);
+    }
+
+    private static void printUsage() {
+        System.out.println(
+            "usage: flannelscript [--trace] [--dump] [--time] [--no-cache]"
+                + " [--engine nodes|vm|tree] [--max-depth DEPTH] [--no-jit]"
+                + " [--max-alloc BYTES] [--no-fold]"
+                + " [--no-hoist] [--no-typecheck] [--report-types]"
+                + " [--report-inlining] FILE.flns"
+        );
+    }
+}
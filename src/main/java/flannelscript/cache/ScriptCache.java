@@ -0,0 +1,453 @@
+package flannelscript.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import flannelscript.parser.ASTNode;
+import flannelscript.parser.GrammarVersion;
+import flannelscript.parser.generatednodes.ParserTreeConstants;
+
+/**
+ * An on-disk cache of parsed scripts, so that running an unchanged script
+ * skips lexing and parsing.
+ *
+ * Each entry is named after a 128-bit hash of the interpreter version and the
+ * script's source. The file holds that same hash, the interpreter version, the
+ * source, a table of the node values and the nodes themselves in pre-order,
+ * all as variable-length integers:
+ *
+ * - `MAGIC`, `FORMAT_VERSION` and the 16-byte key.
+ * - The interpreter version and the source, each as a length and UTF-8
+ *   bytes. An entry is only used if both are the same as the ones being
+ *   loaded, so two sources or versions with the same key can't be mixed up.
+ * - The number of values, followed by each value as a length and UTF-8 bytes.
+ * - The number of nodes, followed by each node as a header and, if the node
+ *   has a value, its value index. The header packs the node's id, whether it
+ *   has a value and its number of children into a single integer, so most
+ *   nodes take one or two bytes.
+ * - A 4-byte CRC-32C checksum of everything before it.
+ *
+ * Entries are read through a memory-mapped file. Any entry that is missing,
+ * stale or corrupt is treated as a miss, so the caller parses normally.
+ */
+public class ScriptCache {
+    private static final int MAGIC = 0x464C4E43;
+    private static final int FORMAT_VERSION = 2;
+    private static final int KEY_LENGTH = 16;
+    private static final String FILE_EXTENSION = ".flnc";
+
+    // `build.sh` hashes the grammar and the lexer into `GrammarVersion`, so
+    // any change to the tree's shape or to the tokens makes new keys.
+    private static final String INTERPRETER_VERSION
+        = FORMAT_VERSION + ":" + GrammarVersion.getHash();
+    private static final byte[] INTERPRETER_VERSION_BYTES
+        = INTERPRETER_VERSION.getBytes(StandardCharsets.UTF_8);
+
+    private static final int NODE_ID_COUNT
+        = ParserTreeConstants.jjtNodeName.length;
+
+    private static Constructor<?>[] nodeConstructors
+        = new Constructor<?>[NODE_ID_COUNT];
+
+    private Path directory;
+
+    /**
+     * Creates a cache that keeps its entries in a directory. The directory is
+     * created when the first entry is stored.
+     *
+     * @param directory The directory to use.
+     */
+    public ScriptCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Loads the root node for a script's source, if it has been cached.
+     *
+     * @param source The script's source.
+     * @return The root node, or `null` if there was no usable entry.
+     */
+    public ASTNode load(String source) {
+        byte[] key = keyFor(source);
+        Path path = pathFor(key);
+
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                0,
+                channel.size()
+            );
+
+            return read(buffer, key, source.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException exception) {
+            // A corrupt entry is dropped so that it gets replaced by the next
+            // `store`.
+            deleteQuietly(path);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the root node for a script's source. Failing to write the entry
+     * is not an error, since the script can always be parsed again.
+     *
+     * @param source The script's source.
+     * @param rootNode The root node that was parsed from the source.
+     */
+    public void store(String source, ASTNode rootNode) {
+        byte[] key = keyFor(source);
+        Path path = pathFor(key);
+        Path temporaryPath = null;
+
+        try {
+            Files.createDirectories(directory);
+            temporaryPath = Files.createTempFile(directory, "entry", ".tmp");
+            Files.write(
+                temporaryPath,
+                write(rootNode, key, source.getBytes(StandardCharsets.UTF_8))
+            );
+
+            // Moving the finished file into place means other runs never map
+            // a partly written entry.
+            Files.move(
+                temporaryPath,
+                path,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (IOException | RuntimeException exception) {
+            if (temporaryPath != null) {
+                deleteQuietly(temporaryPath);
+            }
+        }
+    }
+
+    private Path pathFor(byte[] key) {
+        char[] hexDigits = "0123456789abcdef".toCharArray();
+        char[] name = new char[key.length * 2];
+
+        for (int i = 0; i < key.length; i++) {
+            name[i * 2] = hexDigits[(key[i] >> 4) & 0xF];
+            name[i * 2 + 1] = hexDigits[key[i] & 0xF];
+        }
+
+        return directory.resolve(new String(name) + FILE_EXTENSION);
+    }
+
+    /**
+     * Returns the key for a script's source, which is made from two
+     * independent 64-bit hashes (FNV-1a and a multiply-rotate hash) of the
+     * interpreter version and the source. `MessageDigest` is not used, since
+     * loading its providers takes longer than lexing most scripts. Keys only
+     * name entries, since each entry is checked against the version and the
+     * source themselves.
+     *
+     * @param source The script's source.
+     * @return The key.
+     */
+    static byte[] keyFor(String source) {
+        long fnvHash = 0xCBF29CE484222325L;
+        long mixHash = source.length();
+        String[] parts = new String[] { INTERPRETER_VERSION, source };
+
+        for (String part : parts) {
+            for (int i = 0; i < part.length(); i++) {
+                char character = part.charAt(i);
+
+                fnvHash = (fnvHash ^ character) * 0x100000001B3L;
+                mixHash = Long.rotateLeft(
+                    (mixHash ^ character) * 0x9E3779B97F4A7C15L,
+                    31
+                );
+            }
+
+            fnvHash = (fnvHash ^ 0xFFFF) * 0x100000001B3L;
+            mixHash = Long.rotateLeft((mixHash ^ 0xFFFF) * 0x9E3779B97F4A7C15L, 31);
+        }
+
+        mixHash ^= mixHash >>> 33;
+        mixHash *= 0xFF51AFD7ED558CCDL;
+        mixHash ^= mixHash >>> 33;
+
+        return ByteBuffer.allocate(KEY_LENGTH)
+            .putLong(fnvHash)
+            .putLong(mixHash)
+            .array();
+    }
+
+    private static byte[] write(ASTNode rootNode, byte[] key, byte[] sourceBytes) {
+        Map<String, Integer> valueIndices = new LinkedHashMap<String, Integer>();
+        List<ASTNode> nodes = new ArrayList<ASTNode>();
+        collectNodes(rootNode, nodes, valueIndices);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writeVariableInt(output, MAGIC);
+        writeVariableInt(output, FORMAT_VERSION);
+        output.write(key, 0, key.length);
+        writeBytes(output, INTERPRETER_VERSION_BYTES);
+        writeBytes(output, sourceBytes);
+
+        writeVariableInt(output, valueIndices.size());
+
+        for (String value : valueIndices.keySet()) {
+            writeBytes(output, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        writeVariableInt(output, nodes.size());
+
+        for (ASTNode node : nodes) {
+            int hasValue = node.getValue() == null ? 0 : 1;
+
+            writeVariableInt(
+                output,
+                node.getId()
+                    + NODE_ID_COUNT * (hasValue + 2 * node.jjtGetNumChildren())
+            );
+
+            if (hasValue == 1) {
+                writeVariableInt(output, valueIndices.get(node.getValue()));
+            }
+        }
+
+        CRC32C checksum = new CRC32C();
+        byte[] contents = output.toByteArray();
+        checksum.update(contents, 0, contents.length);
+
+        return ByteBuffer.allocate(contents.length + 4)
+            .put(contents)
+            .putInt((int) checksum.getValue())
+            .array();
+    }
+
+    private static void collectNodes(
+        ASTNode node,
+        List<ASTNode> nodes,
+        Map<String, Integer> valueIndices
+    ) {
+        nodes.add(node);
+
+        if (node.getValue() != null && !valueIndices.containsKey(node.getValue())) {
+            valueIndices.put(node.getValue(), valueIndices.size());
+        }
+
+        for (ASTNode child : node.getChildren()) {
+            collectNodes(child, nodes, valueIndices);
+        }
+    }
+
+    private static ASTNode read(ByteBuffer buffer, byte[] key, byte[] sourceBytes) {
+        if (buffer.remaining() < 4) {
+            throw new ScriptCacheException("The entry is too short.");
+        }
+
+        int contentsLength = buffer.remaining() - 4;
+        CRC32C checksum = new CRC32C();
+        ByteBuffer contents = buffer.duplicate();
+        contents.limit(contents.position() + contentsLength);
+        checksum.update(contents);
+
+        if ((int) checksum.getValue() != buffer.getInt(buffer.position() + contentsLength)) {
+            throw new ScriptCacheException("The entry's checksum does not match.");
+        }
+
+        buffer.limit(buffer.position() + contentsLength);
+
+        if (
+            readVariableInt(buffer) != MAGIC
+                || readVariableInt(buffer) != FORMAT_VERSION
+        ) {
+            throw new ScriptCacheException("The entry has an unknown format.");
+        }
+
+        byte[] storedKey = new byte[key.length];
+        buffer.get(storedKey);
+
+        if (!Arrays.equals(storedKey, key)) {
+            throw new ScriptCacheException("The entry is for a different source.");
+        }
+
+        if (!readBytesMatch(buffer, INTERPRETER_VERSION_BYTES)) {
+            throw new ScriptCacheException("The entry is for a different version.");
+        }
+
+        if (!readBytesMatch(buffer, sourceBytes)) {
+            throw new ScriptCacheException("The entry is for a different source.");
+        }
+
+        String[] values = new String[readCount(buffer)];
+
+        for (int i = 0; i < values.length; i++) {
+            byte[] valueBytes = new byte[readCount(buffer)];
+            buffer.get(valueBytes);
+            values[i] = new String(valueBytes, StandardCharsets.UTF_8);
+        }
+
+        int nodeCount = readCount(buffer);
+        int[] nodesRead = new int[] { 0 };
+        ASTNode rootNode = readNode(buffer, values, nodeCount, nodesRead);
+
+        if (nodesRead[0] != nodeCount || buffer.hasRemaining()) {
+            throw new ScriptCacheException("The entry has the wrong length.");
+        }
+
+        return rootNode;
+    }
+
+    private static ASTNode readNode(
+        ByteBuffer buffer,
+        String[] values,
+        int nodeCount,
+        int[] nodesRead
+    ) {
+        if (nodesRead[0] == nodeCount) {
+            throw new ScriptCacheException("The entry has too many nodes.");
+        }
+
+        nodesRead[0]++;
+
+        int header = readVariableInt(buffer);
+
+        if (header < 0) {
+            throw new ScriptCacheException("A node header is negative.");
+        }
+
+        ASTNode node = createNode(header % NODE_ID_COUNT);
+        int hasValue = (header / NODE_ID_COUNT) % 2;
+        int childCount = header / NODE_ID_COUNT / 2;
+
+        if (hasValue == 1) {
+            node.jjtSetValue(values[readVariableInt(buffer)]);
+        }
+
+        if (buffer.remaining() < childCount) {
+            throw new BufferUnderflowException();
+        }
+
+        // Children are added from the end, so that the children array is
+        // only allocated once.
+        ASTNode[] children = new ASTNode[childCount];
+
+        for (int i = 0; i < childCount; i++) {
+            children[i] = readNode(buffer, values, nodeCount, nodesRead);
+            children[i].jjtSetParent(node);
+        }
+
+        for (int i = childCount - 1; 0 <= i; i--) {
+            node.jjtAddChild(children[i], i);
+        }
+
+        return node;
+    }
+
+    private static ASTNode createNode(int id) {
+        if (id < 0 || nodeConstructors.length <= id) {
+            throw new ScriptCacheException("Node id " + id + " does not exist.");
+        }
+
+        try {
+            if (nodeConstructors[id] == null) {
+                nodeConstructors[id] = Class.forName(
+                    "flannelscript.parser.generatednodes.ASTGenerated_"
+                        + ParserTreeConstants.jjtNodeName[id]
+                ).getConstructor(int.class);
+            }
+
+            return (ASTNode) nodeConstructors[id].newInstance(id);
+        } catch (ReflectiveOperationException reflectiveOperationException) {
+            throw new ScriptCacheException(
+                "Node `" + ParserTreeConstants.jjtNodeName[id]
+                    + "` could not be created."
+            );
+        }
+    }
+
+    private static void writeVariableInt(ByteArrayOutputStream output, int value) {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        output.write(value);
+    }
+
+    private static void writeBytes(ByteArrayOutputStream output, byte[] bytes) {
+        writeVariableInt(output, bytes.length);
+        output.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads bytes that were written by `writeBytes`, and checks them against
+     * the expected ones.
+     */
+    private static boolean readBytesMatch(ByteBuffer buffer, byte[] expectedBytes) {
+        int length = readCount(buffer);
+        ByteBuffer storedBytes = buffer.slice();
+
+        storedBytes.limit(length);
+        buffer.position(buffer.position() + length);
+        return storedBytes.equals(ByteBuffer.wrap(expectedBytes));
+    }
+
+    private static int readVariableInt(ByteBuffer buffer) {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte currentByte = buffer.get();
+            value |= (currentByte & 0x7F) << shift;
+
+            if ((currentByte & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new ScriptCacheException("A variable-length integer is too long.");
+    }
+
+    /**
+     * Reads a count, which can never be more than the bytes that are left,
+     * so that a corrupt count can not cause a huge allocation.
+     */
+    private static int readCount(ByteBuffer buffer) {
+        int count = readVariableInt(buffer);
+
+        if (count < 0 || buffer.remaining() < count) {
+            throw new BufferUnderflowException();
+        }
+
+        return count;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ioException) {
+            // The entry will be treated as a miss again next time.
+        }
+    }
+}
+
+class ScriptCacheException extends RuntimeException {
+    ScriptCacheException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package flannelscript.ir;
+
+/**
+ * An `ask` statement, which prints a prompt and evaluates to the line that
+ * is read back.
+ */
+public final class AskExpression extends Expression {
+    private final Expression prompt;
+
+    public AskExpression(Expression prompt) {
+        this.prompt = prompt;
+    }
+
+    public Expression getPrompt() {
+        return prompt;
+    }
+}
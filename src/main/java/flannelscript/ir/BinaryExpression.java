@@ -0,0 +1,34 @@
+package flannelscript.ir;
+
+/**
+ * A binary expression, e.g., `i % 3`. Precedence has already been resolved
+ * by the parser, so each operand is either a value or another
+ * `BinaryExpression`.
+ */
+public final class BinaryExpression extends Expression {
+    private final BinaryOperator operator;
+    private final Expression left;
+    private final Expression right;
+
+    public BinaryExpression(
+        BinaryOperator operator,
+        Expression left,
+        Expression right
+    ) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    public BinaryOperator getOperator() {
+        return operator;
+    }
+
+    public Expression getLeft() {
+        return left;
+    }
+
+    public Expression getRight() {
+        return right;
+    }
+}
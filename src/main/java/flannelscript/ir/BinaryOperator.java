@@ -0,0 +1,32 @@
+package flannelscript.ir;
+
+/**
+ * A binary operator, along with the name of the method that it calls on its
+ * left operand.
+ */
+public enum BinaryOperator {
+    EQUALITY("equals"),
+    NEGATED_EQUALITY("doesNotEqual"),
+    PLUS("add"),
+    MINUS("subtract"),
+    TIMES("multiply"),
+    DIVIDE("divide"),
+    MODULO("modulo"),
+    EXPONENTIAL("exponent"),
+    AND("and"),
+    OR("or"),
+    GREATER_THAN("isGreater"),
+    LESS_THAN("isLess"),
+    GREATER_OR_EQUAL("isGreaterOrEqual"),
+    LESS_OR_EQUAL("isLessOrEqual");
+
+    private final String methodName;
+
+    BinaryOperator(String methodName) {
+        this.methodName = methodName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+}
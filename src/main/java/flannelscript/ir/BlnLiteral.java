@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * A `Bln` literal, i.e., `true` or `false`.
+ */
+public final class BlnLiteral extends Expression {
+    private final boolean value;
+
+    public BlnLiteral(boolean value) {
+        this.value = value;
+    }
+
+    public boolean getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package flannelscript.ir;
+
+/**
+ * A series of statements, e.g., the body of a function, `if` statement or
+ * `while` statement, or the whole program.
+ */
+public final class Block {
+    private final Statement[] statements;
+
+    public Block(Statement[] statements) {
+        this.statements = statements;
+    }
+
+    public int getStatementCount() {
+        return statements.length;
+    }
+
+    public Statement getStatement(int index) {
+        return statements[index];
+    }
+}
@@ -0,0 +1,26 @@
+package flannelscript.ir;
+
+/**
+ * A class instantiation, e.g., `Animal[]`.
+ */
+public final class ClassCall extends Expression {
+    private final String className;
+    private final Expression[] arguments;
+
+    public ClassCall(String className, Expression[] arguments) {
+        this.className = className;
+        this.arguments = arguments;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public int getArgumentCount() {
+        return arguments.length;
+    }
+
+    public Expression getArgument(int index) {
+        return arguments[index];
+    }
+}
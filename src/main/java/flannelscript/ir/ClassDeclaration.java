@@ -0,0 +1,59 @@
+package flannelscript.ir;
+
+/**
+ * A class declaration. `extendsName` is `null` when the class does not
+ * extend another class.
+ */
+public final class ClassDeclaration extends Statement {
+    private final String name;
+    private final String extendsName;
+    private final VariableAssignment[] overrides;
+    private final VariableDeclaration[] properties;
+    private final FunctionDeclaration[] methods;
+
+    public ClassDeclaration(
+        String name,
+        String extendsName,
+        VariableAssignment[] overrides,
+        VariableDeclaration[] properties,
+        FunctionDeclaration[] methods
+    ) {
+        this.name = name;
+        this.extendsName = extendsName;
+        this.overrides = overrides;
+        this.properties = properties;
+        this.methods = methods;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getExtendsName() {
+        return extendsName;
+    }
+
+    public int getOverrideCount() {
+        return overrides.length;
+    }
+
+    public VariableAssignment getOverride(int index) {
+        return overrides[index];
+    }
+
+    public int getPropertyCount() {
+        return properties.length;
+    }
+
+    public VariableDeclaration getProperty(int index) {
+        return properties[index];
+    }
+
+    public int getMethodCount() {
+        return methods.length;
+    }
+
+    public FunctionDeclaration getMethod(int index) {
+        return methods[index];
+    }
+}
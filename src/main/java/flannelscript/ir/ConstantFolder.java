@@ -0,0 +1,429 @@
+package flannelscript.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simplifies a lowered program before it is run. Binary and `!` expressions
+ * whose operands are all literals are replaced by the literal they evaluate
+ * to, e.g., `3 * 4` becomes `12` and `'a' + 'b'` becomes `'ab'`, and so are
+ * `&` and `|` expressions whose left operand decides them. `if` and
+ * `while` statements whose condition folds to `false` are removed, and `if`
+ * statements whose condition folds to `true` are replaced by their body.
+ *
+ * Only operations that the built-in classes define, and that can't fail, are
+ * folded. Anything else, e.g., `1 + 1.5` or `1 / 0`, is left for the program
+ * to evaluate, so that it still fails in the same way when it is run.
+ */
+public class ConstantFolder {
+    private ConstantFolder() {
+    }
+
+    /**
+     * Folds a whole program.
+     *
+     * @param program The program's top-level statements.
+     * @return The folded statements.
+     */
+    public static Block fold(Block program) {
+        return foldBlock(program);
+    }
+
+    private static Block foldBlock(Block block) {
+        List<Statement> statements = new ArrayList<Statement>();
+
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = foldStatement(block.getStatement(i));
+
+            if (statement instanceof IfStatement) {
+                IfStatement ifStatement = (IfStatement) statement;
+                Expression condition = ifStatement.getCondition();
+                Block body = ifStatement.getBody();
+
+                if (isFalse(condition)) {
+                    continue;
+                }
+
+                // A `return` ends the whole function at any depth, so a
+                // body that always runs can be spliced in, `return`s and
+                // all.
+                if (condition instanceof BlnLiteral) {
+                    for (int j = 0; j < body.getStatementCount(); j++) {
+                        statements.add(body.getStatement(j));
+                    }
+
+                    continue;
+                }
+            }
+
+            if (
+                statement instanceof WhileStatement
+                    && isFalse(((WhileStatement) statement).getCondition())
+            ) {
+                continue;
+            }
+
+            statements.add(statement);
+        }
+
+        return new Block(statements.toArray(new Statement[0]));
+    }
+
+    private static boolean isFalse(Expression condition) {
+        return condition instanceof BlnLiteral
+            && !((BlnLiteral) condition).getValue();
+    }
+
+    private static Statement foldStatement(Statement statement) {
+        if (statement instanceof VariableDeclaration) {
+            return foldVariableDeclaration((VariableDeclaration) statement);
+        }
+
+        if (statement instanceof VariableAssignment) {
+            return foldVariableAssignment((VariableAssignment) statement);
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            return new ExpressionStatement(
+                foldExpression(((ExpressionStatement) statement).getExpression())
+            );
+        }
+
+        if (statement instanceof EchoStatement) {
+            return new EchoStatement(
+                foldExpression(((EchoStatement) statement).getValue())
+            );
+        }
+
+        if (statement instanceof ReturnStatement) {
+            return new ReturnStatement(
+                foldExpression(((ReturnStatement) statement).getValue())
+            );
+        }
+
+        if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+
+            return new IfStatement(
+                foldExpression(ifStatement.getCondition()),
+                foldBlock(ifStatement.getBody())
+            );
+        }
+
+        if (statement instanceof WhileStatement) {
+            WhileStatement whileStatement = (WhileStatement) statement;
+
+            return new WhileStatement(
+                foldExpression(whileStatement.getCondition()),
+                foldBlock(whileStatement.getBody())
+            );
+        }
+
+        if (statement instanceof FunctionDeclaration) {
+            return foldFunctionDeclaration((FunctionDeclaration) statement);
+        }
+
+        if (statement instanceof ClassDeclaration) {
+            return foldClassDeclaration((ClassDeclaration) statement);
+        }
+
+        return statement;
+    }
+
+    private static VariableDeclaration foldVariableDeclaration(
+        VariableDeclaration declaration
+    ) {
+        return new VariableDeclaration(
+            declaration.getTypeName(),
+            declaration.getName(),
+            foldExpression(declaration.getValue())
+        );
+    }
+
+    private static VariableAssignment foldVariableAssignment(
+        VariableAssignment assignment
+    ) {
+        return new VariableAssignment(
+            assignment.getName(),
+            foldExpression(assignment.getValue())
+        );
+    }
+
+    private static FunctionDeclaration foldFunctionDeclaration(
+        FunctionDeclaration declaration
+    ) {
+        Parameter[] parameters = new Parameter[declaration.getParameterCount()];
+
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = declaration.getParameter(i);
+        }
+
+        return new FunctionDeclaration(
+            declaration.getName(),
+            parameters,
+            declaration.getReturnTypeName(),
+            foldBlock(declaration.getBody())
+        );
+    }
+
+    private static ClassDeclaration foldClassDeclaration(
+        ClassDeclaration declaration
+    ) {
+        VariableAssignment[] overrides
+            = new VariableAssignment[declaration.getOverrideCount()];
+        VariableDeclaration[] properties
+            = new VariableDeclaration[declaration.getPropertyCount()];
+        FunctionDeclaration[] methods
+            = new FunctionDeclaration[declaration.getMethodCount()];
+
+        for (int i = 0; i < overrides.length; i++) {
+            overrides[i] = foldVariableAssignment(declaration.getOverride(i));
+        }
+
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = foldVariableDeclaration(declaration.getProperty(i));
+        }
+
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = foldFunctionDeclaration(declaration.getMethod(i));
+        }
+
+        return new ClassDeclaration(
+            declaration.getName(),
+            declaration.getExtendsName(),
+            overrides,
+            properties,
+            methods
+        );
+    }
+
+    private static Expression foldExpression(Expression expression) {
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+            BinaryOperator operator = binaryExpression.getOperator();
+            Expression left = foldExpression(binaryExpression.getLeft());
+
+            // The right operand of `false & ...` and `true | ...` is never
+            // evaluated.
+            if (
+                left instanceof BlnLiteral
+                    && (
+                        operator == BinaryOperator.AND && !((BlnLiteral) left).getValue()
+                            || operator == BinaryOperator.OR && ((BlnLiteral) left).getValue()
+                    )
+            ) {
+                return left;
+            }
+
+            Expression right = foldExpression(binaryExpression.getRight());
+            Expression folded = null;
+
+            if (left instanceof IntLiteral && right instanceof IntLiteral) {
+                folded = foldInt(
+                    operator,
+                    ((IntLiteral) left).getValue(),
+                    ((IntLiteral) right).getValue()
+                );
+            } else if (left instanceof FltLiteral && right instanceof FltLiteral) {
+                folded = foldFlt(
+                    operator,
+                    ((FltLiteral) left).getValue(),
+                    ((FltLiteral) right).getValue()
+                );
+            } else if (left instanceof BlnLiteral && right instanceof BlnLiteral) {
+                folded = foldBln(
+                    operator,
+                    ((BlnLiteral) left).getValue(),
+                    ((BlnLiteral) right).getValue()
+                );
+            } else if (left instanceof StrLiteral && right instanceof StrLiteral) {
+                folded = foldStr(
+                    operator,
+                    ((StrLiteral) left).getValue(),
+                    ((StrLiteral) right).getValue()
+                );
+            }
+
+            if (folded != null) {
+                return folded;
+            }
+
+            return new BinaryExpression(operator, left, right);
+        }
+
+        if (expression instanceof NotExpression) {
+            Expression operand = foldExpression(
+                ((NotExpression) expression).getOperand()
+            );
+
+            if (operand instanceof BlnLiteral) {
+                return new BlnLiteral(!((BlnLiteral) operand).getValue());
+            }
+
+            return new NotExpression(operand);
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+
+            Expression[] arguments = new Expression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = foldExpression(call.getArgument(i));
+            }
+
+            return new FunctionCall(call.getName(), arguments);
+        }
+
+        if (expression instanceof MethodCall) {
+            MethodCall call = (MethodCall) expression;
+
+            Expression[] arguments = new Expression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = foldExpression(call.getArgument(i));
+            }
+
+            return new MethodCall(
+                call.getObjectName(),
+                call.getMethodName(),
+                arguments
+            );
+        }
+
+        if (expression instanceof ClassCall) {
+            ClassCall call = (ClassCall) expression;
+
+            Expression[] arguments = new Expression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = foldExpression(call.getArgument(i));
+            }
+
+            return new ClassCall(call.getClassName(), arguments);
+        }
+
+        if (expression instanceof AskExpression) {
+            return new AskExpression(
+                foldExpression(((AskExpression) expression).getPrompt())
+            );
+        }
+
+        return expression;
+    }
+
+    // These mirror the methods that `RuntimeConstants` gives the built-in
+    // classes, and return `null` for operations that they leave to run.
+
+    private static Expression foldInt(BinaryOperator operator, long left, long right) {
+        switch (operator) {
+            case EQUALITY:
+                return new BlnLiteral(left == right);
+            case NEGATED_EQUALITY:
+                return new BlnLiteral(left != right);
+            case PLUS:
+                return new IntLiteral(left + right);
+            case MINUS:
+                return new IntLiteral(left - right);
+            case TIMES:
+                return new IntLiteral(left * right);
+            // Dividing by zero is left to fail when the program runs.
+            case DIVIDE:
+                if (right == 0) {
+                    return null;
+                }
+
+                return new IntLiteral(left / right);
+            case MODULO:
+                if (right == 0) {
+                    return null;
+                }
+
+                return new IntLiteral(left % right);
+            case GREATER_THAN:
+                return new BlnLiteral(left > right);
+            case LESS_THAN:
+                return new BlnLiteral(left < right);
+            case GREATER_OR_EQUAL:
+                return new BlnLiteral(left >= right);
+            case LESS_OR_EQUAL:
+                return new BlnLiteral(left <= right);
+            default:
+                return null;
+        }
+    }
+
+    private static Expression foldFlt(
+        BinaryOperator operator,
+        double left,
+        double right
+    ) {
+        switch (operator) {
+            // `Flt`'s `equals` compares with `Double.equals`, i.e., by bits.
+            case EQUALITY:
+                return new BlnLiteral(
+                    Double.doubleToLongBits(left) == Double.doubleToLongBits(right)
+                );
+            case NEGATED_EQUALITY:
+                return new BlnLiteral(
+                    Double.doubleToLongBits(left) != Double.doubleToLongBits(right)
+                );
+            case PLUS:
+                return new FltLiteral(left + right);
+            case MINUS:
+                return new FltLiteral(left - right);
+            case TIMES:
+                return new FltLiteral(left * right);
+            case DIVIDE:
+                return new FltLiteral(left / right);
+            case MODULO:
+                return new FltLiteral(left % right);
+            case GREATER_THAN:
+                return new BlnLiteral(left > right);
+            case LESS_THAN:
+                return new BlnLiteral(left < right);
+            case GREATER_OR_EQUAL:
+                return new BlnLiteral(left >= right);
+            case LESS_OR_EQUAL:
+                return new BlnLiteral(left <= right);
+            default:
+                return null;
+        }
+    }
+
+    private static Expression foldBln(
+        BinaryOperator operator,
+        boolean left,
+        boolean right
+    ) {
+        switch (operator) {
+            case EQUALITY:
+                return new BlnLiteral(left == right);
+            case NEGATED_EQUALITY:
+                return new BlnLiteral(left != right);
+            case AND:
+                return new BlnLiteral(left && right);
+            case OR:
+                return new BlnLiteral(left || right);
+            default:
+                return null;
+        }
+    }
+
+    private static Expression foldStr(
+        BinaryOperator operator,
+        String left,
+        String right
+    ) {
+        switch (operator) {
+            case EQUALITY:
+                return new BlnLiteral(left.equals(right));
+            case NEGATED_EQUALITY:
+                return new BlnLiteral(!left.equals(right));
+            case PLUS:
+                return new StrLiteral(left + right);
+            default:
+                return null;
+        }
+    }
+}
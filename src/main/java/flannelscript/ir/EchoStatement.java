@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * An `echo` statement.
+ */
+public final class EchoStatement extends Statement {
+    private final Expression value;
+
+    public EchoStatement(Expression value) {
+        this.value = value;
+    }
+
+    public Expression getValue() {
+        return value;
+    }
+}
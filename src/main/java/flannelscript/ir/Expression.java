@@ -0,0 +1,8 @@
+package flannelscript.ir;
+
+/**
+ * An expression in a lowered program, i.e., something that is evaluated to a
+ * `CreatedObject`.
+ */
+public abstract class Expression {
+}
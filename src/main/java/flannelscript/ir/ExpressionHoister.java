@@ -0,0 +1,925 @@
+package flannelscript.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves pure expressions out of the code that evaluates them before a program
+ * is run, storing them in temporary locals whose names start with `$` (which
+ * no variable in a program can). Two things are hoisted:
+ *
+ * - Expressions that are evaluated more than once in a block, with none of
+ *   their variables changing in between, e.g., `i % 3` in each `if`
+ *   statement of a loop's body, are evaluated once, before the first
+ *   statement that uses them.
+ * - Expressions inside of a `while` statement whose variables are not
+ *   changed by its body are evaluated once, before the loop.
+ *
+ * Only binary and `!` expressions of local variables and literals whose
+ * classes are known are hoisted, and only if the built-in `Int`, `Flt`,
+ * `Bln` or `Str` method they call can't fail, so evaluating them earlier
+ * than the program would have can't change what it does. Since assignments
+ * aren't checked against a variable's declared type, a local's class is
+ * only known if every assignment to it in its function keeps it.
+ *
+ * Top-level code, and each function and method body, is hoisted on its own,
+ * since calls can't change the caller's locals.
+ */
+public class ExpressionHoister {
+    private static final String TEMPORARY_PREFIX = "$";
+
+    // The classes of the unit's locals that are known, by name.
+    private final Map<String, String> typeNames = new HashMap<String, String>();
+    private int temporaryCount = 0;
+
+    private ExpressionHoister(Block body, Parameter[] parameters) {
+        Set<String> parameterNames = new HashSet<String>();
+        Set<String> conflictingNames = new HashSet<String>();
+
+        for (Parameter parameter : parameters) {
+            parameterNames.add(parameter.getName());
+            addTypeName(parameter.getName(), parameter.getTypeName(), conflictingNames);
+        }
+
+        collectTypeNames(body, conflictingNames);
+
+        for (String name : conflictingNames) {
+            typeNames.remove(name);
+        }
+
+        // Dropping one local can make an assignment to another one unknown,
+        // so this repeats until no more are dropped.
+        while (dropReassignedNames(body, parameterNames)) {
+        }
+    }
+
+    /**
+     * Hoists a whole program.
+     *
+     * @param program The program's top-level statements.
+     * @return The hoisted statements.
+     */
+    public static Block hoist(Block program) {
+        Set<String> declaredNames = new HashSet<String>();
+
+        return new ExpressionHoister(program, new Parameter[0])
+            .hoistBlock(program, declaredNames);
+    }
+
+    private static FunctionDeclaration hoistFunction(FunctionDeclaration declaration) {
+        Parameter[] parameters = new Parameter[declaration.getParameterCount()];
+        Set<String> parameterNames = new HashSet<String>();
+
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = declaration.getParameter(i);
+            parameterNames.add(parameters[i].getName());
+        }
+
+        return new FunctionDeclaration(
+            declaration.getName(),
+            parameters,
+            declaration.getReturnTypeName(),
+            new ExpressionHoister(declaration.getBody(), parameters)
+                .hoistBlock(declaration.getBody(), parameterNames)
+        );
+    }
+
+    private static ClassDeclaration hoistClass(ClassDeclaration declaration) {
+        VariableAssignment[] overrides
+            = new VariableAssignment[declaration.getOverrideCount()];
+        VariableDeclaration[] properties
+            = new VariableDeclaration[declaration.getPropertyCount()];
+        FunctionDeclaration[] methods
+            = new FunctionDeclaration[declaration.getMethodCount()];
+
+        for (int i = 0; i < overrides.length; i++) {
+            overrides[i] = declaration.getOverride(i);
+        }
+
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = declaration.getProperty(i);
+        }
+
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = hoistFunction(declaration.getMethod(i));
+        }
+
+        return new ClassDeclaration(
+            declaration.getName(),
+            declaration.getExtendsName(),
+            overrides,
+            properties,
+            methods
+        );
+    }
+
+    /**
+     * Hoists the expressions of a block, and of the blocks inside of it.
+     *
+     * @param block The block to hoist.
+     * @param declaredNames The locals that have been declared when the block
+     * starts. Reading any other name reads a property or a global instead.
+     * @return The hoisted block.
+     */
+    private Block hoistBlock(Block block, Set<String> declaredNames) {
+        List<Statement> statements = new ArrayList<Statement>();
+        Set<String> currentNames = new HashSet<String>(declaredNames);
+
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof WhileStatement) {
+                statement = hoistLoop(
+                    (WhileStatement) statement,
+                    currentNames,
+                    statements
+                );
+            } else if (statement instanceof IfStatement) {
+                IfStatement ifStatement = (IfStatement) statement;
+
+                statement = new IfStatement(
+                    ifStatement.getCondition(),
+                    hoistBlock(ifStatement.getBody(), currentNames)
+                );
+            } else if (statement instanceof FunctionDeclaration) {
+                statement = hoistFunction((FunctionDeclaration) statement);
+            } else if (statement instanceof ClassDeclaration) {
+                statement = hoistClass((ClassDeclaration) statement);
+            } else if (statement instanceof VariableDeclaration) {
+                currentNames.add(((VariableDeclaration) statement).getName());
+            }
+
+            statements.add(statement);
+        }
+
+        return eliminateCommonSubexpressions(statements, declaredNames);
+    }
+
+    /**
+     * Moves the invariant expressions of a `while` statement in front of it.
+     *
+     * @param whileStatement The statement.
+     * @param declaredNames The locals that have been declared before it,
+     * which the temporary locals are added to.
+     * @param statements The statements before it, which the temporary locals'
+     * declarations are added to.
+     * @return The statement, using the temporary locals.
+     */
+    private WhileStatement hoistLoop(
+        WhileStatement whileStatement,
+        Set<String> declaredNames,
+        List<Statement> statements
+    ) {
+        Set<String> changedNames = new HashSet<String>();
+        Map<String, String> temporaryNames = new HashMap<String, String>();
+        List<Statement> declarations = new ArrayList<Statement>();
+
+        collectAssignedNames(whileStatement.getBody(), changedNames);
+
+        Expression condition = replaceInvariants(
+            whileStatement.getCondition(),
+            declaredNames,
+            changedNames,
+            temporaryNames,
+            declarations
+        );
+        Block body = replaceInvariants(
+            whileStatement.getBody(),
+            declaredNames,
+            changedNames,
+            temporaryNames,
+            declarations
+        );
+
+        statements.addAll(declarations);
+
+        return new WhileStatement(condition, hoistBlock(body, declaredNames));
+    }
+
+    private Block replaceInvariants(
+        Block block,
+        Set<String> declaredNames,
+        Set<String> changedNames,
+        Map<String, String> temporaryNames,
+        List<Statement> declarations
+    ) {
+        Statement[] statements = new Statement[block.getStatementCount()];
+
+        for (int i = 0; i < statements.length; i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof IfStatement) {
+                IfStatement ifStatement = (IfStatement) statement;
+
+                statements[i] = new IfStatement(
+                    replaceInvariants(
+                        ifStatement.getCondition(),
+                        declaredNames,
+                        changedNames,
+                        temporaryNames,
+                        declarations
+                    ),
+                    replaceInvariants(
+                        ifStatement.getBody(),
+                        declaredNames,
+                        changedNames,
+                        temporaryNames,
+                        declarations
+                    )
+                );
+            } else if (statement instanceof WhileStatement) {
+                WhileStatement whileStatement = (WhileStatement) statement;
+
+                statements[i] = new WhileStatement(
+                    replaceInvariants(
+                        whileStatement.getCondition(),
+                        declaredNames,
+                        changedNames,
+                        temporaryNames,
+                        declarations
+                    ),
+                    replaceInvariants(
+                        whileStatement.getBody(),
+                        declaredNames,
+                        changedNames,
+                        temporaryNames,
+                        declarations
+                    )
+                );
+            } else {
+                Expression value = getValue(statement);
+
+                statements[i] = value == null
+                    ? statement
+                    : withValue(
+                        statement,
+                        replaceInvariants(
+                            value,
+                            declaredNames,
+                            changedNames,
+                            temporaryNames,
+                            declarations
+                        )
+                    );
+            }
+        }
+
+        return new Block(statements);
+    }
+
+    private Expression replaceInvariants(
+        Expression expression,
+        Set<String> declaredNames,
+        Set<String> changedNames,
+        Map<String, String> temporaryNames,
+        List<Statement> declarations
+    ) {
+        if (isHoistable(expression, declaredNames)) {
+            Set<String> names = new HashSet<String>();
+
+            collectNames(expression, names);
+            names.retainAll(changedNames);
+
+            if (names.isEmpty()) {
+                String key = getKey(expression);
+                String temporaryName = temporaryNames.get(key);
+
+                if (temporaryName == null) {
+                    temporaryName = declareTemporary(expression, declaredNames, declarations);
+                    temporaryNames.put(key, temporaryName);
+                }
+
+                return new VariableGet(temporaryName);
+            }
+        }
+
+        return mapOperands(expression, operand -> {
+            return replaceInvariants(
+                operand,
+                declaredNames,
+                changedNames,
+                temporaryNames,
+                declarations
+            );
+        });
+    }
+
+    /**
+     * Stores the expressions that a block's own statements evaluate more than
+     * once in temporary locals. Expressions inside of nested blocks have
+     * already been hoisted by then.
+     */
+    private Block eliminateCommonSubexpressions(
+        List<Statement> statements,
+        Set<String> declaredNames
+    ) {
+        // The expressions that have been evaluated and whose variables have
+        // not changed since, by key.
+        Map<String, Subexpression> available = new HashMap<String, Subexpression>();
+        // Each occurrence of a hoistable expression, and what it evaluates.
+        Map<Expression, Subexpression> occurrences
+            = new IdentityHashMap<Expression, Subexpression>();
+        Set<String> currentNames = new HashSet<String>(declaredNames);
+
+        for (Statement statement : statements) {
+            Expression value = getEvaluatedValue(statement);
+
+            if (value != null) {
+                countOccurrences(value, currentNames, available, occurrences);
+            }
+
+            Set<String> changedNames = new HashSet<String>();
+
+            collectChangedNames(statement, changedNames);
+            available.values().removeIf(
+                subexpression -> !Collections.disjoint(subexpression.names, changedNames)
+            );
+
+            if (statement instanceof VariableDeclaration) {
+                currentNames.add(((VariableDeclaration) statement).getName());
+            }
+        }
+
+        List<Statement> eliminatedStatements = new ArrayList<Statement>();
+
+        currentNames = new HashSet<String>(declaredNames);
+
+        for (Statement statement : statements) {
+            Expression value = getEvaluatedValue(statement);
+
+            if (value != null) {
+                Expression replacedValue = replaceOccurrences(
+                    value,
+                    currentNames,
+                    occurrences,
+                    eliminatedStatements
+                );
+
+                statement = statement instanceof IfStatement
+                    ? new IfStatement(replacedValue, ((IfStatement) statement).getBody())
+                    : withValue(statement, replacedValue);
+            }
+
+            if (statement instanceof VariableDeclaration) {
+                currentNames.add(((VariableDeclaration) statement).getName());
+            }
+
+            eliminatedStatements.add(statement);
+        }
+
+        return new Block(eliminatedStatements.toArray(new Statement[0]));
+    }
+
+    private void countOccurrences(
+        Expression expression,
+        Set<String> declaredNames,
+        Map<String, Subexpression> available,
+        Map<Expression, Subexpression> occurrences
+    ) {
+        if (isHoistable(expression, declaredNames)) {
+            String key = getKey(expression);
+            Subexpression subexpression = available.get(key);
+
+            // A repeated expression is replaced as a whole, so its operands
+            // aren't counted again.
+            if (subexpression != null) {
+                subexpression.count++;
+                occurrences.put(expression, subexpression);
+                return;
+            }
+
+            subexpression = new Subexpression();
+            collectNames(expression, subexpression.names);
+            available.put(key, subexpression);
+            occurrences.put(expression, subexpression);
+        }
+
+        mapOperands(expression, operand -> {
+            countOccurrences(operand, declaredNames, available, occurrences);
+            return operand;
+        });
+    }
+
+    private Expression replaceOccurrences(
+        Expression expression,
+        Set<String> declaredNames,
+        Map<Expression, Subexpression> occurrences,
+        List<Statement> declarations
+    ) {
+        Subexpression subexpression = occurrences.get(expression);
+
+        if (subexpression != null && subexpression.count > 1) {
+            if (subexpression.temporaryName == null) {
+                subexpression.temporaryName = declareTemporary(
+                    replaceOperandOccurrences(
+                        expression,
+                        declaredNames,
+                        occurrences,
+                        declarations
+                    ),
+                    declaredNames,
+                    declarations
+                );
+            }
+
+            return new VariableGet(subexpression.temporaryName);
+        }
+
+        return replaceOperandOccurrences(
+            expression,
+            declaredNames,
+            occurrences,
+            declarations
+        );
+    }
+
+    private Expression replaceOperandOccurrences(
+        Expression expression,
+        Set<String> declaredNames,
+        Map<Expression, Subexpression> occurrences,
+        List<Statement> declarations
+    ) {
+        return mapOperands(expression, operand -> {
+            return replaceOccurrences(
+                operand,
+                declaredNames,
+                occurrences,
+                declarations
+            );
+        });
+    }
+
+    /**
+     * Declares a temporary local that holds the value of an expression.
+     *
+     * @return The temporary local's name.
+     */
+    private String declareTemporary(
+        Expression value,
+        Set<String> declaredNames,
+        List<Statement> declarations
+    ) {
+        String name = TEMPORARY_PREFIX + temporaryCount++;
+        String typeName = getTypeName(value, declaredNames);
+
+        declarations.add(new VariableDeclaration(typeName, name, value));
+        typeNames.put(name, typeName);
+        declaredNames.add(name);
+        return name;
+    }
+
+    /**
+     * Records the class that a local is declared with. A local that is
+     * declared with a class that isn't built in, or with more than one
+     * class, is conflicting.
+     */
+    private void addTypeName(
+        String name,
+        String typeName,
+        Set<String> conflictingNames
+    ) {
+        String knownTypeName = typeNames.get(name);
+
+        if (!isBuiltInTypeName(typeName)) {
+            conflictingNames.add(name);
+        } else if (knownTypeName == null) {
+            typeNames.put(name, typeName);
+        } else if (!knownTypeName.equals(typeName)) {
+            conflictingNames.add(name);
+        }
+    }
+
+    private void collectTypeNames(Block block, Set<String> conflictingNames) {
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof VariableDeclaration) {
+                VariableDeclaration declaration = (VariableDeclaration) statement;
+
+                addTypeName(
+                    declaration.getName(),
+                    declaration.getTypeName(),
+                    conflictingNames
+                );
+            } else if (statement instanceof WhileStatement) {
+                collectTypeNames(((WhileStatement) statement).getBody(), conflictingNames);
+            } else if (statement instanceof IfStatement) {
+                collectTypeNames(((IfStatement) statement).getBody(), conflictingNames);
+            }
+        }
+    }
+
+    /**
+     * Forgets the class of each local that is assigned a value whose class
+     * might be different.
+     *
+     * @return Whether any were forgotten.
+     */
+    private boolean dropReassignedNames(Block block, Set<String> declaredNames) {
+        Set<String> currentNames = new HashSet<String>(declaredNames);
+        boolean hasDropped = false;
+
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof VariableAssignment) {
+                VariableAssignment assignment = (VariableAssignment) statement;
+                String typeName = typeNames.get(assignment.getName());
+
+                if (
+                    typeName != null
+                        && !typeName.equals(
+                            getTypeName(assignment.getValue(), currentNames)
+                        )
+                ) {
+                    typeNames.remove(assignment.getName());
+                    hasDropped = true;
+                }
+            } else if (statement instanceof VariableDeclaration) {
+                currentNames.add(((VariableDeclaration) statement).getName());
+            } else if (statement instanceof WhileStatement) {
+                hasDropped |= dropReassignedNames(
+                    ((WhileStatement) statement).getBody(),
+                    currentNames
+                );
+            } else if (statement instanceof IfStatement) {
+                hasDropped |= dropReassignedNames(
+                    ((IfStatement) statement).getBody(),
+                    currentNames
+                );
+            }
+        }
+
+        return hasDropped;
+    }
+
+    private static boolean isBuiltInTypeName(String typeName) {
+        return typeName.equals("Int")
+            || typeName.equals("Flt")
+            || typeName.equals("Bln")
+            || typeName.equals("Str");
+    }
+
+    /**
+     * @return The name of the built-in class that an expression evaluates to,
+     * or `null` if it isn't known.
+     */
+    private String getTypeName(Expression expression, Set<String> declaredNames) {
+        if (expression instanceof IntLiteral) {
+            return "Int";
+        }
+
+        if (expression instanceof FltLiteral) {
+            return "Flt";
+        }
+
+        if (expression instanceof BlnLiteral) {
+            return "Bln";
+        }
+
+        if (expression instanceof StrLiteral) {
+            return "Str";
+        }
+
+        if (expression instanceof VariableGet) {
+            String name = ((VariableGet) expression).getName();
+
+            return declaredNames.contains(name) ? typeNames.get(name) : null;
+        }
+
+        if (expression instanceof NotExpression) {
+            String operandTypeName = getTypeName(
+                ((NotExpression) expression).getOperand(),
+                declaredNames
+            );
+
+            return "Bln".equals(operandTypeName) ? "Bln" : null;
+        }
+
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+            String leftTypeName = getTypeName(binaryExpression.getLeft(), declaredNames);
+
+            if (
+                leftTypeName == null
+                    || !leftTypeName.equals(
+                        getTypeName(binaryExpression.getRight(), declaredNames)
+                    )
+            ) {
+                return null;
+            }
+
+            return getResultTypeName(binaryExpression.getOperator(), leftTypeName);
+        }
+
+        return null;
+    }
+
+    // This mirrors the methods that `RuntimeConstants` gives the built-in
+    // classes, like `ConstantFolder` does.
+
+    private static String getResultTypeName(BinaryOperator operator, String typeName) {
+        switch (operator) {
+            case EQUALITY:
+            case NEGATED_EQUALITY:
+                return "Bln";
+            case PLUS:
+                return typeName.equals("Bln") ? null : typeName;
+            case MINUS:
+            case TIMES:
+            case DIVIDE:
+            case MODULO:
+                return typeName.equals("Int") || typeName.equals("Flt") ? typeName : null;
+            case GREATER_THAN:
+            case LESS_THAN:
+            case GREATER_OR_EQUAL:
+            case LESS_OR_EQUAL:
+                return typeName.equals("Int") || typeName.equals("Flt") ? "Bln" : null;
+            case AND:
+            case OR:
+                return typeName.equals("Bln") ? "Bln" : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Checks whether an expression is a binary or `!` expression that
+     * evaluates to a known class and can't fail.
+     */
+    private boolean isHoistable(Expression expression, Set<String> declaredNames) {
+        return (
+            expression instanceof BinaryExpression
+                || expression instanceof NotExpression
+        )
+            && getTypeName(expression, declaredNames) != null
+            && !canFail(expression, declaredNames);
+    }
+
+    private boolean canFail(Expression expression, Set<String> declaredNames) {
+        if (expression instanceof NotExpression) {
+            return canFail(((NotExpression) expression).getOperand(), declaredNames);
+        }
+
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+            BinaryOperator operator = binaryExpression.getOperator();
+            Expression right = binaryExpression.getRight();
+
+            // Dividing an `Int` by zero fails.
+            if (
+                (operator == BinaryOperator.DIVIDE || operator == BinaryOperator.MODULO)
+                    && "Int".equals(getTypeName(right, declaredNames))
+                    && !(right instanceof IntLiteral && ((IntLiteral) right).getValue() != 0)
+            ) {
+                return true;
+            }
+
+            return canFail(binaryExpression.getLeft(), declaredNames)
+                || canFail(right, declaredNames);
+        }
+
+        return false;
+    }
+
+    /**
+     * @return A key that is the same for expressions that are written the
+     * same.
+     */
+    private static String getKey(Expression expression) {
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+
+            return "(" + binaryExpression.getOperator() + " "
+                + getKey(binaryExpression.getLeft()) + " "
+                + getKey(binaryExpression.getRight()) + ")";
+        }
+
+        if (expression instanceof NotExpression) {
+            return "(! " + getKey(((NotExpression) expression).getOperand()) + ")";
+        }
+
+        if (expression instanceof VariableGet) {
+            return "v" + ((VariableGet) expression).getName();
+        }
+
+        if (expression instanceof IntLiteral) {
+            return "i" + ((IntLiteral) expression).getValue();
+        }
+
+        if (expression instanceof FltLiteral) {
+            return "f" + Double.doubleToLongBits(((FltLiteral) expression).getValue());
+        }
+
+        if (expression instanceof BlnLiteral) {
+            return "b" + ((BlnLiteral) expression).getValue();
+        }
+
+        // `Str`s are prefixed with their length, so that they can't run into
+        // the rest of the key.
+        String value = ((StrLiteral) expression).getValue();
+
+        return "s" + value.length() + ":" + value;
+    }
+
+    private static void collectNames(Expression expression, Set<String> names) {
+        if (expression instanceof VariableGet) {
+            names.add(((VariableGet) expression).getName());
+            return;
+        }
+
+        mapOperands(expression, operand -> {
+            collectNames(operand, names);
+            return operand;
+        });
+    }
+
+    private static void collectAssignedNames(Block block, Set<String> names) {
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            collectChangedNames(block.getStatement(i), names);
+        }
+    }
+
+    /**
+     * Collects the locals that a statement can change. Calls can't change the
+     * caller's locals, so only declarations and assignments can.
+     */
+    private static void collectChangedNames(Statement statement, Set<String> names) {
+        if (statement instanceof VariableDeclaration) {
+            names.add(((VariableDeclaration) statement).getName());
+        } else if (statement instanceof VariableAssignment) {
+            names.add(((VariableAssignment) statement).getName());
+        } else if (statement instanceof WhileStatement) {
+            collectAssignedNames(((WhileStatement) statement).getBody(), names);
+        } else if (statement instanceof IfStatement) {
+            collectAssignedNames(((IfStatement) statement).getBody(), names);
+        }
+    }
+
+    /**
+     * @return The expression that a statement evaluates once, before it
+     * changes anything, or `null` if it has none. A `while` statement's
+     * condition is evaluated more than once, so it has none.
+     */
+    private static Expression getEvaluatedValue(Statement statement) {
+        if (statement instanceof IfStatement) {
+            return ((IfStatement) statement).getCondition();
+        }
+
+        return getValue(statement);
+    }
+
+    /**
+     * @return The expression that a simple statement evaluates, or `null` if
+     * it has none.
+     */
+    private static Expression getValue(Statement statement) {
+        if (statement instanceof VariableDeclaration) {
+            return ((VariableDeclaration) statement).getValue();
+        }
+
+        if (statement instanceof VariableAssignment) {
+            return ((VariableAssignment) statement).getValue();
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            return ((ExpressionStatement) statement).getExpression();
+        }
+
+        if (statement instanceof EchoStatement) {
+            return ((EchoStatement) statement).getValue();
+        }
+
+        if (statement instanceof ReturnStatement) {
+            return ((ReturnStatement) statement).getValue();
+        }
+
+        return null;
+    }
+
+    /**
+     * @return A copy of a simple statement that evaluates a different
+     * expression.
+     */
+    private static Statement withValue(Statement statement, Expression value) {
+        if (statement instanceof VariableDeclaration) {
+            VariableDeclaration declaration = (VariableDeclaration) statement;
+
+            return new VariableDeclaration(
+                declaration.getTypeName(),
+                declaration.getName(),
+                value
+            );
+        }
+
+        if (statement instanceof VariableAssignment) {
+            return new VariableAssignment(
+                ((VariableAssignment) statement).getName(),
+                value
+            );
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            return new ExpressionStatement(value);
+        }
+
+        if (statement instanceof EchoStatement) {
+            return new EchoStatement(value);
+        }
+
+        return new ReturnStatement(value);
+    }
+
+    /**
+     * Rebuilds an expression with each of its operands, including the
+     * arguments of calls, mapped.
+     *
+     * @return The rebuilt expression, or the expression itself if it has no
+     * operands.
+     */
+    private static Expression mapOperands(
+        Expression expression,
+        ExpressionMapper mapper
+    ) {
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+
+            return new BinaryExpression(
+                binaryExpression.getOperator(),
+                mapper.map(binaryExpression.getLeft()),
+                mapper.map(binaryExpression.getRight())
+            );
+        }
+
+        if (expression instanceof NotExpression) {
+            return new NotExpression(
+                mapper.map(((NotExpression) expression).getOperand())
+            );
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+            Expression[] arguments = new Expression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = mapper.map(call.getArgument(i));
+            }
+
+            return new FunctionCall(call.getName(), arguments);
+        }
+
+        if (expression instanceof MethodCall) {
+            MethodCall call = (MethodCall) expression;
+            Expression[] arguments = new Expression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = mapper.map(call.getArgument(i));
+            }
+
+            return new MethodCall(
+                call.getObjectName(),
+                call.getMethodName(),
+                arguments
+            );
+        }
+
+        if (expression instanceof ClassCall) {
+            ClassCall call = (ClassCall) expression;
+            Expression[] arguments = new Expression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = mapper.map(call.getArgument(i));
+            }
+
+            return new ClassCall(call.getClassName(), arguments);
+        }
+
+        if (expression instanceof AskExpression) {
+            return new AskExpression(
+                mapper.map(((AskExpression) expression).getPrompt())
+            );
+        }
+
+        return expression;
+    }
+
+    private interface ExpressionMapper {
+        Expression map(Expression operand);
+    }
+
+    /**
+     * An expression that a block evaluates, from when it is first evaluated
+     * until one of its variables changes.
+     */
+    private static class Subexpression {
+        private final Set<String> names = new HashSet<String>();
+        private int count = 1;
+        private String temporaryName;
+    }
+}
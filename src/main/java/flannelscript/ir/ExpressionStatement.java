@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * A function or method call whose result is not used, e.g., `print[i];`.
+ */
+public final class ExpressionStatement extends Statement {
+    private final Expression expression;
+
+    public ExpressionStatement(Expression expression) {
+        this.expression = expression;
+    }
+
+    public Expression getExpression() {
+        return expression;
+    }
+}
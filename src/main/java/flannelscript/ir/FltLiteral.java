@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * A `Flt` literal, already parsed from its text.
+ */
+public final class FltLiteral extends Expression {
+    private final double value;
+
+    public FltLiteral(double value) {
+        this.value = value;
+    }
+
+    public double getValue() {
+        return value;
+    }
+}
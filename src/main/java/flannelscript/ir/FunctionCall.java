@@ -0,0 +1,27 @@
+package flannelscript.ir;
+
+/**
+ * A function call, e.g., `getHello['Rover']`. The function is either a
+ * method of the open object or a global function.
+ */
+public final class FunctionCall extends Expression {
+    private final String name;
+    private final Expression[] arguments;
+
+    public FunctionCall(String name, Expression[] arguments) {
+        this.name = name;
+        this.arguments = arguments;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getArgumentCount() {
+        return arguments.length;
+    }
+
+    public Expression getArgument(int index) {
+        return arguments[index];
+    }
+}
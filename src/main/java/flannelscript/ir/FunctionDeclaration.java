@@ -0,0 +1,44 @@
+package flannelscript.ir;
+
+/**
+ * A function declaration, either at the top level of a program or as a
+ * method inside a `ClassDeclaration`.
+ */
+public final class FunctionDeclaration extends Statement {
+    private final String name;
+    private final Parameter[] parameters;
+    private final String returnTypeName;
+    private final Block body;
+
+    public FunctionDeclaration(
+        String name,
+        Parameter[] parameters,
+        String returnTypeName,
+        Block body
+    ) {
+        this.name = name;
+        this.parameters = parameters;
+        this.returnTypeName = returnTypeName;
+        this.body = body;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParameterCount() {
+        return parameters.length;
+    }
+
+    public Parameter getParameter(int index) {
+        return parameters[index];
+    }
+
+    public String getReturnTypeName() {
+        return returnTypeName;
+    }
+
+    public Block getBody() {
+        return body;
+    }
+}
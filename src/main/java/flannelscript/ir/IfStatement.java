@@ -0,0 +1,22 @@
+package flannelscript.ir;
+
+/**
+ * An `if` statement.
+ */
+public final class IfStatement extends Statement {
+    private final Expression condition;
+    private final Block body;
+
+    public IfStatement(Expression condition, Block body) {
+        this.condition = condition;
+        this.body = body;
+    }
+
+    public Expression getCondition() {
+        return condition;
+    }
+
+    public Block getBody() {
+        return body;
+    }
+}
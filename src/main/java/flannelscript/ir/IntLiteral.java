@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * An `Int` literal, already parsed from its text.
+ */
+public final class IntLiteral extends Expression {
+    private final long value;
+
+    public IntLiteral(long value) {
+        this.value = value;
+    }
+
+    public long getValue() {
+        return value;
+    }
+}
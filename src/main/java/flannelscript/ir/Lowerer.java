@@ -0,0 +1,432 @@
+package flannelscript.ir;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import flannelscript.parser.ASTNode;
+import flannelscript.parser.generatednodes.ASTGenerated_ask_statement;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_expression;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_and;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_divide;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_equality;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_exponential;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_greater_or_equal;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_greater_than;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_less_or_equal;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_less_than;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_minus;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_modulo;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_negated_equality;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_or;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_plus;
+import flannelscript.parser.generatednodes.ASTGenerated_binary_operator_times;
+import flannelscript.parser.generatednodes.ASTGenerated_class_call;
+import flannelscript.parser.generatednodes.ASTGenerated_class_declaration;
+import flannelscript.parser.generatednodes.ASTGenerated_class_method_call;
+import flannelscript.parser.generatednodes.ASTGenerated_class_property_get;
+import flannelscript.parser.generatednodes.ASTGenerated_echo_statement;
+import flannelscript.parser.generatednodes.ASTGenerated_exclamation_point;
+import flannelscript.parser.generatednodes.ASTGenerated_expression_with_parenthesis;
+import flannelscript.parser.generatednodes.ASTGenerated_expression_without_parenthesis;
+import flannelscript.parser.generatednodes.ASTGenerated_function_call;
+import flannelscript.parser.generatednodes.ASTGenerated_function_declaration;
+import flannelscript.parser.generatednodes.ASTGenerated_if_statement;
+import flannelscript.parser.generatednodes.ASTGenerated_inside_function_action;
+import flannelscript.parser.generatednodes.ASTGenerated_literal;
+import flannelscript.parser.generatednodes.ASTGenerated_literal_boolean;
+import flannelscript.parser.generatednodes.ASTGenerated_literal_float;
+import flannelscript.parser.generatednodes.ASTGenerated_literal_int;
+import flannelscript.parser.generatednodes.ASTGenerated_literal_string;
+import flannelscript.parser.generatednodes.ASTGenerated_normal_name;
+import flannelscript.parser.generatednodes.ASTGenerated_return_statement;
+import flannelscript.parser.generatednodes.ASTGenerated_statement_call;
+import flannelscript.parser.generatednodes.ASTGenerated_value;
+import flannelscript.parser.generatednodes.ASTGenerated_value_without_expression;
+import flannelscript.parser.generatednodes.ASTGenerated_value_without_expression_without_parenthesis;
+import flannelscript.parser.generatednodes.ASTGenerated_variable_assignment;
+import flannelscript.parser.generatednodes.ASTGenerated_variable_declaration;
+import flannelscript.parser.generatednodes.ASTGenerated_while_statement;
+
+/**
+ * Lowers the abstract syntax tree created by `Parser` into the program's
+ * intermediate representation. The parse tree wraps most values in several
+ * layers of nodes (e.g., `value`, then `literal`, then `literal_int`) and keeps
+ * literals as text, so lowering it once means that running a program never
+ * has to navigate or re-parse it.
+ *
+ * Names are shared between all of the nodes that use them, and nothing in
+ * the result refers back to the parse tree, so it can be dropped once the
+ * program has been lowered.
+ */
+public class Lowerer {
+    private Map<String, String> names = new HashMap<String, String>();
+
+    private Lowerer() {
+    }
+
+    /**
+     * Lowers a whole program.
+     *
+     * @param rootNode The `parse` node created by `Parser`.
+     * @return The program's top-level statements.
+     */
+    public static Block lower(ASTNode rootNode) {
+        return new Lowerer().lowerBlock(rootNode);
+    }
+
+    private Block lowerBlock(ASTNode node) {
+        Statement[] statements = new Statement[node.getChildCount()];
+
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = lowerStatement(node.getChild(i));
+        }
+
+        return new Block(statements);
+    }
+
+    private Statement lowerStatement(ASTNode node) {
+        if (
+            node instanceof ASTGenerated_inside_function_action
+                || node instanceof ASTGenerated_statement_call
+        ) {
+            return lowerStatement(node.getChild(0));
+        }
+
+        if (node instanceof ASTGenerated_variable_declaration) {
+            return lowerVariableDeclaration(node);
+        }
+
+        if (node instanceof ASTGenerated_variable_assignment) {
+            return lowerVariableAssignment(node);
+        }
+
+        if (
+            node instanceof ASTGenerated_function_call
+                || node instanceof ASTGenerated_class_method_call
+        ) {
+            return new ExpressionStatement(lowerExpression(node));
+        }
+
+        if (node instanceof ASTGenerated_echo_statement) {
+            return new EchoStatement(lowerExpression(node.getChild(0)));
+        }
+
+        if (node instanceof ASTGenerated_return_statement) {
+            return new ReturnStatement(lowerExpression(node.getChild(0)));
+        }
+
+        if (node instanceof ASTGenerated_if_statement) {
+            return new IfStatement(
+                lowerExpression(node.getChild(0)),
+                lowerBlock(node.getChild(1))
+            );
+        }
+
+        if (node instanceof ASTGenerated_while_statement) {
+            return new WhileStatement(
+                lowerExpression(node.getChild(0)),
+                lowerBlock(node.getChild(1))
+            );
+        }
+
+        if (node instanceof ASTGenerated_function_declaration) {
+            return lowerFunctionDeclaration(node);
+        }
+
+        if (node instanceof ASTGenerated_class_declaration) {
+            return lowerClassDeclaration(node);
+        }
+
+        throw new LoweringException(
+            "Node `" + node.getName() + "` is not a statement."
+        );
+    }
+
+    private VariableDeclaration lowerVariableDeclaration(ASTNode node) {
+        return new VariableDeclaration(
+            nameOf(node.getChild(0)),
+            nameOf(node.getChild(1)),
+            lowerExpression(node.getChild(2))
+        );
+    }
+
+    private VariableAssignment lowerVariableAssignment(ASTNode node) {
+        return new VariableAssignment(
+            nameOf(node.getChild(0)),
+            lowerExpression(node.getChild(1))
+        );
+    }
+
+    private FunctionDeclaration lowerFunctionDeclaration(ASTNode node) {
+        ASTNode parametersNode = node.getChild(1);
+        Parameter[] parameters = new Parameter[parametersNode.getChildCount()];
+
+        for (int i = 0; i < parameters.length; i++) {
+            ASTNode parameterNode = parametersNode.getChild(i);
+
+            parameters[i] = new Parameter(
+                nameOf(parameterNode.getChild(0)),
+                nameOf(parameterNode.getChild(1))
+            );
+        }
+
+        return new FunctionDeclaration(
+            nameOf(node.getChild(0)),
+            parameters,
+            nameOf(node.getChild(2)),
+            lowerBlock(node.getChild(3))
+        );
+    }
+
+    private ClassDeclaration lowerClassDeclaration(ASTNode node) {
+        ASTNode extensionNode = node.getChild(1);
+        ASTNode overridesNode = node.getChild(2);
+        ASTNode propertiesNode = node.getChild(3);
+        ASTNode methodsNode = node.getChild(4);
+        String extendsName = null;
+
+        if (extensionNode.getChildCount() != 0) {
+            extendsName = intern(extensionNode.getChild(0).getValue());
+        }
+
+        VariableAssignment[] overrides
+            = new VariableAssignment[overridesNode.getChildCount()];
+        VariableDeclaration[] properties
+            = new VariableDeclaration[propertiesNode.getChildCount()];
+        FunctionDeclaration[] methods
+            = new FunctionDeclaration[methodsNode.getChildCount()];
+
+        for (int i = 0; i < overrides.length; i++) {
+            overrides[i] = lowerVariableAssignment(overridesNode.getChild(i));
+        }
+
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = lowerVariableDeclaration(propertiesNode.getChild(i));
+        }
+
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = lowerFunctionDeclaration(methodsNode.getChild(i));
+        }
+
+        return new ClassDeclaration(
+            intern(node.getChild(0).getValue()),
+            extendsName,
+            overrides,
+            properties,
+            methods
+        );
+    }
+
+    private Expression lowerExpression(ASTNode node) {
+        if (
+            node instanceof ASTGenerated_value
+                || node instanceof ASTGenerated_value_without_expression
+                || node instanceof ASTGenerated_value_without_expression_without_parenthesis
+        ) {
+            if (node.getChild(0) instanceof ASTGenerated_exclamation_point) {
+                return new NotExpression(lowerExpression(node.getChild(1)));
+            }
+
+            return lowerExpression(node.getChild(0));
+        }
+
+        if (
+            node instanceof ASTGenerated_literal
+                || node instanceof ASTGenerated_expression_with_parenthesis
+                || node instanceof ASTGenerated_expression_without_parenthesis
+        ) {
+            return lowerExpression(node.getChild(0));
+        }
+
+        if (node instanceof ASTGenerated_binary_expression) {
+            return new BinaryExpression(
+                operatorFor(node.getChild(1)),
+                lowerExpression(node.getChild(0)),
+                lowerExpression(node.getChild(2))
+            );
+        }
+
+        if (node instanceof ASTGenerated_normal_name) {
+            return new VariableGet(nameOf(node));
+        }
+
+        if (node instanceof ASTGenerated_literal_int) {
+            return new IntLiteral(Long.parseLong(node.getValue()));
+        }
+
+        if (node instanceof ASTGenerated_literal_float) {
+            return new FltLiteral(Double.parseDouble(node.getValue()));
+        }
+
+        if (node instanceof ASTGenerated_literal_boolean) {
+            if (node.getValue().equals("true")) {
+                return new BlnLiteral(true);
+            }
+
+            if (node.getValue().equals("false")) {
+                return new BlnLiteral(false);
+            }
+
+            throw new LoweringException(
+                "Expected `true` or `false` but found `"  + node.getValue() + "`."
+            );
+        }
+
+        if (node instanceof ASTGenerated_literal_string) {
+            String value = node.getValue();
+
+            if (!value.startsWith("'")) {
+                throw new LoweringException(
+                    "Expected string literal beginning with `'`, but none was found."
+                );
+            }
+
+            if (!value.endsWith("'")) {
+                throw new LoweringException(
+                    "Expected string literal ending with `'`, but none was found."
+                );
+            }
+
+            return new StrLiteral(value.substring(1, value.length() - 1));
+        }
+
+        if (node instanceof ASTGenerated_function_call) {
+            return new FunctionCall(
+                nameOf(node.getChild(0)),
+                lowerArguments(node.getChild(1))
+            );
+        }
+
+        if (node instanceof ASTGenerated_class_method_call) {
+            ASTNode functionCallNode = node.getChild(1);
+
+            return new MethodCall(
+                nameOf(node.getChild(0)),
+                nameOf(functionCallNode.getChild(0)),
+                lowerArguments(functionCallNode.getChild(1))
+            );
+        }
+
+        if (node instanceof ASTGenerated_class_call) {
+            return new ClassCall(
+                nameOf(node.getChild(0)),
+                lowerArguments(node.getChild(1))
+            );
+        }
+
+        if (node instanceof ASTGenerated_class_property_get) {
+            return new PropertyGet(
+                nameOf(node.getChild(0)),
+                intern(node.getChild(1).getValue())
+            );
+        }
+
+        if (node instanceof ASTGenerated_ask_statement) {
+            return new AskExpression(lowerExpression(node.getChild(0)));
+        }
+
+        throw new LoweringException(
+            "Node `" + node.getName() + "` is not an expression."
+        );
+    }
+
+    private Expression[] lowerArguments(ASTNode valuesNode) {
+        Expression[] arguments = new Expression[valuesNode.getChildCount()];
+
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = lowerExpression(valuesNode.getChild(i));
+        }
+
+        return arguments;
+    }
+
+    private static BinaryOperator operatorFor(ASTNode operatorNode) {
+        if (operatorNode instanceof ASTGenerated_binary_operator) {
+            operatorNode = operatorNode.getChild(0);
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_equality) {
+            return BinaryOperator.EQUALITY;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_negated_equality) {
+            return BinaryOperator.NEGATED_EQUALITY;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_plus) {
+            return BinaryOperator.PLUS;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_minus) {
+            return BinaryOperator.MINUS;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_times) {
+            return BinaryOperator.TIMES;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_divide) {
+            return BinaryOperator.DIVIDE;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_modulo) {
+            return BinaryOperator.MODULO;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_exponential) {
+            return BinaryOperator.EXPONENTIAL;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_and) {
+            return BinaryOperator.AND;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_or) {
+            return BinaryOperator.OR;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_greater_than) {
+            return BinaryOperator.GREATER_THAN;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_less_than) {
+            return BinaryOperator.LESS_THAN;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_greater_or_equal) {
+            return BinaryOperator.GREATER_OR_EQUAL;
+        }
+
+        if (operatorNode instanceof ASTGenerated_binary_operator_less_or_equal) {
+            return BinaryOperator.LESS_OR_EQUAL;
+        }
+
+        throw new LoweringException("Binary operator found is unsupported.");
+    }
+
+    /**
+     * Returns the name held by a `normal_name` or `type` node, which is the
+     * value of its only child.
+     */
+    private String nameOf(ASTNode node) {
+        return intern(node.getChild(0).getValue());
+    }
+
+    private String intern(String name) {
+        String internedName = names.get(name);
+
+        if (internedName == null) {
+            names.put(name, name);
+            return name;
+        }
+
+        return internedName;
+    }
+}
+
+class LoweringException extends RuntimeException {
+    LoweringException(String message) {
+        super(message);
+    }
+}
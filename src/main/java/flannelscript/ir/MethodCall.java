@@ -0,0 +1,36 @@
+package flannelscript.ir;
+
+/**
+ * A class method call, e.g., `rover.getGreeting[]`.
+ */
+public final class MethodCall extends Expression {
+    private final String objectName;
+    private final String methodName;
+    private final Expression[] arguments;
+
+    public MethodCall(
+        String objectName,
+        String methodName,
+        Expression[] arguments
+    ) {
+        this.objectName = objectName;
+        this.methodName = methodName;
+        this.arguments = arguments;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public int getArgumentCount() {
+        return arguments.length;
+    }
+
+    public Expression getArgument(int index) {
+        return arguments[index];
+    }
+}
@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * A value with an exclamation point before it, e.g., `!(i % 3 := 0)`.
+ */
+public final class NotExpression extends Expression {
+    private final Expression operand;
+
+    public NotExpression(Expression operand) {
+        this.operand = operand;
+    }
+
+    public Expression getOperand() {
+        return operand;
+    }
+}
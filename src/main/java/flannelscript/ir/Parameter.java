@@ -0,0 +1,22 @@
+package flannelscript.ir;
+
+/**
+ * A function parameter, consisting of a type and name.
+ */
+public final class Parameter {
+    private final String typeName;
+    private final String name;
+
+    public Parameter(String typeName, String name) {
+        this.typeName = typeName;
+        this.name = name;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package flannelscript.ir;
+
+/**
+ * A class property getter, e.g., `Rover.name`.
+ */
+public final class PropertyGet extends Expression {
+    private final String objectName;
+    private final String propertyName;
+
+    public PropertyGet(String objectName, String propertyName) {
+        this.objectName = objectName;
+        this.propertyName = propertyName;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+}
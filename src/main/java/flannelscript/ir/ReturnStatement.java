@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * A `return` statement.
+ */
+public final class ReturnStatement extends Statement {
+    private final Expression value;
+
+    public ReturnStatement(Expression value) {
+        this.value = value;
+    }
+
+    public Expression getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,8 @@
+package flannelscript.ir;
+
+/**
+ * A statement in a lowered program, i.e., something that is run for its
+ * effect instead of its value.
+ */
+public abstract class Statement {
+}
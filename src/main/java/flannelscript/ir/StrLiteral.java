@@ -0,0 +1,16 @@
+package flannelscript.ir;
+
+/**
+ * A `Str` literal, with its surrounding quotes already removed.
+ */
+public final class StrLiteral extends Expression {
+    private final String value;
+
+    public StrLiteral(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,944 @@
+package flannelscript.ir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks a program's types before it is run, so that the runtime can skip
+ * checking them while it runs (see `TypeChecks`). A program passes if the
+ * class of every expression can be found from its declarations, and:
+ *
+ * - Every declared variable and property is given a value of its type, and
+ *   every assignment to a local or property keeps it.
+ * - Every call to a function, method or operator has arguments of its
+ *   parameters' types, and every function returns its return type (or
+ *   nothing, if it returns `Void`).
+ * - Every condition is a `Bln`.
+ *
+ * Since objects are only ever given values of their exact class, classes are
+ * compared exactly, in the same way as the runtime does.
+ *
+ * The checker is conservative, so some programs that would run without
+ * failing a check don't pass, e.g., ones where a name could be a local or a
+ * property depending on which way the program went, or where two functions
+ * with the same name have different types. Those programs are run with the
+ * runtime's checks instead.
+ */
+public class TypeChecker {
+    private static final String[] BUILT_IN_TYPE_NAMES
+        = {"Obj", "Void", "Bln", "Str", "Int", "Flt"};
+
+    private final Map<String, ClassDeclaration> classes
+        = new HashMap<String, ClassDeclaration>();
+    // The function that each name calls, out of every function and method,
+    // unless declarations of it have different types.
+    private final Map<String, FunctionDeclaration> functions
+        = new HashMap<String, FunctionDeclaration>();
+    private final Set<String> conflictingFunctionNames = new HashSet<String>();
+    // The names of every class's properties.
+    private final Set<String> propertyNames = new HashSet<String>();
+    private final List<String> problems = new ArrayList<String>();
+
+    private TypeChecker() {
+    }
+
+    /**
+     * Checks a whole program.
+     *
+     * @param program The program's top-level statements.
+     * @return Why the program doesn't pass, or an empty list if it does.
+     */
+    public static List<String> check(Block program) {
+        TypeChecker checker = new TypeChecker();
+
+        checker.collectDeclarations(program, true);
+
+        Unit unit = checker.new Unit(null, null, program);
+
+        checker.checkProgram(program, unit);
+        return checker.problems;
+    }
+
+    /**
+     * Finds the classes and functions that a program declares. Classes, and
+     * the functions that other functions can call, have to be declared at
+     * the top level, since the classes in their declarations are found when
+     * the declarations are run.
+     */
+    private void collectDeclarations(Block block, boolean isTopLevel) {
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof ClassDeclaration) {
+                ClassDeclaration declaration = (ClassDeclaration) statement;
+
+                if (!isTopLevel) {
+                    addProblem("Class `" + declaration.getName() + "` is declared inside of a block.");
+                } else if (
+                    classes.containsKey(declaration.getName())
+                        || isBuiltInTypeName(declaration.getName())
+                ) {
+                    addProblem("Class `" + declaration.getName() + "` is declared more than once.");
+                } else {
+                    classes.put(declaration.getName(), declaration);
+                }
+
+                for (int j = 0; j < declaration.getPropertyCount(); j++) {
+                    propertyNames.add(declaration.getProperty(j).getName());
+                }
+
+                for (int j = 0; j < declaration.getMethodCount(); j++) {
+                    addFunction(declaration.getMethod(j));
+                    collectDeclarations(declaration.getMethod(j).getBody(), false);
+                }
+            } else if (statement instanceof FunctionDeclaration) {
+                FunctionDeclaration declaration = (FunctionDeclaration) statement;
+
+                if (!isTopLevel) {
+                    addProblem("Function `" + declaration.getName() + "` is declared inside of a block.");
+                }
+
+                addFunction(declaration);
+                collectDeclarations(declaration.getBody(), false);
+            } else if (statement instanceof WhileStatement) {
+                collectDeclarations(((WhileStatement) statement).getBody(), false);
+            } else if (statement instanceof IfStatement) {
+                collectDeclarations(((IfStatement) statement).getBody(), false);
+            }
+        }
+    }
+
+    private void addFunction(FunctionDeclaration declaration) {
+        String name = declaration.getName();
+        FunctionDeclaration otherDeclaration = functions.get(name);
+
+        if (otherDeclaration == null) {
+            functions.put(name, declaration);
+        } else if (!haveSameTypes(declaration, otherDeclaration)) {
+            conflictingFunctionNames.add(name);
+        }
+    }
+
+    private static boolean haveSameTypes(
+        FunctionDeclaration declaration,
+        FunctionDeclaration otherDeclaration
+    ) {
+        if (
+            declaration.getParameterCount() != otherDeclaration.getParameterCount()
+                || !declaration.getReturnTypeName().equals(
+                    otherDeclaration.getReturnTypeName()
+                )
+        ) {
+            return false;
+        }
+
+        for (int i = 0; i < declaration.getParameterCount(); i++) {
+            if (
+                !declaration.getParameter(i).getTypeName().equals(
+                    otherDeclaration.getParameter(i).getTypeName()
+                )
+            ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks the top-level statements in order, keeping track of which
+     * classes have been declared, since a declaration finds the classes that
+     * it names when it is run.
+     */
+    private void checkProgram(Block program, Unit unit) {
+        Set<String> declaredClassNames = new HashSet<String>();
+        Set<String> declaredNames = new HashSet<String>();
+
+        for (String typeName : BUILT_IN_TYPE_NAMES) {
+            declaredClassNames.add(typeName);
+        }
+
+        for (int i = 0; i < program.getStatementCount(); i++) {
+            Statement statement = program.getStatement(i);
+
+            if (statement instanceof ClassDeclaration) {
+                ClassDeclaration declaration = (ClassDeclaration) statement;
+
+                checkClass(declaration, unit, declaredNames, declaredClassNames);
+                declaredClassNames.add(declaration.getName());
+            } else if (statement instanceof FunctionDeclaration) {
+                checkFunction(
+                    (FunctionDeclaration) statement,
+                    null,
+                    declaredClassNames
+                );
+            } else {
+                checkStatement(statement, unit, declaredNames);
+            }
+        }
+    }
+
+    private void checkClass(
+        ClassDeclaration declaration,
+        Unit unit,
+        Set<String> declaredNames,
+        Set<String> declaredClassNames
+    ) {
+        String name = declaration.getName();
+
+        if (
+            declaration.getExtendsName() != null
+                && !declaredClassNames.contains(declaration.getExtendsName())
+        ) {
+            addProblem("Class `" + name + "` extends a class that hasn't been declared.");
+            return;
+        }
+
+        ClassDeclaration extendsDeclaration = declaration.getExtendsName() == null
+            ? null
+            : classes.get(declaration.getExtendsName());
+
+        for (int i = 0; i < declaration.getOverrideCount(); i++) {
+            VariableAssignment override = declaration.getOverride(i);
+            String typeName = getPropertyTypeName(extendsDeclaration, override.getName());
+            String valueTypeName = getTypeName(override.getValue(), unit, declaredNames);
+
+            if (typeName == null) {
+                addProblem("Class `" + name + "` overrides `" + override.getName() + "`, which it doesn't inherit.");
+            } else {
+                checkTypeName(valueTypeName, typeName, "`" + override.getName() + "`");
+            }
+        }
+
+        for (int i = 0; i < declaration.getPropertyCount(); i++) {
+            VariableDeclaration property = declaration.getProperty(i);
+            String valueTypeName = getTypeName(property.getValue(), unit, declaredNames);
+
+            if (getPropertyTypeName(extendsDeclaration, property.getName()) != null) {
+                addProblem("Class `" + name + "` declares `" + property.getName() + "` again.");
+            } else if (checkClassName(property.getTypeName(), declaredClassNames)) {
+                checkTypeName(
+                    valueTypeName,
+                    property.getTypeName(),
+                    "`" + property.getName() + "`"
+                );
+            }
+        }
+
+        for (int i = 0; i < declaration.getMethodCount(); i++) {
+            checkFunction(declaration.getMethod(i), declaration, declaredClassNames);
+        }
+    }
+
+    /**
+     * Checks a function or method's body.
+     *
+     * @param declaration The function's declaration.
+     * @param openClass The class that the method belongs to, or `null` for a
+     * function.
+     * @param declaredClassNames The classes that have been declared when the
+     * function is, which its parameters and its return type have to be.
+     */
+    private void checkFunction(
+        FunctionDeclaration declaration,
+        ClassDeclaration openClass,
+        Set<String> declaredClassNames
+    ) {
+        Set<String> declaredNames = new HashSet<String>();
+
+        for (int i = 0; i < declaration.getParameterCount(); i++) {
+            Parameter parameter = declaration.getParameter(i);
+
+            declaredNames.add(parameter.getName());
+            checkClassName(parameter.getTypeName(), declaredClassNames);
+        }
+
+        String returnTypeName = declaration.getReturnTypeName();
+        Block body = declaration.getBody();
+        Unit unit = new Unit(openClass, declaration, body);
+        boolean hasReturned = false;
+
+        checkClassName(returnTypeName, declaredClassNames);
+
+        for (int i = 0; i < body.getStatementCount() && !hasReturned; i++) {
+            // A `return` statement ends the body, and anything after it is
+            // never run.
+            hasReturned = body.getStatement(i) instanceof ReturnStatement;
+            checkStatement(body.getStatement(i), unit, declaredNames);
+        }
+
+        if (returnTypeName.equals("Obj")) {
+            // An `Obj` could be `und`, which can only be returned as `Void`.
+            addProblem("`" + declaration.getName() + "` returns `Obj`, which could be `und`.");
+        } else if (!hasReturned && !returnTypeName.equals("Void")) {
+            // Returning from inside of a block isn't enough, since the
+            // function could still reach its end, and return `und`.
+            addProblem("`" + declaration.getName() + "` doesn't return a value.");
+        }
+    }
+
+    /**
+     * Checks a `return` statement's value against the return type of the
+     * function that it returns from, if it is inside of one.
+     */
+    private void checkReturn(
+        ReturnStatement statement,
+        Unit unit,
+        Set<String> declaredNames
+    ) {
+        FunctionDeclaration function = unit.getFunction();
+        String typeName = getTypeName(statement.getValue(), unit, declaredNames);
+
+        if (function == null || function.getReturnTypeName().equals("Obj")) {
+            return;
+        }
+
+        String description = "The value returned by `" + function.getName() + "`";
+
+        if (!function.getReturnTypeName().equals("Void")) {
+            checkTypeName(typeName, function.getReturnTypeName(), description);
+        } else if (!isUnd(statement.getValue(), unit, declaredNames)) {
+            addProblem(description + " isn't `und`, but it returns `Void`.");
+        }
+    }
+
+    private void checkStatement(
+        Statement statement,
+        Unit unit,
+        Set<String> declaredNames
+    ) {
+        if (statement instanceof VariableDeclaration) {
+            VariableDeclaration declaration = (VariableDeclaration) statement;
+            String valueTypeName = getTypeName(declaration.getValue(), unit, declaredNames);
+
+            if (checkClassName(declaration.getTypeName(), classes.keySet())) {
+                checkTypeName(
+                    valueTypeName,
+                    declaration.getTypeName(),
+                    "`" + declaration.getName() + "`"
+                );
+            }
+
+            declaredNames.add(declaration.getName());
+        } else if (statement instanceof VariableAssignment) {
+            VariableAssignment assignment = (VariableAssignment) statement;
+            String valueTypeName = getTypeName(assignment.getValue(), unit, declaredNames);
+            String typeName = getAssignedTypeName(assignment.getName(), unit, declaredNames);
+
+            if (typeName != null) {
+                checkTypeName(valueTypeName, typeName, "`" + assignment.getName() + "`");
+            }
+        } else if (statement instanceof ExpressionStatement) {
+            getTypeName(((ExpressionStatement) statement).getExpression(), unit, declaredNames);
+        } else if (statement instanceof EchoStatement) {
+            getTypeName(((EchoStatement) statement).getValue(), unit, declaredNames);
+        } else if (statement instanceof ReturnStatement) {
+            checkReturn((ReturnStatement) statement, unit, declaredNames);
+        } else if (statement instanceof WhileStatement) {
+            WhileStatement whileStatement = (WhileStatement) statement;
+
+            checkCondition(whileStatement.getCondition(), unit, declaredNames);
+            checkBlock(whileStatement.getBody(), unit, declaredNames);
+        } else if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+
+            checkCondition(ifStatement.getCondition(), unit, declaredNames);
+            checkBlock(ifStatement.getBody(), unit, declaredNames);
+        }
+
+        // Functions and classes declared inside of blocks have already been
+        // found by `collectDeclarations`.
+    }
+
+    /**
+     * Checks a block inside of a `while` or `if` statement. Its locals may
+     * or may not have been declared once it is over.
+     */
+    private void checkBlock(Block block, Unit unit, Set<String> declaredNames) {
+        Set<String> blockNames = new HashSet<String>(declaredNames);
+
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            checkStatement(block.getStatement(i), unit, blockNames);
+        }
+    }
+
+    private void checkCondition(
+        Expression condition,
+        Unit unit,
+        Set<String> declaredNames
+    ) {
+        checkTypeName(getTypeName(condition, unit, declaredNames), "Bln", "A condition");
+    }
+
+    /**
+     * @return The class that an expression evaluates to, or `null` if it
+     * can't be found, in which case a problem has been added.
+     */
+    private String getTypeName(
+        Expression expression,
+        Unit unit,
+        Set<String> declaredNames
+    ) {
+        if (expression instanceof IntLiteral) {
+            return "Int";
+        }
+
+        if (expression instanceof FltLiteral) {
+            return "Flt";
+        }
+
+        if (expression instanceof BlnLiteral) {
+            return "Bln";
+        }
+
+        if (expression instanceof StrLiteral) {
+            return "Str";
+        }
+
+        if (expression instanceof VariableGet) {
+            return getVariableTypeName(
+                ((VariableGet) expression).getName(),
+                unit,
+                declaredNames
+            );
+        }
+
+        if (expression instanceof NotExpression) {
+            String operandTypeName = getTypeName(
+                ((NotExpression) expression).getOperand(),
+                unit,
+                declaredNames
+            );
+
+            return checkTypeName(operandTypeName, "Bln", "The operand of `!`")
+                ? "Bln"
+                : null;
+        }
+
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+            String leftTypeName = getTypeName(binaryExpression.getLeft(), unit, declaredNames);
+            String rightTypeName = getTypeName(binaryExpression.getRight(), unit, declaredNames);
+
+            if (leftTypeName == null || rightTypeName == null) {
+                return null;
+            }
+
+            return getCallTypeName(
+                getMethod(leftTypeName, binaryExpression.getOperator().getMethodName()),
+                "`" + leftTypeName + "." + binaryExpression.getOperator().getMethodName() + "`",
+                new String[] {rightTypeName}
+            );
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+            String[] argumentTypeNames = getArgumentTypeNames(
+                getArguments(call),
+                unit,
+                declaredNames
+            );
+
+            if (conflictingFunctionNames.contains(call.getName())) {
+                addProblem("Functions named `" + call.getName() + "` have different types.");
+                return null;
+            }
+
+            return getCallTypeName(
+                functions.get(call.getName()),
+                "`" + call.getName() + "`",
+                argumentTypeNames
+            );
+        }
+
+        if (expression instanceof MethodCall) {
+            MethodCall call = (MethodCall) expression;
+            String objectTypeName = getVariableTypeName(
+                call.getObjectName(),
+                unit,
+                declaredNames
+            );
+            String[] argumentTypeNames = getArgumentTypeNames(
+                getArguments(call),
+                unit,
+                declaredNames
+            );
+
+            if (objectTypeName == null) {
+                return null;
+            }
+
+            return getCallTypeName(
+                getMethod(objectTypeName, call.getMethodName()),
+                "`" + objectTypeName + "." + call.getMethodName() + "`",
+                argumentTypeNames
+            );
+        }
+
+        if (expression instanceof ClassCall) {
+            ClassCall call = (ClassCall) expression;
+            String[] argumentTypeNames = getArgumentTypeNames(
+                getArguments(call),
+                unit,
+                declaredNames
+            );
+            ClassDeclaration declaration = classes.get(call.getClassName());
+
+            if (declaration == null) {
+                addProblem("`" + call.getClassName() + "` is not a declared class.");
+                return null;
+            }
+
+            // Without an `init` method, the arguments aren't used.
+            FunctionDeclaration initMethod = getMethod(declaration, "init");
+
+            if (
+                initMethod != null
+                    && getCallTypeName(
+                        initMethod,
+                        "`" + call.getClassName() + ".init`",
+                        argumentTypeNames
+                    ) == null
+            ) {
+                return null;
+            }
+
+            return call.getClassName();
+        }
+
+        if (expression instanceof PropertyGet) {
+            PropertyGet propertyGet = (PropertyGet) expression;
+            String objectTypeName = getVariableTypeName(
+                propertyGet.getObjectName(),
+                unit,
+                declaredNames
+            );
+
+            if (objectTypeName == null) {
+                return null;
+            }
+
+            String typeName = getPropertyTypeName(
+                classes.get(objectTypeName),
+                propertyGet.getPropertyName()
+            );
+
+            if (typeName == null) {
+                addProblem(
+                    "`" + objectTypeName + "` has no property named `"
+                        + propertyGet.getPropertyName() + "`."
+                );
+            }
+
+            return typeName;
+        }
+
+        if (expression instanceof AskExpression) {
+            getTypeName(((AskExpression) expression).getPrompt(), unit, declaredNames);
+            return "Str";
+        }
+
+        addProblem("An unsupported expression was found.");
+        return null;
+    }
+
+    /**
+     * Finds a variable's class, in the same order as the runtime looks it
+     * up: a local, then a property of the object that the code is running
+     * on, and then a global.
+     */
+    private String getVariableTypeName(
+        String name,
+        Unit unit,
+        Set<String> declaredNames
+    ) {
+        if (declaredNames.contains(name)) {
+            return unit.getLocalTypeName(name);
+        }
+
+        if (unit.hasLocal(name)) {
+            addProblem("`" + name + "` may be read before it is declared.");
+            return null;
+        }
+
+        if (unit.getOpenClass() != null) {
+            String typeName = getPropertyTypeName(unit.getOpenClass(), name);
+
+            if (typeName != null) {
+                return typeName;
+            }
+        }
+
+        if (propertyNames.contains(name)) {
+            addProblem("`" + name + "` may be a property of the object that the code runs on.");
+            return null;
+        }
+
+        // `und`, `nil`, and any variable that doesn't exist, which is `und`.
+        return "Obj";
+    }
+
+    /**
+     * @return The class of the variable that an assignment changes, or
+     * `null` if it doesn't change one, or if it can't be found.
+     */
+    private String getAssignedTypeName(
+        String name,
+        Unit unit,
+        Set<String> declaredNames
+    ) {
+        if (
+            declaredNames.contains(name)
+                || unit.hasLocal(name)
+                || isProperty(name, unit, declaredNames)
+                || propertyNames.contains(name)
+        ) {
+            return getVariableTypeName(name, unit, declaredNames);
+        }
+
+        if (name.equals("und") || name.equals("nil")) {
+            addProblem("`" + name + "` is assigned to.");
+        }
+
+        return null;
+    }
+
+    private boolean isProperty(String name, Unit unit, Set<String> declaredNames) {
+        return !declaredNames.contains(name)
+            && unit.getOpenClass() != null
+            && getPropertyTypeName(unit.getOpenClass(), name) != null;
+    }
+
+    private boolean isUnd(Expression expression, Unit unit, Set<String> declaredNames) {
+        return expression instanceof VariableGet
+            && ((VariableGet) expression).getName().equals("und")
+            && !unit.hasLocal("und")
+            && !isProperty("und", unit, declaredNames)
+            && !propertyNames.contains("und");
+    }
+
+    private String[] getArgumentTypeNames(
+        Expression[] arguments,
+        Unit unit,
+        Set<String> declaredNames
+    ) {
+        String[] argumentTypeNames = new String[arguments.length];
+
+        for (int i = 0; i < arguments.length; i++) {
+            argumentTypeNames[i] = getTypeName(arguments[i], unit, declaredNames);
+        }
+
+        return argumentTypeNames;
+    }
+
+    /**
+     * Checks a call's arguments against the function that it calls.
+     *
+     * @return The class that the call evaluates to, or `null` if it fails.
+     */
+    private String getCallTypeName(
+        FunctionDeclaration function,
+        String description,
+        String[] argumentTypeNames
+    ) {
+        if (function == null) {
+            addProblem(description + " could not be found.");
+            return null;
+        }
+
+        if (function.getParameterCount() != argumentTypeNames.length) {
+            addProblem(
+                description + " expects " + function.getParameterCount()
+                    + " arguments, but " + argumentTypeNames.length + " were found."
+            );
+            return null;
+        }
+
+        boolean isCorrect = true;
+
+        for (int i = 0; i < argumentTypeNames.length; i++) {
+            isCorrect = checkTypeName(
+                argumentTypeNames[i],
+                function.getParameter(i).getTypeName(),
+                "Argument " + i + " of " + description
+            ) && isCorrect;
+        }
+
+        if (!isCorrect) {
+            return null;
+        }
+
+        // A `Void` function returns `und`.
+        return function.getReturnTypeName().equals("Void")
+            ? "Obj"
+            : function.getReturnTypeName();
+    }
+
+    /**
+     * Finds a method of a class, including the methods that `RuntimeConstants`
+     * gives the built-in classes.
+     *
+     * @return The method's declaration (without a body for built-in
+     * methods), or `null` if there is none.
+     */
+    private FunctionDeclaration getMethod(String typeName, String name) {
+        if (classes.containsKey(typeName)) {
+            return getMethod(classes.get(typeName), name);
+        }
+
+        String returnTypeName = null;
+        Parameter[] parameters = new Parameter[0];
+
+        if (name.equals("getStr")) {
+            returnTypeName = typeName.equals("Str") || typeName.equals("Obj") ? null : "Str";
+        } else if (name.equals("getInt") || name.equals("getFlt")) {
+            returnTypeName = typeName.equals("Str") ? name.substring(3) : null;
+        } else {
+            for (BinaryOperator operator : BinaryOperator.values()) {
+                if (operator.getMethodName().equals(name)) {
+                    returnTypeName = getResultTypeName(operator, typeName);
+                    parameters = new Parameter[] {new Parameter(typeName, "other")};
+                }
+            }
+        }
+
+        if (returnTypeName == null) {
+            return null;
+        }
+
+        return new FunctionDeclaration(name, parameters, returnTypeName, new Block(new Statement[0]));
+    }
+
+    private FunctionDeclaration getMethod(ClassDeclaration declaration, String name) {
+        while (declaration != null) {
+            for (int i = 0; i < declaration.getMethodCount(); i++) {
+                if (declaration.getMethod(i).getName().equals(name)) {
+                    return declaration.getMethod(i);
+                }
+            }
+
+            declaration = getExtendedClass(declaration);
+        }
+
+        return null;
+    }
+
+    // This mirrors the binary methods that `RuntimeConstants` gives the
+    // built-in classes, like `ExpressionHoister` does.
+
+    private static String getResultTypeName(BinaryOperator operator, String typeName) {
+        if (!isBuiltInTypeName(typeName) || typeName.equals("Obj") || typeName.equals("Void")) {
+            return null;
+        }
+
+        switch (operator) {
+            case EQUALITY:
+            case NEGATED_EQUALITY:
+                return "Bln";
+            case PLUS:
+                return typeName.equals("Bln") ? null : typeName;
+            case MINUS:
+            case TIMES:
+            case DIVIDE:
+            case MODULO:
+                return typeName.equals("Int") || typeName.equals("Flt") ? typeName : null;
+            case EXPONENTIAL:
+                return typeName.equals("Int") ? typeName : null;
+            case GREATER_THAN:
+            case LESS_THAN:
+            case GREATER_OR_EQUAL:
+            case LESS_OR_EQUAL:
+                return typeName.equals("Int") || typeName.equals("Flt") ? "Bln" : null;
+            case AND:
+            case OR:
+                return typeName.equals("Bln") ? "Bln" : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return The declared class of a property of a class or of the classes
+     * it extends, or `null` if it has none.
+     */
+    private String getPropertyTypeName(ClassDeclaration declaration, String name) {
+        while (declaration != null) {
+            for (int i = 0; i < declaration.getPropertyCount(); i++) {
+                if (declaration.getProperty(i).getName().equals(name)) {
+                    return declaration.getProperty(i).getTypeName();
+                }
+            }
+
+            declaration = getExtendedClass(declaration);
+        }
+
+        return null;
+    }
+
+    private ClassDeclaration getExtendedClass(ClassDeclaration declaration) {
+        return declaration.getExtendsName() == null
+            ? null
+            : classes.get(declaration.getExtendsName());
+    }
+
+    private static boolean isBuiltInTypeName(String typeName) {
+        for (String builtInTypeName : BUILT_IN_TYPE_NAMES) {
+            if (builtInTypeName.equals(typeName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks that a type name is a class, either a built-in one or one of
+     * `classNames`.
+     */
+    private boolean checkClassName(String typeName, Set<String> classNames) {
+        if (isBuiltInTypeName(typeName) || classNames.contains(typeName)) {
+            return true;
+        }
+
+        addProblem("`" + typeName + "` is not a declared class.");
+        return false;
+    }
+
+    /**
+     * Checks that a value's class is the one that is expected. Values whose
+     * class couldn't be found have already added a problem.
+     */
+    private boolean checkTypeName(
+        String typeName,
+        String expectedTypeName,
+        String description
+    ) {
+        if (typeName == null) {
+            return false;
+        }
+
+        if (!typeName.equals(expectedTypeName)) {
+            addProblem(
+                description + " is of type `" + typeName + "`, but `"
+                    + expectedTypeName + "` was expected."
+            );
+            return false;
+        }
+
+        return true;
+    }
+
+    private void addProblem(String problem) {
+        problems.add(problem);
+    }
+
+    private static Expression[] getArguments(FunctionCall call) {
+        Expression[] arguments = new Expression[call.getArgumentCount()];
+
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = call.getArgument(i);
+        }
+
+        return arguments;
+    }
+
+    private static Expression[] getArguments(MethodCall call) {
+        Expression[] arguments = new Expression[call.getArgumentCount()];
+
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = call.getArgument(i);
+        }
+
+        return arguments;
+    }
+
+    private static Expression[] getArguments(ClassCall call) {
+        Expression[] arguments = new Expression[call.getArgumentCount()];
+
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = call.getArgument(i);
+        }
+
+        return arguments;
+    }
+
+    /**
+     * The top-level code, or a function or method's body, along with the
+     * classes of its locals. A local has to be declared with the same class
+     * everywhere in its unit.
+     */
+    private class Unit {
+        private final ClassDeclaration openClass;
+        private final FunctionDeclaration function;
+        private final Map<String, String> localTypeNames = new HashMap<String, String>();
+        private final Set<String> conflictingNames = new HashSet<String>();
+
+        /**
+         * @param openClass The class that the unit is a method of, if any.
+         * @param function The function that the unit is the body of, or
+         * `null` for the top-level code.
+         * @param body The unit's statements.
+         */
+        Unit(ClassDeclaration openClass, FunctionDeclaration function, Block body) {
+            this.openClass = openClass;
+            this.function = function;
+
+            for (int i = 0; function != null && i < function.getParameterCount(); i++) {
+                addLocal(
+                    function.getParameter(i).getName(),
+                    function.getParameter(i).getTypeName()
+                );
+            }
+
+            collectLocals(body);
+        }
+
+        private void collectLocals(Block block) {
+            for (int i = 0; i < block.getStatementCount(); i++) {
+                Statement statement = block.getStatement(i);
+
+                if (statement instanceof VariableDeclaration) {
+                    VariableDeclaration declaration = (VariableDeclaration) statement;
+
+                    addLocal(declaration.getName(), declaration.getTypeName());
+                } else if (statement instanceof WhileStatement) {
+                    collectLocals(((WhileStatement) statement).getBody());
+                } else if (statement instanceof IfStatement) {
+                    collectLocals(((IfStatement) statement).getBody());
+                }
+            }
+        }
+
+        private void addLocal(String name, String typeName) {
+            String otherTypeName = localTypeNames.put(name, typeName);
+
+            if (
+                otherTypeName != null
+                    && !otherTypeName.equals(typeName)
+                    && conflictingNames.add(name)
+            ) {
+                addProblem("`" + name + "` is declared with different types.");
+            }
+        }
+
+        ClassDeclaration getOpenClass() {
+            return openClass;
+        }
+
+        FunctionDeclaration getFunction() {
+            return function;
+        }
+
+        boolean hasLocal(String name) {
+            return localTypeNames.containsKey(name);
+        }
+
+        String getLocalTypeName(String name) {
+            return conflictingNames.contains(name) ? null : localTypeNames.get(name);
+        }
+    }
+}
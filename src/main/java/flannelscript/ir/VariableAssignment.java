@@ -0,0 +1,22 @@
+package flannelscript.ir;
+
+/**
+ * A variable assignment, e.g., `i = i + 1;`.
+ */
+public final class VariableAssignment extends Statement {
+    private final String name;
+    private final Expression value;
+
+    public VariableAssignment(String name, Expression value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Expression getValue() {
+        return value;
+    }
+}
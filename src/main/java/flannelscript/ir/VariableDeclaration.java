@@ -0,0 +1,28 @@
+package flannelscript.ir;
+
+/**
+ * A variable declaration, e.g., `Int i = 1;`.
+ */
+public final class VariableDeclaration extends Statement {
+    private final String typeName;
+    private final String name;
+    private final Expression value;
+
+    public VariableDeclaration(String typeName, String name, Expression value) {
+        this.typeName = typeName;
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Expression getValue() {
+        return value;
+    }
+}
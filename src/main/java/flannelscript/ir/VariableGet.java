@@ -0,0 +1,17 @@
+package flannelscript.ir;
+
+/**
+ * A read of a variable (a local, a property of the open object, or a
+ * global) by name.
+ */
+public final class VariableGet extends Expression {
+    private final String name;
+
+    public VariableGet(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package flannelscript.ir;
+
+/**
+ * A `while` statement.
+ */
+public final class WhileStatement extends Statement {
+    private final Expression condition;
+    private final Block body;
+
+    public WhileStatement(Expression condition, Block body) {
+        this.condition = condition;
+        this.body = body;
+    }
+
+    public Expression getCondition() {
+        return condition;
+    }
+
+    public Block getBody() {
+        return body;
+    }
+}
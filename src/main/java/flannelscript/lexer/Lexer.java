@@ -3,10 +3,7 @@ package flannelscript.lexer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class Lexer {
     public static void main(String[] args) {
@@ -20,37 +17,14 @@ public class Lexer {
         }
     }
 
-    public static List<Token> lex(String input) {
-        TokenType[] tokenTypes = TokenType.values();
-        List<Token> currentTokenList = new ArrayList<Token>();
-        String currentTokenString = "";
-
-        for (int i = 0; i < input.length(); i++) {
-            currentTokenString += input.charAt(i);
-            for (int j = 0; j < tokenTypes.length; j++) {
-                Pattern pattern = tokenTypes[j].getRegexPattern();
-                Matcher matcher = pattern.matcher(currentTokenString);
-
-                if (matcher.find()) {
-                    Object value;
-
-                    if (tokenTypes[j].getShouldIncludeValue()) {
-                        value = matcher.group();
-                    } else {
-                        value = null;
-                    }
-
-                    Token newToken = new Token(
-                        tokenTypes[j],
-                        value
-                    );
-                    currentTokenList.add(newToken);
-                    currentTokenString = currentTokenString.substring(matcher.end());
-                }
-            }
-        }
-
-        return currentTokenList;
+    /**
+     * Splits an input into tokens, using the token types in `TokenType`.
+     *
+     * @param input The input to split.
+     * @return The tokens.
+     */
+    public static List<Token> lex(CharSequence input) {
+        return new TokenScanner(input).scan();
     }
 
     public static void lexAndPrint(String input) {
@@ -0,0 +1,529 @@
+package flannelscript.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A scanner that turns a `CharSequence` into `Token`s in a single pass.
+ *
+ * The tokens produced are exactly the ones that would be found by appending
+ * one character at a time to a buffer and checking each `TokenType`'s
+ * regular expression against that buffer, in declaration order. Instead of
+ * running the regular expressions, the scanner keeps a window into the input
+ * and remembers how far each kind of token has been scanned from the start of
+ * the window, so every character is only looked at a constant number of
+ * times.
+ */
+class TokenScanner {
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    private static final int NO_MATCH = -1;
+    private static final char NO_CHARACTER = '\0';
+
+    // Which anchored token types can begin with each ASCII character, so most
+    // token types can be skipped without being checked.
+    private static final boolean[][] CAN_BEGIN_WITH
+        = new boolean[128][TOKEN_TYPES.length];
+
+    static {
+        for (char character = 0; character < 128; character++) {
+            for (int i = 0; i < TOKEN_TYPES.length; i++) {
+                CAN_BEGIN_WITH[character][i]
+                    = canBeginWith(TOKEN_TYPES[i], character);
+            }
+        }
+    }
+
+    private CharSequence input;
+    private List<Token> tokens = new ArrayList<Token>();
+
+    // The buffer is `input[bufferStart, bufferEnd)`.
+    private int bufferStart;
+    private int bufferEnd;
+
+    // The first non-whitespace position in the buffer, where every anchored
+    // token type has to begin.
+    private int anchor;
+
+    // Scan positions for the run-based token types, relative to `anchor`.
+    private int wordEnd;
+    private int digitsEnd;
+    private int fractionEnd;
+    private int stringScanIndex;
+    private boolean isStringDead;
+
+    // Positions before this are known to never start a `false` literal.
+    private int falseSearchIndex;
+
+    // The latest line terminator seen, which bounds where comments can open.
+    private int lastLineTerminator = -1;
+
+    // The first comment opening on the current line of the buffer.
+    private int commentSearchIndex;
+    private int commentOpening = NO_MATCH;
+
+    // The start of the most recent match, since some token types can match
+    // after the anchor.
+    private int matchStart;
+
+    TokenScanner(CharSequence input) {
+        this.input = input;
+        resetBuffer(0);
+    }
+
+    /**
+     * Scans the whole input and returns the tokens that were found. Any text
+     * left in the buffer at the end of the input is not turned into a token.
+     *
+     * @return The tokens.
+     */
+    List<Token> scan() {
+        for (bufferEnd = 1; bufferEnd <= input.length(); bufferEnd++) {
+            if (isLineTerminator(input.charAt(bufferEnd - 1))) {
+                lastLineTerminator = bufferEnd - 1;
+            }
+
+            for (int i = 0; i < TOKEN_TYPES.length; i++) {
+                if (!isCandidate(TOKEN_TYPES[i])) {
+                    continue;
+                }
+
+                int matchEnd = find(TOKEN_TYPES[i]);
+
+                if (matchEnd == NO_MATCH) {
+                    continue;
+                }
+
+                Object value;
+
+                if (TOKEN_TYPES[i].getShouldIncludeValue()) {
+                    value = input.subSequence(matchStart, matchEnd).toString();
+                } else {
+                    value = null;
+                }
+
+                tokens.add(new Token(TOKEN_TYPES[i], value));
+                resetBuffer(matchEnd);
+            }
+        }
+
+        return tokens;
+    }
+
+    private void resetBuffer(int newStart) {
+        bufferStart = newStart;
+        anchor = newStart;
+        wordEnd = NO_MATCH;
+        digitsEnd = NO_MATCH;
+        fractionEnd = NO_MATCH;
+        stringScanIndex = NO_MATCH;
+        isStringDead = false;
+    }
+
+    /**
+     * Returns whether a token type could possibly be found in the current
+     * buffer, judging only by the character at `anchor`.
+     *
+     * @param tokenType The token type to check.
+     * @return Whether the token type should be checked.
+     */
+    private boolean isCandidate(TokenType tokenType) {
+        // `false` literals and comments are not anchored, so they are always
+        // checked.
+        if (
+            tokenType == TokenType.LITERAL_BOOLEAN
+                || tokenType == TokenType.COMMENT
+        ) {
+            return true;
+        }
+
+        if (!updateAnchor()) {
+            return false;
+        }
+
+        char character = input.charAt(anchor);
+        return character < 128 && CAN_BEGIN_WITH[character][tokenType.ordinal()];
+    }
+
+    private static boolean canBeginWith(TokenType tokenType, char character) {
+        switch (tokenType) {
+            case LITERAL_STRING:
+                return character == '\'';
+            case LITERAL_FLOAT:
+            case LITERAL_INT:
+                return isDigit(character);
+            case KEYWORD_IF: return character == 'i';
+            case KEYWORD_WHILE: return character == 'w';
+            case KEYWORD_ECHO: return character == 'e';
+            case KEYWORD_ASK: return character == 'a';
+            case KEYWORD_RETURN: return character == 'r';
+            case IDENTIFIER_CAPITALIZED:
+                return 'A' <= character && character <= 'Z';
+            case IDENTIFIER_LOWERCASED:
+                return 'a' <= character && character <= 'z';
+            case IDENTIFIER_UNDERSCORE:
+                return character == '_';
+            case LITERAL_BOOLEAN:
+            case COMMENT:
+                return true;
+            default:
+                return character == characterFor(tokenType);
+        }
+    }
+
+    /**
+     * Returns the character for a token type that is a single punctuator or
+     * operator character.
+     *
+     * @param tokenType The token type.
+     * @return The character, or `NO_CHARACTER` if the token type is not a
+     * single character.
+     */
+    private static char characterFor(TokenType tokenType) {
+        switch (tokenType) {
+            case PUNCTUATOR_OPENING_PARENTHESIS: return '(';
+            case PUNCTUATOR_CLOSING_PARENTHESIS: return ')';
+            case PUNCTUATOR_OPENING_SQUARE: return '[';
+            case PUNCTUATOR_CLOSING_SQUARE: return ']';
+            case PUNCTUATOR_OPENING_CURLY: return '{';
+            case PUNCTUATOR_CLOSING_CURLY: return '}';
+            case PUNCTUATOR_OPENING_ANGLE: return '<';
+            case PUNCTUATOR_CLOSING_ANGLE: return '>';
+            case PUNCTUATOR_COMMA: return ',';
+            case PUNCTUATOR_PERIOD: return '.';
+            case PUNCTUATOR_SEMICOLON: return ';';
+            case PUNCTUATOR_COLON: return ':';
+            case PUNCTUATOR_EXCLAMATION: return '!';
+            case OPERATOR_PLUS: return '+';
+            case OPERATOR_MINUS: return '-';
+            case OPERATOR_TIMES: return '*';
+            case OPERATOR_DIVIDE: return '/';
+            case OPERATOR_EXPONENTIAL: return '^';
+            case OPERATOR_MODULO: return '%';
+            case OPERATOR_EQUALS: return '=';
+            case OPERATOR_AMPERSAND: return '&';
+            case OPERATOR_BAR: return '|';
+            default: return NO_CHARACTER;
+        }
+    }
+
+    /**
+     * Finds a token type in the current buffer, the same way that
+     * `Matcher.find` would find it using the type's regular expression.
+     *
+     * @param tokenType The token type to find.
+     * @return The end of the match, or `NO_MATCH`.
+     */
+    private int find(TokenType tokenType) {
+        char character = characterFor(tokenType);
+
+        if (character != NO_CHARACTER) {
+            return findCharacter(character);
+        }
+
+        switch (tokenType) {
+            case LITERAL_STRING: return findString();
+            case LITERAL_FLOAT: return findFloat();
+            case LITERAL_INT: return findInt();
+            case LITERAL_BOOLEAN: return findBoolean();
+            case KEYWORD_IF: return findWord("if");
+            case KEYWORD_WHILE: return findWord("while");
+            case KEYWORD_ECHO: return findWord("echo");
+            case KEYWORD_ASK: return findWord("ask");
+            case KEYWORD_RETURN: return findWord("return");
+            case IDENTIFIER_CAPITALIZED:
+            case IDENTIFIER_LOWERCASED:
+            case IDENTIFIER_UNDERSCORE:
+                return findIdentifier(tokenType);
+            case COMMENT: return findComment();
+            default:
+                throw new IllegalStateException(
+                    "Token type `" + tokenType.name() + "` cannot be scanned."
+                );
+        }
+    }
+
+    /**
+     * Moves `anchor` past any whitespace, and returns whether there is a
+     * character at it.
+     *
+     * @return Whether a token could begin at `anchor`.
+     */
+    private boolean updateAnchor() {
+        while (anchor < bufferEnd && isWhitespace(input.charAt(anchor))) {
+            anchor++;
+        }
+
+        matchStart = anchor;
+        return anchor < bufferEnd;
+    }
+
+    private int findCharacter(char character) {
+        if (updateAnchor() && input.charAt(anchor) == character) {
+            return anchor + 1;
+        }
+
+        return NO_MATCH;
+    }
+
+    private int findString() {
+        if (!updateAnchor() || input.charAt(anchor) != '\'' || isStringDead) {
+            return NO_MATCH;
+        }
+
+        if (stringScanIndex == NO_MATCH) {
+            stringScanIndex = anchor + 1;
+        }
+
+        while (stringScanIndex < bufferEnd) {
+            char character = input.charAt(stringScanIndex);
+
+            if (character == '\'') {
+                return stringScanIndex + 1;
+            }
+
+            if (character == '\\') {
+                if (stringScanIndex + 1 == bufferEnd) {
+                    return NO_MATCH;
+                }
+
+                // An escaped line terminator can never be matched by `.`, so
+                // no string can be found from this anchor.
+                if (isLineTerminator(input.charAt(stringScanIndex + 1))) {
+                    isStringDead = true;
+                    return NO_MATCH;
+                }
+
+                stringScanIndex += 2;
+                continue;
+            }
+
+            stringScanIndex++;
+        }
+
+        return NO_MATCH;
+    }
+
+    private int findInt() {
+        if (!updateAnchor() || updateDigitsEnd() == anchor) {
+            return NO_MATCH;
+        }
+
+        if (digitsEnd == bufferEnd || input.charAt(digitsEnd) == '.') {
+            return NO_MATCH;
+        }
+
+        return digitsEnd;
+    }
+
+    private int findFloat() {
+        if (!updateAnchor() || updateDigitsEnd() == anchor) {
+            return NO_MATCH;
+        }
+
+        if (digitsEnd == bufferEnd || input.charAt(digitsEnd) != '.') {
+            return NO_MATCH;
+        }
+
+        if (fractionEnd == NO_MATCH) {
+            fractionEnd = digitsEnd + 1;
+        }
+
+        while (fractionEnd < bufferEnd && isDigit(input.charAt(fractionEnd))) {
+            fractionEnd++;
+        }
+
+        if (
+            fractionEnd == digitsEnd + 1
+                || fractionEnd == bufferEnd
+                || input.charAt(fractionEnd) == '.'
+        ) {
+            return NO_MATCH;
+        }
+
+        return fractionEnd;
+    }
+
+    private int updateDigitsEnd() {
+        if (digitsEnd == NO_MATCH) {
+            digitsEnd = anchor;
+        }
+
+        while (digitsEnd < bufferEnd && isDigit(input.charAt(digitsEnd))) {
+            digitsEnd++;
+        }
+
+        return digitsEnd;
+    }
+
+    private int findBoolean() {
+        int trueEnd = findWord("true");
+
+        if (trueEnd != NO_MATCH) {
+            return trueEnd;
+        }
+
+        // Only the `true` alternative is anchored, so `false` can be found
+        // anywhere in the buffer.
+        if (falseSearchIndex < bufferStart) {
+            falseSearchIndex = bufferStart;
+        }
+
+        while (falseSearchIndex + 5 < bufferEnd) {
+            if (
+                regionMatches(falseSearchIndex, "false")
+                    && !isWordCharacter(input.charAt(falseSearchIndex + 5))
+            ) {
+                matchStart = falseSearchIndex;
+                return falseSearchIndex + 5;
+            }
+
+            falseSearchIndex++;
+        }
+
+        return NO_MATCH;
+    }
+
+    private int findWord(String word) {
+        if (!updateAnchor() || updateWordEnd() != anchor + word.length()) {
+            return NO_MATCH;
+        }
+
+        if (wordEnd == bufferEnd || !regionMatches(anchor, word)) {
+            return NO_MATCH;
+        }
+
+        return wordEnd;
+    }
+
+    private int findIdentifier(TokenType tokenType) {
+        if (!updateAnchor() || updateWordEnd() == bufferEnd) {
+            return NO_MATCH;
+        }
+
+        char firstCharacter = input.charAt(anchor);
+        boolean isFirstCharacterValid;
+
+        if (tokenType == TokenType.IDENTIFIER_CAPITALIZED) {
+            isFirstCharacterValid = 'A' <= firstCharacter && firstCharacter <= 'Z';
+        } else if (tokenType == TokenType.IDENTIFIER_LOWERCASED) {
+            isFirstCharacterValid = 'a' <= firstCharacter && firstCharacter <= 'z';
+        } else {
+            isFirstCharacterValid = firstCharacter == '_';
+        }
+
+        if (!isFirstCharacterValid) {
+            return NO_MATCH;
+        }
+
+        return wordEnd;
+    }
+
+    private int updateWordEnd() {
+        if (wordEnd == NO_MATCH) {
+            wordEnd = anchor;
+        }
+
+        while (wordEnd < bufferEnd && isWordCharacter(input.charAt(wordEnd))) {
+            wordEnd++;
+        }
+
+        return wordEnd;
+    }
+
+    /**
+     * Finds a comment. Since comments are checked after every character, the
+     * only comment that can be found is one whose closing `* /` was the last
+     * character added, opened by the first `/ *` on the same line.
+     */
+    private int findComment() {
+        if (
+            bufferEnd - bufferStart < 4
+                || input.charAt(bufferEnd - 2) != '*'
+                || input.charAt(bufferEnd - 1) != '/'
+        ) {
+            return NO_MATCH;
+        }
+
+        int lineStart = Math.max(bufferStart, lastLineTerminator + 1);
+
+        if (commentOpening != NO_MATCH && commentOpening < lineStart) {
+            commentOpening = NO_MATCH;
+        }
+
+        if (commentSearchIndex < lineStart) {
+            commentSearchIndex = lineStart;
+        }
+
+        while (commentOpening == NO_MATCH && commentSearchIndex + 1 < bufferEnd) {
+            if (regionMatches(commentSearchIndex, "/*")) {
+                commentOpening = commentSearchIndex;
+            }
+
+            commentSearchIndex++;
+        }
+
+        if (commentOpening == NO_MATCH || commentOpening + 4 > bufferEnd) {
+            return NO_MATCH;
+        }
+
+        matchStart = commentOpening;
+
+        while (
+            bufferStart < matchStart
+                && isWhitespace(input.charAt(matchStart - 1))
+        ) {
+            matchStart--;
+        }
+
+        commentOpening = NO_MATCH;
+        return bufferEnd;
+    }
+
+    private boolean regionMatches(int start, String string) {
+        if (bufferEnd - start < string.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < string.length(); i++) {
+            if (input.charAt(start + i) != string.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isDigit(char character) {
+        return '0' <= character && character <= '9';
+    }
+
+    private static boolean isWordCharacter(char character) {
+        return character == '_'
+            || ('A' <= character && character <= 'Z')
+            || ('a' <= character && character <= 'z');
+    }
+
+    /**
+     * Returns whether a character is matched by the regular expression `\s`.
+     */
+    private static boolean isWhitespace(char character) {
+        return character == ' '
+            || character == '\t'
+            || character == '\n'
+            || character == '\u000B'
+            || character == '\f'
+            || character == '\r';
+    }
+
+    /**
+     * Returns whether a character is a line terminator, and so is not matched
+     * by the regular expression `.`.
+     */
+    private static boolean isLineTerminator(char character) {
+        return character == '\n'
+            || character == '\r'
+            || character == '\u0085'
+            || character == '\u2028'
+            || character == '\u2029';
+    }
+}
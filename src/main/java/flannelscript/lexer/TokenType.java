@@ -1,7 +1,9 @@
 package flannelscript.lexer;
 
-import java.util.regex.Pattern;
-
+/**
+ * The kinds of tokens. Each one's regular expression defines the tokens of
+ * that kind, and `TokenScanner` finds the same tokens without running it.
+ */
 public enum TokenType {
     PUNCTUATOR_OPENING_PARENTHESIS("(?<=^\\s*)\\(", false),
     PUNCTUATOR_CLOSING_PARENTHESIS("(?<=^\\s*)\\)", false),
@@ -52,10 +54,6 @@ public enum TokenType {
         this.shouldIncludeValue = shouldIncludeValue;
     }
 
-    Pattern getRegexPattern() {
-        return Pattern.compile(regexString);
-    }
-
     boolean getShouldIncludeValue() {
         return shouldIncludeValue;
     }
@@ -35,11 +35,17 @@ public class ASTNode extends SimpleNode implements Node {
 
     /**
      * Sets this token's `value` to part of the image for a `Token`. E.g., if
-     * the token is `[LITERAL_INT 13]`, `13` will be used.
+     * the token is `[LITERAL_INT 13]`, `13` will be used. Tokens that came
+     * straight from `Lexer` already hold their value, so it is used as-is.
      *
      * @param token The token to use.
      */
     public void setFilteredValueForToken(Token token) {
+        if (token.getValue() != null) {
+            this.value = token.getValue();
+            return;
+        }
+
         String value = token.image;
 
         this.value = value.substring(
@@ -57,6 +63,16 @@ public class ASTNode extends SimpleNode implements Node {
         return super.toString();
     }
 
+    /**
+     * Returns this node's id, which is its index in
+     * `ParserTreeConstants.jjtNodeName`.
+     *
+     * @return This node's id.
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Returns this node's value.
      *
@@ -80,12 +96,22 @@ public class ASTNode extends SimpleNode implements Node {
     }
 
     /**
-     * Returns this node's child node at a specific index.
+     * Returns this node's child node at a specific index, without copying
+     * this node's children.
      *
      * @return The child node.
      */
     public ASTNode getChild(int index) {
-        return getChildren()[index];
+        return (ASTNode) children[index];
+    }
+
+    /**
+     * Returns the number of children this node has.
+     *
+     * @return The number of children.
+     */
+    public int getChildCount() {
+        return jjtGetNumChildren();
     }
 
     /**
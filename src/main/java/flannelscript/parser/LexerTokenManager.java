@@ -0,0 +1,187 @@
+package flannelscript.parser;
+
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+
+import flannelscript.lexer.TokenType;
+
+/**
+ * A token manager that hands `Token`s created by `Lexer` straight to the
+ * `Parser`, instead of having the parser read them back from their printed
+ * form, e.g., `[LITERAL_INT 13]`.
+ *
+ * JavaCC only lets the `Parser` be constructed with a `ParserTokenManager`
+ * (since the grammar does not use `USER_TOKEN_MANAGER`), so this extends the
+ * generated token manager and replaces its `getNextToken` method.
+ */
+public class LexerTokenManager extends ParserTokenManager {
+    private Iterator<flannelscript.lexer.Token> lexedTokens;
+    private int line = 1;
+
+    /**
+     * Creates a token manager for tokens that have already been lexed.
+     *
+     * @param lexedTokens The tokens created by `Lexer`.
+     */
+    public LexerTokenManager(List<flannelscript.lexer.Token> lexedTokens) {
+        super(new SimpleCharStream(new StringReader("")));
+        this.lexedTokens = lexedTokens.iterator();
+    }
+
+    /**
+     * Returns the next token, skipping any comments. Once the lexed tokens
+     * have run out, an `EOF` token is returned every time.
+     *
+     * @return The next token.
+     */
+    @Override
+    public Token getNextToken() {
+        while (lexedTokens.hasNext()) {
+            flannelscript.lexer.Token lexedToken = lexedTokens.next();
+
+            if (lexedToken.getTokenType() == TokenType.COMMENT) {
+                continue;
+            }
+
+            return createToken(lexedToken);
+        }
+
+        Token token = new Token(ParserConstants.EOF, "<EOF>");
+        token.beginLine = line;
+        token.endLine = line;
+        return token;
+    }
+
+    private Token createToken(flannelscript.lexer.Token lexedToken) {
+        Token token;
+
+        if (lexedToken.getValue() == null) {
+            token = new Token(
+                kindForTokenType(lexedToken.getTokenType()),
+                lexedToken.getTokenType().name()
+            );
+        } else {
+            token = new LexedToken(
+                kindForTokenType(lexedToken.getTokenType()),
+                lexedToken.getValue().toString()
+            );
+        }
+
+        // `Lexer` does not keep track of positions, so the tokens are
+        // numbered instead, which still points `ParseException`s at the
+        // right token.
+        token.beginLine = line;
+        token.endLine = line;
+        line++;
+
+        return token;
+    }
+
+    /**
+     * Returns the `ParserConstants` kind for a `TokenType`.
+     *
+     * @param tokenType The token type.
+     * @return The kind.
+     */
+    static int kindForTokenType(TokenType tokenType) {
+        switch (tokenType) {
+            case PUNCTUATOR_OPENING_PARENTHESIS:
+                return ParserConstants.PUNCTUATOR_OPENING_PARENTHESIS;
+            case PUNCTUATOR_CLOSING_PARENTHESIS:
+                return ParserConstants.PUNCTUATOR_CLOSING_PARENTHESIS;
+            case PUNCTUATOR_OPENING_SQUARE:
+                return ParserConstants.PUNCTUATOR_OPENING_SQUARE;
+            case PUNCTUATOR_CLOSING_SQUARE:
+                return ParserConstants.PUNCTUATOR_CLOSING_SQUARE;
+            case PUNCTUATOR_OPENING_CURLY:
+                return ParserConstants.PUNCTUATOR_OPENING_CURLY;
+            case PUNCTUATOR_CLOSING_CURLY:
+                return ParserConstants.PUNCTUATOR_CLOSING_CURLY;
+            case PUNCTUATOR_OPENING_ANGLE:
+                return ParserConstants.PUNCTUATOR_OPENING_ANGLE;
+            case PUNCTUATOR_CLOSING_ANGLE:
+                return ParserConstants.PUNCTUATOR_CLOSING_ANGLE;
+            case PUNCTUATOR_COMMA:
+                return ParserConstants.PUNCTUATOR_COMMA;
+            case PUNCTUATOR_PERIOD:
+                return ParserConstants.PUNCTUATOR_PERIOD;
+            case PUNCTUATOR_SEMICOLON:
+                return ParserConstants.PUNCTUATOR_SEMICOLON;
+            case PUNCTUATOR_COLON:
+                return ParserConstants.PUNCTUATOR_COLON;
+            case PUNCTUATOR_EXCLAMATION:
+                return ParserConstants.PUNCTUATOR_EXCLAMATION;
+            case OPERATOR_PLUS:
+                return ParserConstants.OPERATOR_PLUS;
+            case OPERATOR_MINUS:
+                return ParserConstants.OPERATOR_MINUS;
+            case OPERATOR_TIMES:
+                return ParserConstants.OPERATOR_TIMES;
+            case OPERATOR_DIVIDE:
+                return ParserConstants.OPERATOR_DIVIDE;
+            case OPERATOR_EXPONENTIAL:
+                return ParserConstants.OPERATOR_EXPONENTIAL;
+            case OPERATOR_MODULO:
+                return ParserConstants.OPERATOR_MODULO;
+            case OPERATOR_EQUALS:
+                return ParserConstants.OPERATOR_EQUALS;
+            case OPERATOR_AMPERSAND:
+                return ParserConstants.OPERATOR_AMPERSAND;
+            case OPERATOR_BAR:
+                return ParserConstants.OPERATOR_BAR;
+            case LITERAL_STRING:
+                return ParserConstants.LITERAL_STRING;
+            case LITERAL_FLOAT:
+                return ParserConstants.LITERAL_FLOAT;
+            case LITERAL_INT:
+                return ParserConstants.LITERAL_INT;
+            case LITERAL_BOOLEAN:
+                return ParserConstants.LITERAL_BOOLEAN;
+            case KEYWORD_IF:
+                return ParserConstants.KEYWORD_IF;
+            case KEYWORD_WHILE:
+                return ParserConstants.KEYWORD_WHILE;
+            case KEYWORD_ECHO:
+                return ParserConstants.KEYWORD_ECHO;
+            case KEYWORD_ASK:
+                return ParserConstants.KEYWORD_ASK;
+            case KEYWORD_RETURN:
+                return ParserConstants.KEYWORD_RETURN;
+            case IDENTIFIER_CAPITALIZED:
+                return ParserConstants.IDENTIFIER_CAPITALIZED;
+            case IDENTIFIER_LOWERCASED:
+                return ParserConstants.IDENTIFIER_LOWERCASED;
+            case IDENTIFIER_UNDERSCORE:
+                return ParserConstants.IDENTIFIER_UNDERSCORE;
+            default:
+                throw new LexerTokenException(
+                    "Token type `" + tokenType.name() + "` has no parser token."
+                );
+        }
+    }
+}
+
+/**
+ * A parser token that holds a lexed value directly, so that it does not need
+ * to be filtered out of an image like `[LITERAL_INT 13]`.
+ */
+class LexedToken extends Token {
+    private String value;
+
+    LexedToken(int kind, String value) {
+        super(kind, value);
+        this.value = value;
+    }
+
+    @Override
+    public Object getValue() {
+        return value;
+    }
+}
+
+class LexerTokenException extends RuntimeException {
+    LexerTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,337 @@
+package flannelscript.runtime;
+
+import flannelscript.ir.BinaryOperator;
+
+/**
+ * A node that calls a binary operator's method on its left operand, which
+ * specializes itself on the classes of the operands it sees.
+ *
+ * A node starts out uninitialized. The first time it sees two `Int`s, two
+ * `Flt`s, two `Bln`s or two `Str`s, it adds a specialization for them, which
+ * inlines the operator's built-in method instead of looking it up and calling
+ * it. Once it sees operands that no specialization handles, it drops its
+ * specializations and calls the method from then on.
+ *
+ * `&` and `|` don't evaluate their right operand when their left one is a
+ * `Bln` that already decides the result.
+ *
+ * The specializations are also shared with `BytecodeInterpreter`, through
+ * `evaluate(BinaryOperator, CreatedObject, CreatedObject)`.
+ */
+class BinaryNode extends ExecutableExpression {
+    private static final int INT = 1;
+    private static final int FLT = 2;
+    private static final int BLN = 4;
+    private static final int STR = 8;
+    private static final int GENERIC = 16;
+
+    private final BinaryOperator operator;
+    private final ExecutableExpression left;
+    private final ExecutableExpression right;
+    private final boolean isShortCircuiting;
+    private int state = 0;
+
+    BinaryNode(
+        BinaryOperator operator,
+        ExecutableExpression left,
+        ExecutableExpression right
+    ) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+        this.isShortCircuiting = operator == BinaryOperator.AND
+            || operator == BinaryOperator.OR;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        CreatedObject leftValue = left.evaluate(context);
+
+        if (isShortCircuiting && isDecided(operator, leftValue)) {
+            return leftValue;
+        }
+
+        CreatedObject rightValue = right.evaluate(context);
+        CreatedClass leftClass = leftValue.getObjectClass();
+
+        if (leftClass == rightValue.getObjectClass()) {
+            if ((state & INT) != 0 && leftClass == RuntimeConstants.getIntClass()) {
+                return evaluateInt(operator, leftValue, rightValue);
+            }
+
+            if ((state & FLT) != 0 && leftClass == RuntimeConstants.getFltClass()) {
+                return evaluateFlt(operator, leftValue, rightValue);
+            }
+
+            if ((state & BLN) != 0 && leftClass == RuntimeConstants.getBlnClass()) {
+                return evaluateBln(operator, leftValue, rightValue);
+            }
+
+            if ((state & STR) != 0 && leftClass == RuntimeConstants.getStrClass()) {
+                return evaluateStr(operator, leftValue, rightValue);
+            }
+        }
+
+        if (state == GENERIC) {
+            return evaluateGeneric(operator, leftValue, rightValue);
+        }
+
+        return specialize(leftValue, rightValue);
+    }
+
+    /**
+     * Updates this node's specializations for operands that none of them
+     * handle yet, then evaluates the operator on them.
+     */
+    private CreatedObject specialize(CreatedObject leftValue, CreatedObject rightValue) {
+        CreatedClass leftClass = leftValue.getObjectClass();
+        int specialization = GENERIC;
+
+        if (leftClass == rightValue.getObjectClass()) {
+            if (leftClass == RuntimeConstants.getIntClass() && isNumeric(operator)) {
+                specialization = INT;
+            } else if (leftClass == RuntimeConstants.getFltClass() && isNumeric(operator)) {
+                specialization = FLT;
+            } else if (leftClass == RuntimeConstants.getBlnClass() && isLogical(operator)) {
+                specialization = BLN;
+            } else if (leftClass == RuntimeConstants.getStrClass() && isTextual(operator)) {
+                specialization = STR;
+            }
+        }
+
+        if (specialization == GENERIC) {
+            state = GENERIC;
+            return evaluateGeneric(operator, leftValue, rightValue);
+        }
+
+        state |= specialization;
+
+        if (specialization == INT) {
+            return evaluateInt(operator, leftValue, rightValue);
+        }
+
+        if (specialization == FLT) {
+            return evaluateFlt(operator, leftValue, rightValue);
+        }
+
+        if (specialization == BLN) {
+            return evaluateBln(operator, leftValue, rightValue);
+        }
+
+        return evaluateStr(operator, leftValue, rightValue);
+    }
+
+    /**
+     * Checks whether the left operand of an `&` or `|` decides its result,
+     * i.e., whether it is `false` for `&` or `true` for `|`.
+     *
+     * @param operator `AND` or `OR`.
+     * @param leftValue The left operand.
+     * @return Whether the right operand is skipped.
+     */
+    static boolean isDecided(BinaryOperator operator, CreatedObject leftValue) {
+        return leftValue.getObjectClass() == RuntimeConstants.getBlnClass()
+            && leftValue.getBooleanValue() == (operator == BinaryOperator.OR);
+    }
+
+    /**
+     * Evaluates an operator on two operands, inlining its built-in method if
+     * a specialization handles their classes, otherwise calling the method.
+     *
+     * @param operator The operator.
+     * @param leftValue The left operand.
+     * @param rightValue The right operand.
+     * @return The result.
+     */
+    static CreatedObject evaluate(
+        BinaryOperator operator,
+        CreatedObject leftValue,
+        CreatedObject rightValue
+    ) {
+        CreatedClass leftClass = leftValue.getObjectClass();
+
+        if (leftClass == rightValue.getObjectClass()) {
+            if (leftClass == RuntimeConstants.getIntClass() && isNumeric(operator)) {
+                return evaluateInt(operator, leftValue, rightValue);
+            }
+
+            if (leftClass == RuntimeConstants.getFltClass() && isNumeric(operator)) {
+                return evaluateFlt(operator, leftValue, rightValue);
+            }
+
+            if (leftClass == RuntimeConstants.getBlnClass() && isLogical(operator)) {
+                return evaluateBln(operator, leftValue, rightValue);
+            }
+
+            if (leftClass == RuntimeConstants.getStrClass() && isTextual(operator)) {
+                return evaluateStr(operator, leftValue, rightValue);
+            }
+        }
+
+        return evaluateGeneric(operator, leftValue, rightValue);
+    }
+
+    private static boolean isNumeric(BinaryOperator operator) {
+        // `^` is left to the method, which `Int` and `Flt` don't implement as
+        // an exponent.
+        return operator != BinaryOperator.AND
+            && operator != BinaryOperator.OR
+            && operator != BinaryOperator.EXPONENTIAL;
+    }
+
+    private static boolean isLogical(BinaryOperator operator) {
+        return operator == BinaryOperator.EQUALITY
+            || operator == BinaryOperator.NEGATED_EQUALITY
+            || operator == BinaryOperator.AND
+            || operator == BinaryOperator.OR;
+    }
+
+    private static boolean isTextual(BinaryOperator operator) {
+        return operator == BinaryOperator.EQUALITY
+            || operator == BinaryOperator.NEGATED_EQUALITY
+            || operator == BinaryOperator.PLUS;
+    }
+
+    private static CreatedObject evaluateGeneric(
+        BinaryOperator operator,
+        CreatedObject leftValue,
+        CreatedObject rightValue
+    ) {
+        return leftValue.callMethod(
+            operator.getMethodName(),
+            new CreatedObject[] { rightValue }
+        );
+    }
+
+    private static CreatedObject evaluateInt(
+        BinaryOperator operator,
+        CreatedObject leftValue,
+        CreatedObject rightValue
+    ) {
+        long leftLong = leftValue.getLongValue();
+        long rightLong = rightValue.getLongValue();
+
+        switch (operator) {
+            case EQUALITY:
+                return RuntimeConstants.createBln(leftLong == rightLong);
+            case NEGATED_EQUALITY:
+                return RuntimeConstants.createBln(leftLong != rightLong);
+            case PLUS:
+                return RuntimeConstants.createInt(leftLong + rightLong);
+            case MINUS:
+                return RuntimeConstants.createInt(leftLong - rightLong);
+            case TIMES:
+                return RuntimeConstants.createInt(leftLong * rightLong);
+            case DIVIDE:
+                return RuntimeConstants.createInt(leftLong / rightLong);
+            case MODULO:
+                return RuntimeConstants.createInt(leftLong % rightLong);
+            case GREATER_THAN:
+                return RuntimeConstants.createBln(leftLong > rightLong);
+            case LESS_THAN:
+                return RuntimeConstants.createBln(leftLong < rightLong);
+            case GREATER_OR_EQUAL:
+                return RuntimeConstants.createBln(leftLong >= rightLong);
+            case LESS_OR_EQUAL:
+                return RuntimeConstants.createBln(leftLong <= rightLong);
+            default:
+                throw unspecializedOperator(operator);
+        }
+    }
+
+    private static CreatedObject evaluateFlt(
+        BinaryOperator operator,
+        CreatedObject leftValue,
+        CreatedObject rightValue
+    ) {
+        double leftDouble = leftValue.getDoubleValue();
+        double rightDouble = rightValue.getDoubleValue();
+
+        switch (operator) {
+            // Like `Double.equals`, which the methods use, these compare bits,
+            // so that `NaN` equals itself and `0.0` doesn't equal `-0.0`.
+            case EQUALITY:
+                return RuntimeConstants.createBln(
+                    Double.doubleToLongBits(leftDouble)
+                        == Double.doubleToLongBits(rightDouble)
+                );
+            case NEGATED_EQUALITY:
+                return RuntimeConstants.createBln(
+                    Double.doubleToLongBits(leftDouble)
+                        != Double.doubleToLongBits(rightDouble)
+                );
+            case PLUS:
+                return RuntimeConstants.createFlt(leftDouble + rightDouble);
+            case MINUS:
+                return RuntimeConstants.createFlt(leftDouble - rightDouble);
+            case TIMES:
+                return RuntimeConstants.createFlt(leftDouble * rightDouble);
+            case DIVIDE:
+                return RuntimeConstants.createFlt(leftDouble / rightDouble);
+            case MODULO:
+                return RuntimeConstants.createFlt(leftDouble % rightDouble);
+            case GREATER_THAN:
+                return RuntimeConstants.createBln(leftDouble > rightDouble);
+            case LESS_THAN:
+                return RuntimeConstants.createBln(leftDouble < rightDouble);
+            case GREATER_OR_EQUAL:
+                return RuntimeConstants.createBln(leftDouble >= rightDouble);
+            case LESS_OR_EQUAL:
+                return RuntimeConstants.createBln(leftDouble <= rightDouble);
+            default:
+                throw unspecializedOperator(operator);
+        }
+    }
+
+    private static CreatedObject evaluateBln(
+        BinaryOperator operator,
+        CreatedObject leftValue,
+        CreatedObject rightValue
+    ) {
+        boolean leftBoolean = leftValue.getBooleanValue();
+        boolean rightBoolean = rightValue.getBooleanValue();
+
+        switch (operator) {
+            case EQUALITY:
+                return RuntimeConstants.createBln(leftBoolean == rightBoolean);
+            case NEGATED_EQUALITY:
+                return RuntimeConstants.createBln(leftBoolean != rightBoolean);
+            case AND:
+                return RuntimeConstants.createBln(leftBoolean && rightBoolean);
+            case OR:
+                return RuntimeConstants.createBln(leftBoolean || rightBoolean);
+            default:
+                throw unspecializedOperator(operator);
+        }
+    }
+
+    private static CreatedObject evaluateStr(
+        BinaryOperator operator,
+        CreatedObject leftValue,
+        CreatedObject rightValue
+    ) {
+        String leftString = (String) leftValue.getBaseValue();
+        String rightString = (String) rightValue.getBaseValue();
+
+        switch (operator) {
+            case EQUALITY:
+                return RuntimeConstants.createBln(leftString.equals(rightString));
+            case NEGATED_EQUALITY:
+                return RuntimeConstants.createBln(!leftString.equals(rightString));
+            case PLUS:
+                return RuntimeConstants.getStrClass().createObject(
+                    leftString + rightString
+                );
+            default:
+                throw unspecializedOperator(operator);
+        }
+    }
+
+    private static ExecutableExpressionException unspecializedOperator(
+        BinaryOperator operator
+    ) {
+        return new ExecutableExpressionException(
+            "Operator `" + operator.getMethodName() + "` is not specialized."
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package flannelscript.runtime;
+
+/**
+ * A `Bln`, which holds its value as a raw `boolean`. There are only ever two
+ * of them, which `RuntimeConstants.createBln` returns.
+ */
+final class BlnValue extends CreatedObject<Boolean> {
+    private final boolean value;
+
+    BlnValue(CreatedClass<Boolean> blnClass, boolean value) {
+        super(blnClass, null);
+        this.value = value;
+    }
+
+    @Override
+    public Boolean getBaseValue() {
+        return value;
+    }
+
+    @Override
+    boolean getBooleanValue() {
+        return value;
+    }
+}
@@ -0,0 +1,505 @@
+package flannelscript.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import flannelscript.ir.AskExpression;
+import flannelscript.ir.BinaryExpression;
+import flannelscript.ir.BinaryOperator;
+import flannelscript.ir.BlnLiteral;
+import flannelscript.ir.Block;
+import flannelscript.ir.ClassCall;
+import flannelscript.ir.ClassDeclaration;
+import flannelscript.ir.EchoStatement;
+import flannelscript.ir.Expression;
+import flannelscript.ir.ExpressionStatement;
+import flannelscript.ir.FltLiteral;
+import flannelscript.ir.FunctionCall;
+import flannelscript.ir.FunctionDeclaration;
+import flannelscript.ir.IfStatement;
+import flannelscript.ir.IntLiteral;
+import flannelscript.ir.MethodCall;
+import flannelscript.ir.NotExpression;
+import flannelscript.ir.PropertyGet;
+import flannelscript.ir.ReturnStatement;
+import flannelscript.ir.Statement;
+import flannelscript.ir.StrLiteral;
+import flannelscript.ir.VariableAssignment;
+import flannelscript.ir.VariableDeclaration;
+import flannelscript.ir.VariableGet;
+import flannelscript.ir.WhileStatement;
+
+/**
+ * Compiles a program into `CompiledCode` for `BytecodeInterpreter`. Each unit
+ * of code, i.e., top-level code and the body of each function and method, is
+ * compiled by its own `BytecodeCompiler`.
+ *
+ * Every variable declared in a unit gets a local slot from `SlotResolver`.
+ * Until its declaration has run, a slot is empty and the variable is looked
+ * up by name instead, the same as in `RuntimeNode`. Literals are created once
+ * while compiling, so this has to happen after `RuntimeConstants.setGlobals`.
+ */
+class BytecodeCompiler {
+    private final SlotResolver slots;
+    private int[] instructions = new int[64];
+    private int instructionCount = 0;
+    private ArrayList<Object> constants = new ArrayList<Object>();
+    private HashMap<String, Integer> nameConstants
+        = new HashMap<String, Integer>();
+    private HashMap<Object, Integer> literalConstants
+        = new HashMap<Object, Integer>();
+    private int stackSize = 0;
+    private int maxStackSize = 0;
+
+    private BytecodeCompiler(SlotResolver slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Compiles a program's top-level code.
+     *
+     * @param program The program to compile.
+     * @return The compiled code.
+     */
+    static CompiledCode compileProgram(Block program) {
+        BytecodeCompiler compiler
+            = new BytecodeCompiler(SlotResolver.resolveProgram(program));
+
+        compiler.compileBlock(program);
+        compiler.emit(Opcode.END, 0);
+        return compiler.finish();
+    }
+
+    /**
+     * Compiles the body of a function or method.
+     *
+     * @param declaration The function's declaration.
+     * @return The compiled body.
+     */
+    static CompiledCode compileFunction(FunctionDeclaration declaration) {
+        // Parameters have the first slots, so that they line up with the
+        // arguments passed to `CompiledCode.run`.
+        BytecodeCompiler compiler
+            = new BytecodeCompiler(SlotResolver.resolveFunction(declaration));
+
+        compiler.compileBlock(declaration.getBody());
+        compiler.emit(Opcode.RETURN_UND, 0);
+        return compiler.finish();
+    }
+
+    private CompiledCode finish() {
+        return new CompiledCode(
+            Arrays.copyOf(instructions, instructionCount),
+            constants.toArray(),
+            slots.getSlotCount(),
+            maxStackSize
+        );
+    }
+
+    /**
+     * Compiles a block. A `return` statement returns straight from the unit
+     * of code, however deep in it the block is, so the statements after it
+     * are never run and aren't compiled.
+     *
+     * @param block The block to compile.
+     */
+    private void compileBlock(Block block) {
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof ReturnStatement) {
+                compileExpression(((ReturnStatement) statement).getValue());
+                emit(Opcode.RETURN, -1);
+                return;
+            }
+
+            compileStatement(statement);
+        }
+    }
+
+    private void compileStatement(Statement statement) {
+        if (statement instanceof VariableDeclaration) {
+            VariableDeclaration declaration = (VariableDeclaration) statement;
+
+            compileExpression(declaration.getValue());
+            emit(
+                Opcode.DECLARE_LOCAL,
+                -1,
+                slots.getSlot(declaration.getName()),
+                name(declaration.getTypeName())
+            );
+            return;
+        }
+
+        if (statement instanceof VariableAssignment) {
+            VariableAssignment assignment = (VariableAssignment) statement;
+
+            compileExpression(assignment.getValue());
+
+            if (slots.hasSlot(assignment.getName())) {
+                emit(
+                    Opcode.ASSIGN_LOCAL,
+                    -1,
+                    slots.getSlot(assignment.getName()),
+                    name(assignment.getName())
+                );
+            } else {
+                emit(
+                    Opcode.ASSIGN_NAME,
+                    -1,
+                    constant(new PropertyCache(assignment.getName()))
+                );
+            }
+
+            return;
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            compileExpression(((ExpressionStatement) statement).getExpression());
+            emit(Opcode.POP, -1);
+            return;
+        }
+
+        if (statement instanceof EchoStatement) {
+            compileExpression(((EchoStatement) statement).getValue());
+            emit(Opcode.ECHO, -1);
+            return;
+        }
+
+        if (statement instanceof WhileStatement) {
+            WhileStatement whileStatement = (WhileStatement) statement;
+
+            // The condition is checked for being a `Bln` once before the loop
+            // starts, in the same way as `RuntimeNode`.
+            if (TypeChecks.isEnabled()) {
+                compileExpression(whileStatement.getCondition());
+                emit(Opcode.CHECK_BLN, -1);
+            }
+
+            int loopStart = instructionCount;
+
+            compileExpression(whileStatement.getCondition());
+            emit(Opcode.JUMP_IF_FALSE, -1, 0);
+
+            int endOperand = instructionCount - 1;
+
+            compileBlock(whileStatement.getBody());
+            emit(Opcode.JUMP, 0, loopStart);
+            instructions[endOperand] = instructionCount;
+            return;
+        }
+
+        if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+
+            // See `WhileStatement`.
+            if (TypeChecks.isEnabled()) {
+                compileExpression(ifStatement.getCondition());
+                emit(Opcode.CHECK_BLN, -1);
+            }
+            compileExpression(ifStatement.getCondition());
+            emit(Opcode.JUMP_IF_FALSE, -1, 0);
+
+            int endOperand = instructionCount - 1;
+
+            compileBlock(ifStatement.getBody());
+            instructions[endOperand] = instructionCount;
+            return;
+        }
+
+        if (statement instanceof FunctionDeclaration) {
+            emit(
+                Opcode.DECLARE_FUNCTION,
+                0,
+                constant(compileDeclaration((FunctionDeclaration) statement))
+            );
+            return;
+        }
+
+        if (statement instanceof ClassDeclaration) {
+            compileClassDeclaration((ClassDeclaration) statement);
+            return;
+        }
+
+        throw new BytecodeCompilerException("Statement found is unsupported.");
+    }
+
+    private static DeclareFunctionNode compileDeclaration(
+        FunctionDeclaration declaration
+    ) {
+        return DeclareFunctionNode.compile(
+            declaration,
+            compileFunction(declaration)
+        );
+    }
+
+    private void compileClassDeclaration(ClassDeclaration declaration) {
+        String[] overrideNames = new String[declaration.getOverrideCount()];
+        String[] propertyTypeNames = new String[declaration.getPropertyCount()];
+        String[] propertyNames = new String[propertyTypeNames.length];
+        DeclareFunctionNode[] methods
+            = new DeclareFunctionNode[declaration.getMethodCount()];
+
+        for (int i = 0; i < overrideNames.length; i++) {
+            VariableAssignment override = declaration.getOverride(i);
+
+            overrideNames[i] = override.getName();
+            compileExpression(override.getValue());
+        }
+
+        for (int i = 0; i < propertyNames.length; i++) {
+            VariableDeclaration property = declaration.getProperty(i);
+
+            propertyTypeNames[i] = property.getTypeName();
+            propertyNames[i] = property.getName();
+            compileExpression(property.getValue());
+        }
+
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = compileDeclaration(declaration.getMethod(i));
+        }
+
+        emit(
+            Opcode.DECLARE_CLASS,
+            -(overrideNames.length + propertyNames.length),
+            constant(
+                new ClassTemplate(
+                    declaration.getName(),
+                    declaration.getExtendsName(),
+                    overrideNames,
+                    propertyTypeNames,
+                    propertyNames,
+                    methods
+                )
+            )
+        );
+    }
+
+    private void compileExpression(Expression expression) {
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+            BinaryOperator operator = binaryExpression.getOperator();
+            int endOperand = -1;
+
+            compileExpression(binaryExpression.getLeft());
+
+            if (operator == BinaryOperator.AND || operator == BinaryOperator.OR) {
+                emit(
+                    Opcode.JUMP_IF_DECIDED,
+                    0,
+                    operator == BinaryOperator.OR ? 1 : 0,
+                    0
+                );
+                endOperand = instructionCount - 1;
+            }
+
+            compileExpression(binaryExpression.getRight());
+            emit(Opcode.BINARY, -1, operator.ordinal());
+
+            if (endOperand != -1) {
+                instructions[endOperand] = instructionCount;
+            }
+
+            return;
+        }
+
+        if (expression instanceof VariableGet) {
+            compileLoad(((VariableGet) expression).getName());
+            return;
+        }
+
+        if (expression instanceof IntLiteral) {
+            long value = ((IntLiteral) expression).getValue();
+
+            emit(
+                Opcode.CONSTANT,
+                1,
+                literal(value, RuntimeConstants.createInt(value))
+            );
+            return;
+        }
+
+        if (expression instanceof FltLiteral) {
+            double value = ((FltLiteral) expression).getValue();
+
+            emit(
+                Opcode.CONSTANT,
+                1,
+                literal(value, RuntimeConstants.createFlt(value))
+            );
+            return;
+        }
+
+        if (expression instanceof BlnLiteral) {
+            emit(
+                Opcode.CONSTANT,
+                1,
+                blnLiteral(((BlnLiteral) expression).getValue())
+            );
+            return;
+        }
+
+        if (expression instanceof StrLiteral) {
+            String value = ((StrLiteral) expression).getValue();
+
+            emit(
+                Opcode.CONSTANT,
+                1,
+                literal(value, RuntimeConstants.getStrClass().createObject(value))
+            );
+            return;
+        }
+
+        if (expression instanceof NotExpression) {
+            compileExpression(((NotExpression) expression).getOperand());
+            emit(Opcode.NOT, 0, blnLiteral(false));
+            return;
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                compileExpression(call.getArgument(i));
+            }
+
+            emit(
+                Opcode.CALL_FUNCTION,
+                1 - call.getArgumentCount(),
+                constant(new InlineCache(call.getName())),
+                call.getArgumentCount()
+            );
+            return;
+        }
+
+        if (expression instanceof MethodCall) {
+            MethodCall call = (MethodCall) expression;
+
+            // The arguments are evaluated before the receiver is looked up,
+            // in the same way as `RuntimeNode`.
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                compileExpression(call.getArgument(i));
+            }
+
+            compileLoad(call.getObjectName());
+            emit(
+                Opcode.CALL_METHOD,
+                -call.getArgumentCount(),
+                constant(new InlineCache(call.getMethodName())),
+                call.getArgumentCount()
+            );
+            return;
+        }
+
+        if (expression instanceof ClassCall) {
+            ClassCall call = (ClassCall) expression;
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                compileExpression(call.getArgument(i));
+            }
+
+            emit(
+                Opcode.NEW_OBJECT,
+                1 - call.getArgumentCount(),
+                name(call.getClassName()),
+                call.getArgumentCount()
+            );
+            return;
+        }
+
+        if (expression instanceof PropertyGet) {
+            PropertyGet propertyGet = (PropertyGet) expression;
+
+            compileLoad(propertyGet.getObjectName());
+            emit(
+                Opcode.GET_PROPERTY,
+                0,
+                constant(new PropertyCache(propertyGet.getPropertyName()))
+            );
+            return;
+        }
+
+        if (expression instanceof AskExpression) {
+            compileExpression(((AskExpression) expression).getPrompt());
+            emit(Opcode.ASK, 0);
+            return;
+        }
+
+        throw new BytecodeCompilerException("Expression found is unsupported.");
+    }
+
+    private void compileLoad(String variableName) {
+        if (slots.hasSlot(variableName)) {
+            emit(
+                Opcode.LOAD_LOCAL,
+                1,
+                slots.getSlot(variableName),
+                name(variableName)
+            );
+            return;
+        }
+
+        emit(Opcode.LOAD_NAME, 1, constant(new PropertyCache(variableName)));
+    }
+
+    private int blnLiteral(boolean value) {
+        return literal(value, RuntimeConstants.createBln(value));
+    }
+
+    private int constant(Object value) {
+        constants.add(value);
+        return constants.size() - 1;
+    }
+
+    private int name(String value) {
+        if (!nameConstants.containsKey(value)) {
+            nameConstants.put(value, constant(value));
+        }
+
+        return nameConstants.get(value);
+    }
+
+    /**
+     * Returns the constant holding a literal, adding it if needed.
+     *
+     * @param value The literal's value, which identifies it.
+     * @param object The literal's object.
+     * @return The constant's index.
+     */
+    private int literal(Object value, CreatedObject object) {
+        if (!literalConstants.containsKey(value)) {
+            literalConstants.put(value, constant(object));
+        }
+
+        return literalConstants.get(value);
+    }
+
+    /**
+     * Appends an instruction.
+     *
+     * @param opcode The instruction's opcode.
+     * @param stackEffect How much the instruction grows or shrinks the stack.
+     * @param operands The instruction's operands.
+     */
+    private void emit(int opcode, int stackEffect, int... operands) {
+        if (instructionCount + operands.length + 1 > instructions.length) {
+            instructions = Arrays.copyOf(instructions, instructions.length * 2);
+        }
+
+        instructions[instructionCount++] = opcode;
+
+        for (int i = 0; i < operands.length; i++) {
+            instructions[instructionCount++] = operands[i];
+        }
+
+        stackSize += stackEffect;
+        maxStackSize = Math.max(maxStackSize, stackSize);
+    }
+}
+
+class BytecodeCompilerException extends RuntimeException {
+    BytecodeCompilerException(String message) {
+        super(message);
+    }
+}
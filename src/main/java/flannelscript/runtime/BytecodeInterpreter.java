@@ -0,0 +1,530 @@
+package flannelscript.runtime;
+
+import java.util.Scanner;
+
+import flannelscript.ir.BinaryOperator;
+import flannelscript.ir.Block;
+
+/**
+ * Runs a program by compiling it into bytecode with `BytecodeCompiler` first,
+ * then running that in a loop over its instructions. Values are kept on an
+ * operand stack, and variables in indexed local slots, instead of in nodes
+ * and maps like `NodeEngine` and `RuntimeNode` do.
+ *
+ * A call of a function whose body is compiled code doesn't nest the JVM's
+ * stack, since the loop runs its body itself, in a `Frame` that it keeps on
+ * the heap, and returns to the caller's frame afterwards. So recursion is
+ * only limited by the depth set with `setMaxDepth`, and the JVM's heap. A
+ * call that is returned straight away replaces the caller's frame, so that
+ * tail-recursive functions run in constant space.
+ */
+public class BytecodeInterpreter {
+    private static final BinaryOperator[] OPERATORS = BinaryOperator.values();
+
+    private static int maxDepth = 1000000;
+    // How many frames of calls are on the heap, in all of the loops that
+    // are running.
+    private static int depth = 0;
+
+    public static void runProgram(Block program) {
+        RuntimeConstants.setGlobals();
+
+        CompiledCode compiledProgram = BytecodeCompiler.compileProgram(program);
+
+        CreatedObject returnedValue = execute(
+            compiledProgram,
+            new RuntimeContext(null),
+            new CreatedObject[compiledProgram.getSlotCount()]
+        );
+
+        // A `return` outside of a function ends the program.
+        if (returnedValue != null) {
+            System.out.println("returned: " + returnedValue);
+        }
+    }
+
+    /**
+     * Sets how many calls deep a program can recurse before it fails with a
+     * `MaxDepthException`, instead of using up the JVM's heap.
+     *
+     * @param newMaxDepth The greatest number of frames of calls.
+     */
+    public static void setMaxDepth(int newMaxDepth) {
+        maxDepth = newMaxDepth;
+    }
+
+    /**
+     * Runs a unit of compiled code.
+     *
+     * @param code The code to run.
+     * @param context The context to run it in.
+     * @param slots The code's local slots, with its arguments already in them.
+     * @return The returned object (or `und` if a function returned nothing),
+     * or `null` if top-level code ended without returning.
+     */
+    static CreatedObject execute(
+        CompiledCode code,
+        RuntimeContext context,
+        CreatedObject[] slots
+    ) {
+        return execute(new Frame(code, context, slots, null, null));
+    }
+
+    /**
+     * Runs a frame, and the frames of the calls that it makes.
+     *
+     * @param frame The frame to run, which starts as the frame that is
+     * running. The frames of the calls that it is in are linked from it, up
+     * to the first one, whose returned object is the only one returned.
+     * @return See `execute(CompiledCode, RuntimeContext, CreatedObject[])`.
+     */
+    private static CreatedObject execute(Frame frame) {
+        try {
+            frames:
+            while (true) {
+                int[] instructions = frame.getCode().getInstructions();
+                Object[] constants = frame.getCode().getConstants();
+                RuntimeContext context = frame.getContext();
+                CreatedObject[] slots = frame.getSlots();
+                CreatedObject[] stack = frame.getStack();
+                int stackSize = frame.getStackSize();
+                int i = frame.getInstruction();
+
+                while (true) {
+                    switch (instructions[i++]) {
+                        case Opcode.CONSTANT:
+                            stack[stackSize++] = (CreatedObject) constants[instructions[i++]];
+                            break;
+
+                        case Opcode.LOAD_LOCAL: {
+                            CreatedObject value = slots[instructions[i++]];
+                            int name = instructions[i++];
+
+                            if (value == null) {
+                                value = context.getObject((String) constants[name]);
+                            }
+
+                            stack[stackSize++] = value;
+                            break;
+                        }
+
+                        case Opcode.LOAD_NAME:
+                            stack[stackSize++] = context.getObject(
+                                (PropertyCache) constants[instructions[i++]]
+                            );
+                            break;
+
+                        case Opcode.DECLARE_LOCAL: {
+                            CreatedObject value = stack[--stackSize];
+                            int slot = instructions[i++];
+
+                            checkType((String) constants[instructions[i++]], value);
+                            slots[slot] = value;
+                            break;
+                        }
+
+                        case Opcode.ASSIGN_LOCAL: {
+                            CreatedObject value = stack[--stackSize];
+                            int slot = instructions[i++];
+                            int name = instructions[i++];
+
+                            if (slots[slot] != null) {
+                                slots[slot] = value;
+                            } else {
+                                context.updateObject((String) constants[name], value);
+                            }
+
+                            break;
+                        }
+
+                        case Opcode.ASSIGN_NAME:
+                            context.updateObject(
+                                (PropertyCache) constants[instructions[i++]],
+                                stack[--stackSize]
+                            );
+                            break;
+
+                        case Opcode.BINARY: {
+                            CreatedObject right = stack[--stackSize];
+                            CreatedObject left = stack[stackSize - 1];
+
+                            stack[stackSize - 1] = BinaryNode.evaluate(
+                                OPERATORS[instructions[i++]],
+                                left,
+                                right
+                            );
+                            break;
+                        }
+
+                        case Opcode.NOT: {
+                            CreatedObject operand = stack[stackSize - 1];
+
+                            checkBln(operand);
+                            stack[stackSize - 1] = operand.callMethod(
+                                "equals",
+                                new CreatedObject[] {
+                                    (CreatedObject) constants[instructions[i++]]
+                                }
+                            );
+                            break;
+                        }
+
+                        case Opcode.CALL_FUNCTION: {
+                            InlineCache cache = (InlineCache) constants[instructions[i++]];
+                            int argumentCount = instructions[i++];
+                            CreatedFunction function = cache.getFunction(context);
+                            CreatedObject receiver = context.getOpenObject();
+
+                            stackSize -= argumentCount;
+
+                            CreatedObject[] arguments = popArguments(
+                                function,
+                                stack,
+                                stackSize,
+                                argumentCount
+                            );
+                            CreatedObject result = function.callWithoutBody(
+                                receiver,
+                                arguments,
+                                argumentCount
+                            );
+
+                            if (result == null && function.getBody() instanceof CompiledCode) {
+                                frame.save(stackSize, i);
+                                frame = enterCall(frame, function, receiver, arguments);
+                                continue frames;
+                            }
+
+                            stack[stackSize++] = result != null
+                                ? result
+                                : function.runBody(receiver, arguments);
+                            break;
+                        }
+
+                        case Opcode.CALL_METHOD: {
+                            CreatedObject receiver = stack[--stackSize];
+                            InlineCache cache = (InlineCache) constants[instructions[i++]];
+                            int argumentCount = instructions[i++];
+                            CreatedFunction function = cache.getMethod(receiver);
+
+                            stackSize -= argumentCount;
+
+                            CreatedObject[] arguments = popArguments(
+                                function,
+                                stack,
+                                stackSize,
+                                argumentCount
+                            );
+                            CreatedObject result = function.callWithoutBody(
+                                receiver,
+                                arguments,
+                                argumentCount
+                            );
+
+                            if (result == null && function.getBody() instanceof CompiledCode) {
+                                frame.save(stackSize, i);
+                                frame = enterCall(frame, function, receiver, arguments);
+                                continue frames;
+                            }
+
+                            stack[stackSize++] = result != null
+                                ? result
+                                : function.runBody(receiver, arguments);
+                            break;
+                        }
+
+                        case Opcode.NEW_OBJECT: {
+                            String className = (String) constants[instructions[i++]];
+                            CreatedObject[] arguments = new CreatedObject[instructions[i++]];
+
+                            stackSize -= arguments.length;
+                            System.arraycopy(stack, stackSize, arguments, 0, arguments.length);
+                            stack[stackSize++] = RuntimeContext.getClass(className)
+                                .createObject(arguments, null);
+                            break;
+                        }
+
+                        case Opcode.GET_PROPERTY:
+                            stack[stackSize - 1] = getProperty(
+                                stack[stackSize - 1],
+                                (PropertyCache) constants[instructions[i++]]
+                            );
+                            break;
+
+                        case Opcode.ASK:
+                            stack[stackSize - 1] = ask(stack[stackSize - 1]);
+                            break;
+
+                        case Opcode.ECHO:
+                            System.out.println(stack[--stackSize].getPrintedValue());
+                            break;
+
+                        case Opcode.POP:
+                            stackSize--;
+                            break;
+
+                        case Opcode.CHECK_BLN:
+                            checkBln(stack[--stackSize]);
+                            break;
+
+                        case Opcode.JUMP:
+                            i = instructions[i];
+                            break;
+
+                        case Opcode.JUMP_IF_DECIDED: {
+                            CreatedObject left = stack[stackSize - 1];
+
+                            if (
+                                left.getObjectClass() == RuntimeConstants.getBlnClass()
+                                    && left.getBooleanValue() == (instructions[i] == 1)
+                            ) {
+                                i = instructions[i + 1];
+                            } else {
+                                i += 2;
+                            }
+
+                            break;
+                        }
+
+                        case Opcode.JUMP_IF_FALSE:
+                            if (checkBln(stack[--stackSize])) {
+                                i++;
+                            } else {
+                                i = instructions[i];
+                            }
+
+                            break;
+
+                        case Opcode.RETURN:
+                            if (frame.getCaller() == null) {
+                                return stack[--stackSize];
+                            }
+
+                            frame = returnCall(frame, stack[--stackSize]);
+                            continue frames;
+
+                        case Opcode.RETURN_UND:
+                            if (frame.getCaller() == null) {
+                                return RuntimeContext.getGlobal("und");
+                            }
+
+                            frame = returnCall(frame, RuntimeContext.getGlobal("und"));
+                            continue frames;
+
+                        case Opcode.END:
+                            return null;
+
+                        case Opcode.DECLARE_FUNCTION:
+                            ((DeclareFunctionNode) constants[instructions[i++]])
+                                .execute(context);
+                            break;
+
+                        case Opcode.DECLARE_CLASS: {
+                            ClassTemplate template
+                                = (ClassTemplate) constants[instructions[i++]];
+
+                            stackSize -= template.getOverrideCount()
+                                + template.getPropertyCount();
+                            declareClass(template, stack, stackSize);
+                            break;
+                        }
+
+                        default:
+                            throw unsupportedOpcode(instructions[i - 1]);
+                    }
+                }
+            }
+        } catch (RuntimeException | Error exception) {
+            // The calls that didn't return are left.
+            while (frame.getCaller() != null) {
+                frame.getFunction().exit();
+                depth--;
+                frame = frame.getCaller();
+            }
+
+            throw exception;
+        }
+    }
+
+    // The less common instructions are kept out of `execute`, so that it
+    // stays small enough for the JVM to compile quickly.
+
+    /**
+     * Copies the arguments of a call off of the stack. If the called
+     * function's body is compiled code, they are copied straight into the
+     * local slots of its frame, whose first slots are its parameters.
+     *
+     * @param function The called function.
+     * @param stack The stack.
+     * @param start Where the arguments start on the stack.
+     * @param argumentCount How many arguments there are.
+     * @return The arguments, which may be followed by empty slots.
+     */
+    private static CreatedObject[] popArguments(
+        CreatedFunction function,
+        CreatedObject[] stack,
+        int start,
+        int argumentCount
+    ) {
+        int length = argumentCount;
+
+        if (function.getBody() instanceof CompiledCode) {
+            length = Math.max(
+                length,
+                ((CompiledCode) function.getBody()).getSlotCount()
+            );
+        }
+
+        CreatedObject[] arguments = new CreatedObject[length];
+
+        System.arraycopy(stack, start, arguments, 0, argumentCount);
+        return arguments;
+    }
+
+    /**
+     * Starts running the body of a call in a new frame.
+     *
+     * @param frame The frame that makes the call, which the new one replaces
+     * if the call is the last thing that it does before returning.
+     * @param function The called function, whose body is compiled code.
+     * @param receiver The call's receiver.
+     * @param slots The frame's local slots, from `popArguments`, with the
+     * call's arguments in them.
+     * @return The new frame.
+     */
+    private static Frame enterCall(
+        Frame frame,
+        CreatedFunction function,
+        CreatedObject receiver,
+        CreatedObject[] slots
+    ) {
+        CompiledCode code = (CompiledCode) function.getBody();
+        Frame caller = frame;
+        int[] instructions = frame.getCode().getInstructions();
+
+        // Checking the result against the caller's return class would be
+        // the same as checking it against the function's, so the caller's
+        // frame isn't needed once it is only going to return the result.
+        if (
+            frame.getCaller() != null
+                && instructions[frame.getInstruction()] == Opcode.RETURN
+                && frame.getFunction().getReturnClass() == function.getReturnClass()
+        ) {
+            frame.getFunction().exit();
+            caller = frame.getCaller();
+        } else if (depth == maxDepth) {
+            throw new MaxDepthException(
+                "Calls recursed deeper than " + maxDepth + " frames."
+            );
+        } else {
+            depth++;
+        }
+
+        function.enter();
+        return new Frame(code, new RuntimeContext(receiver), slots, function, caller);
+    }
+
+    /**
+     * Ends the call of a frame, and gives its result to the caller's frame.
+     *
+     * @param frame The frame whose call returned.
+     * @param value The returned object.
+     * @return The caller's frame.
+     */
+    private static Frame returnCall(Frame frame, CreatedObject value) {
+        CreatedObject result = frame.getFunction().checkResult(value);
+
+        frame.getFunction().exit();
+        depth--;
+        frame.getCaller().push(result);
+        return frame.getCaller();
+    }
+
+    private static void checkType(String typeName, CreatedObject value) {
+        if (
+            TypeChecks.isEnabled()
+                && RuntimeContext.getClass(typeName) != value.getObjectClass()
+        ) {
+            throw new BytecodeInterpreterException(
+                "Type `" + typeName + "` does not match found type."
+            );
+        }
+    }
+
+    private static CreatedObject getProperty(
+        CreatedObject object,
+        PropertyCache cache
+    ) {
+        int index = cache.getIndex(object);
+
+        if (index == -1) {
+            return null;
+        }
+
+        return object.getProperty(index);
+    }
+
+    private static CreatedObject ask(CreatedObject prompt) {
+        System.out.println(prompt.getPrintedValue());
+
+        Scanner scanner = new Scanner(System.in);
+        String nextLine = scanner.nextLine();
+        return RuntimeConstants.getStrClass().createObject(nextLine);
+    }
+
+    /**
+     * Declares a class whose override and property values are on the stack.
+     *
+     * @param template The class's template.
+     * @param stack The stack.
+     * @param start Where the values start on the stack.
+     */
+    private static void declareClass(
+        ClassTemplate template,
+        CreatedObject[] stack,
+        int start
+    ) {
+        CreatedObject[] overrideValues
+            = new CreatedObject[template.getOverrideCount()];
+        CreatedObject[] propertyValues
+            = new CreatedObject[template.getPropertyCount()];
+
+        System.arraycopy(stack, start, overrideValues, 0, overrideValues.length);
+        System.arraycopy(
+            stack,
+            start + overrideValues.length,
+            propertyValues,
+            0,
+            propertyValues.length
+        );
+        template.declare(overrideValues, propertyValues);
+    }
+
+    private static BytecodeInterpreterException unsupportedOpcode(int opcode) {
+        return new BytecodeInterpreterException(
+            "Opcode `" + opcode + "` is unsupported."
+        );
+    }
+
+    /**
+     * Checks that a condition is a `Bln`.
+     *
+     * @param condition The condition to check.
+     * @return The condition's value.
+     */
+    private static boolean checkBln(CreatedObject condition) {
+        if (condition.getObjectClass() != RuntimeConstants.getBlnClass()) {
+            throw new BytecodeInterpreterException(
+                "Expected `Bln` type, but was not found."
+            );
+        }
+
+        return condition.getBooleanValue();
+    }
+}
+
+class BytecodeInterpreterException extends RuntimeException {
+    BytecodeInterpreterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,224 @@
+package flannelscript.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Writes a JVM class file for `JitCompiler`. Only the parts it needs are
+ * supported: a constant pool, and methods with code. The class file's version
+ * is 49, so that the JVM infers the types of its locals and stack itself,
+ * instead of needing a `StackMapTable` for each method.
+ */
+class ClassFileWriter {
+    private static final int VERSION = 49;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private final ByteArrayOutputStream constantPoolBytes
+        = new ByteArrayOutputStream();
+    private final DataOutputStream constantPool
+        = new DataOutputStream(constantPoolBytes);
+    private final HashMap<String, Integer> constantIndexes
+        = new HashMap<String, Integer>();
+    private int constantCount = 1;
+    private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+    private final DataOutputStream methods = new DataOutputStream(methodBytes);
+    private int methodCount = 0;
+    private final String name;
+    private final String superName;
+
+    /**
+     * @param name The class's internal name, e.g., `flannelscript/runtime/A`.
+     * @param superName The internal name of the class it extends.
+     */
+    ClassFileWriter(String name, String superName) {
+        this.name = name;
+        this.superName = superName;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int utf8(String value) {
+        Integer index = constantIndexes.get("Utf8 " + value);
+
+        if (index != null) {
+            return index;
+        }
+
+        try {
+            constantPool.writeByte(1);
+            constantPool.writeUTF(value);
+        } catch (IOException e) {
+            throw new ClassFileWriterException(e.getMessage());
+        }
+
+        return addConstant("Utf8 " + value, 1);
+    }
+
+    int classReference(String className) {
+        int nameIndex = utf8(className);
+        Integer index = constantIndexes.get("Class " + className);
+
+        if (index != null) {
+            return index;
+        }
+
+        writeConstant(7, nameIndex);
+        return addConstant("Class " + className, 1);
+    }
+
+    int methodReference(String owner, String methodName, String descriptor) {
+        String key = "Methodref " + owner + "." + methodName + descriptor;
+        Integer index = constantIndexes.get(key);
+
+        if (index != null) {
+            return index;
+        }
+
+        int ownerIndex = classReference(owner);
+        int nameIndex = utf8(methodName);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndTypeIndex;
+        Integer existingNameAndType
+            = constantIndexes.get("NameAndType " + methodName + descriptor);
+
+        if (existingNameAndType != null) {
+            nameAndTypeIndex = existingNameAndType;
+        } else {
+            writeConstant(12, nameIndex, descriptorIndex);
+            nameAndTypeIndex = addConstant("NameAndType " + methodName + descriptor, 1);
+        }
+
+        writeConstant(10, ownerIndex, nameAndTypeIndex);
+        return addConstant(key, 1);
+    }
+
+    int longConstant(long value) {
+        Integer index = constantIndexes.get("Long " + value);
+
+        if (index != null) {
+            return index;
+        }
+
+        try {
+            constantPool.writeByte(5);
+            constantPool.writeLong(value);
+        } catch (IOException e) {
+            throw new ClassFileWriterException(e.getMessage());
+        }
+
+        // Long and double constants take up two entries.
+        return addConstant("Long " + value, 2);
+    }
+
+    int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        Integer index = constantIndexes.get("Double " + bits);
+
+        if (index != null) {
+            return index;
+        }
+
+        try {
+            constantPool.writeByte(6);
+            constantPool.writeLong(bits);
+        } catch (IOException e) {
+            throw new ClassFileWriterException(e.getMessage());
+        }
+
+        return addConstant("Double " + bits, 2);
+    }
+
+    /**
+     * Adds a method.
+     *
+     * @param access The method's access flags.
+     * @param methodName The method's name.
+     * @param descriptor The method's descriptor.
+     * @param code The method's code.
+     */
+    void addMethod(int access, String methodName, String descriptor, CodeWriter code) {
+        byte[] codeBytes = code.toByteArray();
+
+        try {
+            methods.writeShort(access);
+            methods.writeShort(utf8(methodName));
+            methods.writeShort(utf8(descriptor));
+            methods.writeShort(1);
+            methods.writeShort(utf8("Code"));
+            methods.writeInt(12 + codeBytes.length);
+            methods.writeShort(code.getMaxStackSize());
+            methods.writeShort(code.getMaxLocalCount());
+            methods.writeInt(codeBytes.length);
+            methods.write(codeBytes);
+            methods.writeShort(0);
+            methods.writeShort(0);
+        } catch (IOException e) {
+            throw new ClassFileWriterException(e.getMessage());
+        }
+
+        methodCount++;
+    }
+
+    byte[] toByteArray() {
+        int thisIndex = classReference(name);
+        int superIndex = classReference(superName);
+        ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        DataOutputStream classFile = new DataOutputStream(classBytes);
+
+        try {
+            classFile.writeInt(0xCAFEBABE);
+            classFile.writeShort(0);
+            classFile.writeShort(VERSION);
+            classFile.writeShort(constantCount);
+            classFile.write(constantPoolBytes.toByteArray());
+            classFile.writeShort(ACC_FINAL | ACC_SUPER);
+            classFile.writeShort(thisIndex);
+            classFile.writeShort(superIndex);
+            classFile.writeShort(0);
+            classFile.writeShort(0);
+            classFile.writeShort(methodCount);
+            classFile.write(methodBytes.toByteArray());
+            classFile.writeShort(0);
+        } catch (IOException e) {
+            throw new ClassFileWriterException(e.getMessage());
+        }
+
+        return classBytes.toByteArray();
+    }
+
+    private void writeConstant(int tag, int... indexes) {
+        try {
+            constantPool.writeByte(tag);
+
+            for (int i = 0; i < indexes.length; i++) {
+                constantPool.writeShort(indexes[i]);
+            }
+        } catch (IOException e) {
+            throw new ClassFileWriterException(e.getMessage());
+        }
+    }
+
+    private int addConstant(String key, int size) {
+        int index = constantCount;
+
+        constantIndexes.put(key, index);
+        constantCount += size;
+
+        if (constantCount > 0xFFFF) {
+            throw new ClassFileWriterException("The constant pool is too large.");
+        }
+
+        return index;
+    }
+}
+
+class ClassFileWriterException extends RuntimeException {
+    ClassFileWriterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,64 @@
+package flannelscript.runtime;
+
+/**
+ * Everything about a class declaration that is known before it runs, i.e.,
+ * all but the values of its overrides and properties. `BytecodeInterpreter`
+ * evaluates those onto its stack, then declares the class with them.
+ */
+class ClassTemplate {
+    private final String name;
+    private final String extendsName;
+    private final String[] overrideNames;
+    private final String[] propertyTypeNames;
+    private final String[] propertyNames;
+    private final DeclareFunctionNode[] methods;
+
+    ClassTemplate(
+        String name,
+        String extendsName,
+        String[] overrideNames,
+        String[] propertyTypeNames,
+        String[] propertyNames,
+        DeclareFunctionNode[] methods
+    ) {
+        this.name = name;
+        this.extendsName = extendsName;
+        this.overrideNames = overrideNames;
+        this.propertyTypeNames = propertyTypeNames;
+        this.propertyNames = propertyNames;
+        this.methods = methods;
+    }
+
+    int getOverrideCount() {
+        return overrideNames.length;
+    }
+
+    int getPropertyCount() {
+        return propertyNames.length;
+    }
+
+    /**
+     * Declares this template's class.
+     *
+     * @param overrideValues The values of its overrides.
+     * @param propertyValues The default values of its properties.
+     */
+    void declare(CreatedObject[] overrideValues, CreatedObject[] propertyValues) {
+        MethodMap<Object> methodMap = new MethodMap<Object>();
+
+        for (int i = 0; i < methods.length; i++) {
+            methodMap.put(methods[i].getName(), methods[i].createFunction());
+        }
+
+        CreatedClass.declare(
+            name,
+            extendsName,
+            overrideNames,
+            overrideValues,
+            propertyTypeNames,
+            propertyNames,
+            propertyValues,
+            methodMap
+        );
+    }
+}
@@ -0,0 +1,191 @@
+package flannelscript.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Writes the code of one JVM method for `ClassFileWriter`, keeping track of
+ * how large its operand stack and locals get. Jumps go to labels, which are
+ * patched with their offsets once the code is finished.
+ */
+class CodeWriter {
+    static final int ICONST_0 = 3;
+    static final int ICONST_1 = 4;
+    static final int LCONST_0 = 9;
+    static final int LCONST_1 = 10;
+    static final int DCONST_0 = 14;
+    static final int DCONST_1 = 15;
+    static final int BIPUSH = 16;
+    static final int LDC2_W = 20;
+    static final int ILOAD = 21;
+    static final int LLOAD = 22;
+    static final int DLOAD = 24;
+    static final int ALOAD_0 = 42;
+    static final int ALOAD_1 = 43;
+    static final int AALOAD = 50;
+    static final int ISTORE = 54;
+    static final int LSTORE = 55;
+    static final int DSTORE = 57;
+    static final int POP = 87;
+    static final int POP2 = 88;
+    static final int LADD = 97;
+    static final int DADD = 99;
+    static final int LSUB = 101;
+    static final int DSUB = 103;
+    static final int LMUL = 105;
+    static final int DMUL = 107;
+    static final int LDIV = 109;
+    static final int DDIV = 111;
+    static final int LREM = 113;
+    static final int DREM = 115;
+    static final int IAND = 126;
+    static final int IOR = 128;
+    static final int IXOR = 130;
+    static final int LCMP = 148;
+    static final int DCMPL = 151;
+    static final int DCMPG = 152;
+    static final int IFEQ = 153;
+    static final int IFNE = 154;
+    static final int IFLT = 155;
+    static final int IFGE = 156;
+    static final int IFGT = 157;
+    static final int IFLE = 158;
+    static final int IF_ICMPEQ = 159;
+    static final int IF_ICMPNE = 160;
+    static final int GOTO = 167;
+    static final int IRETURN = 172;
+    static final int LRETURN = 173;
+    static final int DRETURN = 175;
+    static final int ARETURN = 176;
+    static final int RETURN = 177;
+    static final int INVOKEVIRTUAL = 182;
+    static final int INVOKESPECIAL = 183;
+    static final int INVOKESTATIC = 184;
+    static final int CHECKCAST = 192;
+    private static final int WIDE = 196;
+
+    private byte[] code = new byte[64];
+    private int length = 0;
+    private int stackSize = 0;
+    private int maxStackSize = 0;
+    private int maxLocalCount = 0;
+    private ArrayList<Integer> labelPositions = new ArrayList<Integer>();
+    // Pairs of the position of a jump's opcode and the label it jumps to.
+    private ArrayList<int[]> jumps = new ArrayList<int[]>();
+
+    /**
+     * Appends an instruction without operands.
+     *
+     * @param opcode The instruction's opcode.
+     * @param stackEffect How many stack words it pushes, less how many it
+     * pops. Longs and doubles take up two words.
+     */
+    void emit(int opcode, int stackEffect) {
+        writeByte(opcode);
+        adjustStack(stackEffect);
+    }
+
+    void emitByte(int opcode, int stackEffect, int operand) {
+        writeByte(opcode);
+        writeByte(operand);
+        adjustStack(stackEffect);
+    }
+
+    void emitShort(int opcode, int stackEffect, int operand) {
+        writeByte(opcode);
+        writeByte(operand >> 8);
+        writeByte(operand);
+        adjustStack(stackEffect);
+    }
+
+    /**
+     * Appends an instruction that loads or stores a local.
+     *
+     * @param opcode The instruction's opcode.
+     * @param stackEffect See `emit`.
+     * @param local The local's index.
+     * @param size How many words the local takes up.
+     */
+    void emitLocal(int opcode, int stackEffect, int local, int size) {
+        if (local > 0xFF) {
+            writeByte(WIDE);
+            emitShort(opcode, stackEffect, local);
+        } else {
+            emitByte(opcode, stackEffect, local);
+        }
+
+        maxLocalCount = Math.max(maxLocalCount, local + size);
+    }
+
+    int newLabel() {
+        labelPositions.add(-1);
+        return labelPositions.size() - 1;
+    }
+
+    void placeLabel(int label) {
+        labelPositions.set(label, length);
+    }
+
+    void emitJump(int opcode, int stackEffect, int label) {
+        jumps.add(new int[] { length, label });
+        emitShort(opcode, stackEffect, 0);
+    }
+
+    int getStackSize() {
+        return stackSize;
+    }
+
+    /**
+     * Sets the stack's size, e.g., at a label that is only reached by
+     * jumping to it.
+     *
+     * @param stackSize The stack's size.
+     */
+    void setStackSize(int stackSize) {
+        this.stackSize = stackSize;
+    }
+
+    int getMaxStackSize() {
+        return maxStackSize;
+    }
+
+    int getMaxLocalCount() {
+        return maxLocalCount;
+    }
+
+    void useLocals(int count) {
+        maxLocalCount = Math.max(maxLocalCount, count);
+    }
+
+    byte[] toByteArray() {
+        for (int[] jump : jumps) {
+            int offset = labelPositions.get(jump[1]) - jump[0];
+
+            if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                throw new ClassFileWriterException("A jump is too far.");
+            }
+
+            code[jump[0] + 1] = (byte) (offset >> 8);
+            code[jump[0] + 2] = (byte) offset;
+        }
+
+        if (length > 0xFFFF) {
+            throw new ClassFileWriterException("A method is too large.");
+        }
+
+        return Arrays.copyOf(code, length);
+    }
+
+    private void writeByte(int value) {
+        if (length == code.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+        }
+
+        code[length++] = (byte) value;
+    }
+
+    private void adjustStack(int stackEffect) {
+        stackSize += stackEffect;
+        maxStackSize = Math.max(maxStackSize, stackSize);
+    }
+}
@@ -0,0 +1,53 @@
+package flannelscript.runtime;
+
+/**
+ * A unit of bytecode compiled by `BytecodeCompiler`, i.e., top-level code or
+ * the body of a function or method. Its instructions refer to its own
+ * constants and local slots by index. The first slots hold the function's
+ * parameters, in order.
+ */
+class CompiledCode implements FunctionBody {
+    private final int[] instructions;
+    private final Object[] constants;
+    private final int slotCount;
+    private final int maxStackSize;
+
+    CompiledCode(
+        int[] instructions,
+        Object[] constants,
+        int slotCount,
+        int maxStackSize
+    ) {
+        this.instructions = instructions;
+        this.constants = constants;
+        this.slotCount = slotCount;
+        this.maxStackSize = maxStackSize;
+    }
+
+    int[] getInstructions() {
+        return instructions;
+    }
+
+    Object[] getConstants() {
+        return constants;
+    }
+
+    int getSlotCount() {
+        return slotCount;
+    }
+
+    int getMaxStackSize() {
+        return maxStackSize;
+    }
+
+    @Override
+    public CreatedObject run(
+        RuntimeContext context,
+        CreatedObject[] arguments
+    ) {
+        CreatedObject[] slots = new CreatedObject[slotCount];
+
+        System.arraycopy(arguments, 0, slots, 0, arguments.length);
+        return BytecodeInterpreter.execute(this, context, slots);
+    }
+}
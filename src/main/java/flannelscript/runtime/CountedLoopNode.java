@@ -0,0 +1,221 @@
+package flannelscript.runtime;
+
+import flannelscript.ir.BinaryExpression;
+import flannelscript.ir.BinaryOperator;
+import flannelscript.ir.Block;
+import flannelscript.ir.Expression;
+import flannelscript.ir.IntLiteral;
+import flannelscript.ir.Statement;
+import flannelscript.ir.VariableAssignment;
+import flannelscript.ir.VariableGet;
+import flannelscript.ir.WhileStatement;
+
+/**
+ * A `while` statement that counts a local up or down, e.g.,
+ * `while (i :<= n) < ... i = i + 1; >`, where the condition compares the
+ * local with a literal or a variable, and the body ends by adding a literal
+ * to it or subtracting one from it.
+ *
+ * While the local holds an `Int`, the loop keeps its value in a `long`, and
+ * compares and steps it without calling `BinaryNode`s, only creating the
+ * `Int` that the body reads. If the body assigns to the local, the counter
+ * is read from it again. Any iteration where the local or the bound isn't an
+ * `Int` runs the condition and the step as written, like `WhileNode` does.
+ */
+class CountedLoopNode extends ExecutableStatement {
+    private final int slot;
+    private final BinaryOperator operator;
+    private final ExecutableExpression bound;
+    private final long step;
+    private final ExecutableExpression condition;
+    private final ExecutableBlock body;
+    private final ExecutableStatement increment;
+
+    private CountedLoopNode(
+        int slot,
+        BinaryOperator operator,
+        ExecutableExpression bound,
+        long step,
+        ExecutableExpression condition,
+        ExecutableBlock body,
+        ExecutableStatement increment
+    ) {
+        this.slot = slot;
+        this.operator = operator;
+        this.bound = bound;
+        this.step = step;
+        this.condition = condition;
+        this.body = body;
+        this.increment = increment;
+    }
+
+    /**
+     * Compiles a `while` statement into a counted loop, if it is one.
+     *
+     * @param whileStatement The statement to compile.
+     * @param slots The slots of the unit of code that the statement is in.
+     * @return The counted loop, or `null` if the statement isn't one.
+     */
+    static CountedLoopNode compile(
+        WhileStatement whileStatement,
+        SlotResolver slots
+    ) {
+        if (!(whileStatement.getCondition() instanceof BinaryExpression)) {
+            return null;
+        }
+
+        BinaryExpression comparison = (BinaryExpression) whileStatement.getCondition();
+        BinaryOperator operator = comparison.getOperator();
+        Block body = whileStatement.getBody();
+        int statementCount = body.getStatementCount();
+
+        if (
+            !isComparison(operator)
+                || !(comparison.getLeft() instanceof VariableGet)
+                // The bound is evaluated again if an iteration falls back to
+                // the condition, so it can't be anything that has effects.
+                || !(
+                    comparison.getRight() instanceof VariableGet
+                        || comparison.getRight() instanceof IntLiteral
+                )
+                || statementCount == 0
+        ) {
+            return null;
+        }
+
+        String name = ((VariableGet) comparison.getLeft()).getName();
+        Statement lastStatement = body.getStatement(statementCount - 1);
+
+        if (!slots.hasSlot(name) || !isStep(lastStatement, name)) {
+            return null;
+        }
+
+        Statement[] statements = new Statement[statementCount - 1];
+
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = body.getStatement(i);
+        }
+
+        BinaryExpression stepValue
+            = (BinaryExpression) ((VariableAssignment) lastStatement).getValue();
+        long step = ((IntLiteral) stepValue.getRight()).getValue();
+
+        return new CountedLoopNode(
+            slots.getSlot(name),
+            operator,
+            ExecutableExpression.compile(comparison.getRight(), slots),
+            stepValue.getOperator() == BinaryOperator.PLUS ? step : -step,
+            ExecutableExpression.compile(comparison, slots),
+            ExecutableBlock.compile(new Block(statements), slots),
+            ExecutableStatement.compile(lastStatement, slots)
+        );
+    }
+
+    private static boolean isComparison(BinaryOperator operator) {
+        return operator == BinaryOperator.LESS_THAN
+            || operator == BinaryOperator.LESS_OR_EQUAL
+            || operator == BinaryOperator.GREATER_THAN
+            || operator == BinaryOperator.GREATER_OR_EQUAL;
+    }
+
+    /**
+     * Checks whether a statement is `name = name + step` or
+     * `name = name - step`, where `step` is an `Int` literal.
+     */
+    private static boolean isStep(Statement statement, String name) {
+        if (
+            !(statement instanceof VariableAssignment)
+                || !((VariableAssignment) statement).getName().equals(name)
+        ) {
+            return false;
+        }
+
+        Expression value = ((VariableAssignment) statement).getValue();
+
+        if (!(value instanceof BinaryExpression)) {
+            return false;
+        }
+
+        BinaryExpression binaryExpression = (BinaryExpression) value;
+
+        return (
+            binaryExpression.getOperator() == BinaryOperator.PLUS
+                || binaryExpression.getOperator() == BinaryOperator.MINUS
+        )
+            && binaryExpression.getLeft() instanceof VariableGet
+            && ((VariableGet) binaryExpression.getLeft()).getName().equals(name)
+            && binaryExpression.getRight() instanceof IntLiteral;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        // See `WhileNode`.
+        if (TypeChecks.isEnabled()) {
+            evaluateCondition(condition, context);
+        }
+
+        // The `Int` that the loop last stored in the local, whose value is
+        // `counter`, or `null` if the local has to be read again.
+        CreatedObject counterValue = null;
+        long counter = 0;
+
+        while (true) {
+            CreatedObject value = context.getSlots()[slot];
+
+            if (value != counterValue || counterValue == null) {
+                if (value != null && value.getObjectClass() == RuntimeConstants.getIntClass()) {
+                    counterValue = value;
+                    counter = value.getLongValue();
+                } else {
+                    counterValue = null;
+                }
+            }
+
+            CreatedObject boundValue = counterValue == null
+                ? null
+                : bound.evaluate(context);
+
+            if (
+                boundValue != null
+                    && boundValue.getObjectClass() == RuntimeConstants.getIntClass()
+            ) {
+                if (!compare(counter, boundValue.getLongValue())) {
+                    return null;
+                }
+            } else if (!evaluateCondition(condition, context)) {
+                return null;
+            }
+
+            CreatedObject returnedValue = body.execute(context);
+
+            if (returnedValue != null) {
+                return returnedValue;
+            }
+
+            CreatedObject[] slots = context.getSlots();
+
+            if (counterValue == null || slots[slot] != counterValue) {
+                increment.execute(context);
+                counterValue = null;
+                continue;
+            }
+
+            counter += step;
+            counterValue = RuntimeConstants.createInt(counter);
+            slots[slot] = counterValue;
+        }
+    }
+
+    private boolean compare(long counter, long boundLong) {
+        switch (operator) {
+            case LESS_THAN:
+                return counter < boundLong;
+            case LESS_OR_EQUAL:
+                return counter <= boundLong;
+            case GREATER_THAN:
+                return counter > boundLong;
+            default:
+                return counter >= boundLong;
+        }
+    }
+}
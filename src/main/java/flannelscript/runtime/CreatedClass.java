@@ -1,5 +1,7 @@
 package flannelscript.runtime;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 
 public class CreatedClass<B> {
@@ -8,6 +10,25 @@ public class CreatedClass<B> {
     private MethodMap<B> methods;
     private String name;
     private CreatedClass extendsClass;
+    // The flattened method table, holding every method the class has,
+    // including the ones it inherits. A class starts out with a copy of the
+    // table of the class it extends, so inherited methods keep their indexes,
+    // and its own methods replace the ones they override at their index or
+    // are added after them.
+    private HashMap<String, Integer> methodIndexes;
+    private String[] methodNames;
+    private CreatedFunction[] methodTable;
+    private CreatedFunction initMethod;
+    private Shape shape;
+    // The default values of the properties of new objects, by their index in
+    // `shape`. These are only found once an object is created, since that is
+    // when overrides are checked, and never change afterwards.
+    private CreatedObject[] propertyTemplate;
+    // Which defaults each new object needs its own copy of, because they have
+    // properties of their own that could be changed. If there are none, new
+    // objects share `propertyTemplate` itself until they set a property.
+    private boolean[] isCopiedPerObject;
+    private boolean isTemplateShared;
 
     public CreatedClass(
         DefaultPropertyMap overridenProperties,
@@ -21,6 +42,27 @@ public class CreatedClass<B> {
         this.methods = methods;
         this.name = name;
         this.extendsClass = extendsClass;
+
+        if (extendsClass == null) {
+            methodIndexes = new HashMap<String, Integer>();
+            methodNames = new String[0];
+            methodTable = new CreatedFunction[0];
+        } else {
+            methodIndexes = new HashMap<String, Integer>(extendsClass.methodIndexes);
+            methodNames = extendsClass.methodNames.clone();
+            methodTable = extendsClass.methodTable.clone();
+            initMethod = extendsClass.initMethod;
+        }
+
+        for (String methodName : methods.keySet()) {
+            putMethod(methodName, methods.get(methodName));
+        }
+
+        if (extendsClass == null) {
+            shape = new Shape(null, defaultProperties.keySet());
+        } else {
+            shape = new Shape(extendsClass.shape, defaultProperties.keySet());
+        }
     }
 
     public CreatedClass(
@@ -36,6 +78,74 @@ public class CreatedClass<B> {
         this(new DefaultPropertyMap(), new MethodMap<B>(), name, extendsClass);
     }
 
+    /**
+     * Declares a class, i.e., creates it and registers it with
+     * `RuntimeContext`. The values of its overrides and properties have
+     * already been evaluated by whichever engine is running the declaration.
+     *
+     * @param name The class's name.
+     * @param extendsName The name of the class it extends, or `null` to
+     * extend `Obj`.
+     * @param overrideNames The names of the inherited properties it
+     * overrides.
+     * @param overrideValues The values of those overrides.
+     * @param propertyTypeNames The type names of its own properties.
+     * @param propertyNames The names of its own properties.
+     * @param propertyValues The default values of its own properties.
+     * @param methods Its methods.
+     * @return The declared class.
+     */
+    static CreatedClass<Object> declare(
+        String name,
+        String extendsName,
+        String[] overrideNames,
+        CreatedObject[] overrideValues,
+        String[] propertyTypeNames,
+        String[] propertyNames,
+        CreatedObject[] propertyValues,
+        MethodMap<Object> methods
+    ) {
+        CreatedClass extendsClass;
+
+        if (extendsName == null) {
+            extendsClass = RuntimeConstants.getObjClass();
+        } else {
+            extendsClass = RuntimeContext.getClass(extendsName);
+        }
+
+        DefaultPropertyMap extendsOverrides = new DefaultPropertyMap();
+        DefaultPropertyMap defaultProperties = new DefaultPropertyMap();
+
+        for (int i = 0; i < overrideNames.length; i++) {
+            extendsOverrides.put(overrideNames[i], overrideValues[i]);
+        }
+
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (
+                TypeChecks.isEnabled()
+                    && RuntimeContext.getClass(propertyTypeNames[i])
+                        != propertyValues[i].getObjectClass()
+            ) {
+                throw new ClassDeclarationException(
+                    "Type `" + propertyTypeNames[i] + "` does not match found type."
+                );
+            }
+
+            defaultProperties.put(propertyNames[i], propertyValues[i]);
+        }
+
+        CreatedClass<Object> createdClass = new CreatedClass<Object>(
+            extendsOverrides,
+            defaultProperties,
+            methods,
+            name,
+            extendsClass
+        );
+
+        RuntimeContext.setClass(name, createdClass);
+        return createdClass;
+    }
+
     public CreatedObject<B> createObject() {
         return createObject(new CreatedObject[0], null);
     }
@@ -47,33 +157,64 @@ public class CreatedClass<B> {
     public CreatedObject<B> createObject(CreatedObject[] arguments, B baseValue) {
         CreatedObject<B> createdObject = new CreatedObject<B>(this, baseValue);
 
-        if (hasMethod("init")) {
-            createdObject.callMethod("init", arguments);
+        if (initMethod != null) {
+            initMethod.call(createdObject, arguments);
         }
 
         return createdObject;
     }
 
     public CreatedFunction<B> getMethod(String name) {
-        if (methods.containsKey(name)) {
-            return methods.get(name);
-        }
+        Integer index = methodIndexes.get(name);
 
-        if (extendsClass != null) {
-            return extendsClass.getMethod(name);
+        if (index == null) {
+            throw new MethodNameException(
+                "A method with name `" + name + "` could not be found."
+            );
         }
 
-        throw new MethodNameException(
-            "A method with name `" + name + "` could not be found."
-        );
+        return methodTable[index];
     }
 
     public boolean hasMethod(String name) {
-        if (extendsClass == null) {
-            return methods.containsKey(name);
+        return methodIndexes.containsKey(name);
+    }
+
+    /**
+     * @param name A method's name.
+     * @return The method's index in this class's method table, or `-1` if
+     * it has no such method.
+     */
+    int getMethodIndex(String name) {
+        Integer index = methodIndexes.get(name);
+
+        if (index == null) {
+            return -1;
         }
 
-        return methods.containsKey(name) || extendsClass.hasMethod(name);
+        return index;
+    }
+
+    /**
+     * Returns the method at an index that was found for the same name in
+     * another class. Classes that extend the same class share the indexes of
+     * the methods they inherit from it, so the index often still fits.
+     *
+     * @param index The index.
+     * @param name The method's name.
+     * @return The method, or `null` if this class has no method with that
+     * name at that index.
+     */
+    CreatedFunction getMethod(int index, String name) {
+        if (
+            index < 0
+                || index >= methodTable.length
+                || !methodNames[index].equals(name)
+        ) {
+            return null;
+        }
+
+        return methodTable[index];
     }
 
     protected void addMethod(String name, CreatedFunction function) {
@@ -84,49 +225,125 @@ public class CreatedClass<B> {
         }
 
         methods.put(name, function);
+        putMethod(name, function);
     }
 
-    public PropertyMap getPropertiesCopy() {
-        PropertyMap properties = new PropertyMap();
+    private void putMethod(String name, CreatedFunction function) {
+        Integer index = methodIndexes.get(name);
+
+        if (index == null) {
+            index = methodTable.length;
+            methodIndexes.put(name, index);
+            methodNames = Arrays.copyOf(methodNames, index + 1);
+            methodTable = Arrays.copyOf(methodTable, index + 1);
+            methodNames[index] = name;
+        }
+
+        methodTable[index] = function;
+
+        if (name.equals("init")) {
+            initMethod = function;
+        }
+    }
+
+    Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * Creates the property values of a new object. Defaults that cannot be
+     * changed are shared rather than copied.
+     *
+     * @return The property values, by their index in this class's shape. If
+     * `isPropertyTemplate` is true for them, they have to be copied before
+     * they are changed.
+     */
+    CreatedObject[] createPropertyValues() {
+        CreatedObject[] template = getPropertyTemplate();
+
+        if (isTemplateShared) {
+            return template;
+        }
+
+        CreatedObject[] values = template.clone();
+
+        for (int i = 0; i < values.length; i++) {
+            if (isCopiedPerObject[i]) {
+                values[i] = new CreatedObject<Object>(template[i]);
+            }
+        }
+
+        return values;
+    }
+
+    boolean isPropertyTemplate(CreatedObject[] values) {
+        return values == propertyTemplate;
+    }
+
+    private CreatedObject[] getPropertyTemplate() {
+        if (propertyTemplate != null) {
+            return propertyTemplate;
+        }
+
+        CreatedObject[] defaults = new CreatedObject[shape.getPropertyCount()];
+        int inheritedCount = 0;
 
         if (extendsClass != null) {
-            properties.putAll(extendsClass.getPropertiesCopy());
+            CreatedObject[] inheritedDefaults = extendsClass.getPropertyTemplate();
+
+            inheritedCount = inheritedDefaults.length;
+            System.arraycopy(inheritedDefaults, 0, defaults, 0, inheritedCount);
         }
 
         for (String overrideKey : overridenProperties.keySet()) {
-            if (!properties.containsKey(overrideKey)) {
+            int index = shape.getIndex(overrideKey);
+
+            if (index == -1 || index >= inheritedCount) {
                 throw new OverrideException(
                     "Overridden key `" + overrideKey + "` does not exist."
                 );
             }
 
             if (
-                properties.get(overrideKey).getObjectClass()
+                defaults[index].getObjectClass()
                     != overridenProperties.get(overrideKey).getObjectClass()
             ) {
                 throw new OverrideException(
                     "Expected type `"
-                        + properties.get(overrideKey).getObjectClass().toString()
+                        + defaults[index].getObjectClass().toString()
                         + "`, but found `"
                         + overridenProperties.get(overrideKey).getObjectClass()
                         + "`."
                 );
             }
 
-            properties.put(
-                overrideKey,
-                new CreatedObject<Object>(overridenProperties.get(overrideKey))
-            );
+            defaults[index] = overridenProperties.get(overrideKey);
         }
 
         for (String defaultKey : defaultProperties.keySet()) {
-            properties.put(
-                defaultKey,
-                new CreatedObject<Object>(defaultProperties.get(defaultKey))
-            );
+            defaults[shape.getIndex(defaultKey)] = defaultProperties.get(defaultKey);
+        }
+
+        boolean[] isCopied = new boolean[defaults.length];
+        boolean isShared = true;
+
+        for (int i = 0; i < defaults.length; i++) {
+            Shape defaultShape = defaults[i].getObjectClass().getShape();
+
+            // Objects without properties cannot be changed, so they can be
+            // shared. `und` and `nil` are still copied, since they are
+            // compared by identity, and objects have always had copies of
+            // them.
+            isCopied[i] = defaultShape.getPropertyCount() != 0
+                || defaults[i] == RuntimeContext.getGlobal("und")
+                || defaults[i] == RuntimeContext.getGlobal("nil");
+            isShared = isShared && !isCopied[i];
         }
 
-        return properties;
+        isCopiedPerObject = isCopied;
+        isTemplateShared = isShared;
+        propertyTemplate = defaults;
+        return defaults;
     }
 
     @Override
@@ -152,3 +369,9 @@ class OverrideException extends RuntimeException {
         super(message);
     }
 }
+
+class ClassDeclarationException extends RuntimeException {
+    ClassDeclarationException(String message) {
+        super(message);
+    }
+}
@@ -3,25 +3,40 @@ package flannelscript.runtime;
 import java.util.LinkedHashMap;
 import java.util.function.Function;
 
-import flannelscript.parser.ASTNode;
+import flannelscript.ir.FunctionDeclaration;
 
 public class CreatedFunction<B> {
     private ParameterMap parameters;
-    private ASTNode body;
+    // The parameters' classes, in order, so that checking arguments doesn't
+    // have to iterate over `parameters`.
+    private CreatedClass[] parameterClasses;
+    private FunctionBody body;
     private RuntimeFunction baseBody;
+    // Set for the built-in binary methods, e.g., `Int`'s `add`. See
+    // `Intrinsic`.
+    private Intrinsic intrinsic;
     private CreatedClass returnClass;
     private String name;
+    private FunctionDeclaration declaration;
+    private int callCount = 0;
+    private JitCode jitCode;
+    // How many calls of this function are running, including inlined ones,
+    // so that `Inliner` can tell when a call would be recursive.
+    private int activeCount = 0;
 
     public CreatedFunction(
         ParameterMap parameters,
-        ASTNode body,
+        FunctionBody body,
         CreatedClass returnClass,
-        String name
+        String name,
+        FunctionDeclaration declaration
     ) {
         this.parameters = parameters;
+        this.parameterClasses = parameters.values().toArray(new CreatedClass[0]);
         this.body = body;
         this.returnClass = returnClass;
         this.name = name;
+        this.declaration = declaration;
     }
 
     public CreatedFunction(
@@ -31,48 +46,168 @@ public class CreatedFunction<B> {
         String name
     ) {
         this.parameters = parameters;
+        this.parameterClasses = parameters.values().toArray(new CreatedClass[0]);
         this.baseBody = baseBody;
         this.returnClass = returnClass;
         this.name = name;
     }
 
+    public CreatedFunction(
+        ParameterMap parameters,
+        Intrinsic intrinsic,
+        CreatedClass returnClass,
+        String name
+    ) {
+        String parameterName = parameters.keySet().iterator().next();
+
+        this.parameters = parameters;
+        this.parameterClasses = parameters.values().toArray(new CreatedClass[0]);
+        this.baseBody = (RuntimeContext context) -> intrinsic.apply(
+            context.getOpenObject(),
+            context.getObject(parameterName)
+        );
+        this.intrinsic = intrinsic;
+        this.returnClass = returnClass;
+        this.name = name;
+    }
+
     public CreatedObject call(
         CreatedObject<B> receiver, CreatedObject[] arguments
+    ) {
+        CreatedObject result = callWithoutBody(
+            receiver,
+            arguments,
+            arguments.length
+        );
+
+        if (result != null) {
+            return result;
+        }
+
+        return runBody(receiver, arguments);
+    }
+
+    /**
+     * Does the part of a call that comes before running this function's
+     * body, which finishes the call if the body doesn't have to run, e.g.,
+     * for a built-in function, or one that `JitCompiler` compiled.
+     * `BytecodeInterpreter` calls this itself, so that it can run the body on
+     * its own stack of frames.
+     *
+     * @param receiver The call's receiver.
+     * @param arguments The call's arguments, which may be followed by other
+     * values, e.g., when they are already in the slots of the body's frame.
+     * @param argumentCount How many arguments there are.
+     * @return The call's result, or `null` if the body has to be run.
+     */
+    CreatedObject callWithoutBody(
+        CreatedObject<B> receiver,
+        CreatedObject[] arguments,
+        int argumentCount
+    ) {
+        if (
+            intrinsic != null
+                && argumentCount == 1
+                && arguments[0].getObjectClass() == parameterClasses[0]
+        ) {
+            return intrinsic.apply(receiver, arguments[0]);
+        }
+
+        checkArguments(arguments, argumentCount);
+
+        // Compiled code only runs without a receiver, since otherwise the
+        // functions it calls could be the receiver's methods instead.
+        if (receiver == null && body != null && JitCompiler.isEnabled()) {
+            CreatedObject compiledResult = callCompiled(arguments);
+
+            if (compiledResult != null) {
+                return compiledResult;
+            }
+        }
+
+        if (baseBody != null) {
+            RuntimeContext currentContext = new RuntimeContext(receiver);
+            int i = 0;
+
+            for (String parameterName : parameters.keySet()) {
+                currentContext.setLocal(parameterName, arguments[i]);
+                i++;
+            }
+
+            return baseBody.apply(currentContext);
+        }
+
+        return null;
+    }
+
+    /**
+     * Does the rest of a call that `callWithoutBody` didn't finish.
+     *
+     * @param receiver The call's receiver.
+     * @param arguments The call's arguments.
+     * @return The call's result.
+     */
+    CreatedObject runBody(
+        CreatedObject<B> receiver, CreatedObject[] arguments
     ) {
         RuntimeContext currentContext = new RuntimeContext(receiver);
-        int i = 0;
+        CreatedObject result;
+
+        // Each kind of body stores the arguments with its own locals.
+        enter();
+
+        try {
+            result = body.run(currentContext, arguments);
+        } finally {
+            exit();
+        }
+
+        return checkResult(result);
+    }
+
+    /**
+     * Checks that the arguments of a call match this function's parameters.
+     *
+     * @param arguments The arguments, which may be followed by other values,
+     * e.g., when they are already in the slots of an inlined body.
+     * @param argumentCount How many arguments there are.
+     */
+    void checkArguments(CreatedObject[] arguments, int argumentCount) {
+        if (!TypeChecks.isEnabled()) {
+            return;
+        }
 
-        if (arguments.length != parameters.size()) {
+        if (argumentCount != parameterClasses.length) {
             throw new ArgumentException(
-                "Expected " + parameters.size() + "arguments, but "
-                    + arguments.length + " were found."
+                "Expected " + parameterClasses.length + "arguments, but "
+                    + argumentCount + " were found."
             );
         }
 
-        for (String parameterName : parameters.keySet()) {
-            if (parameters.get(parameterName) != arguments[i].getObjectClass()) {
+        for (int i = 0; i < argumentCount; i++) {
+            if (parameterClasses[i] != arguments[i].getObjectClass()) {
                 throw new ArgumentException(
                     "Parameter " + i + " is not of the correct type. Expected type `"
-                        + parameters.get(parameterName).toString() + "` but found `"
+                        + parameterClasses[i].toString() + "` but found `"
                         + arguments[i].getObjectClass().toString() + "` for function `"
                         + name + "`."
                 );
             }
-
-            currentContext.setLocal(parameterName, arguments[i]);
-            i++;
         }
+    }
 
-        if (baseBody != null) {
-            return baseBody.apply(currentContext);
+    /**
+     * Checks the result of a call of a user-defined function against its
+     * return class.
+     *
+     * @param result The object that the function's body returned.
+     * @return The result.
+     */
+    CreatedObject checkResult(CreatedObject result) {
+        if (!TypeChecks.isEnabled()) {
+            return result;
         }
 
-        CreatedObject result = RuntimeNode.runASTNodes(
-            body.getChildren(),
-            currentContext,
-            true
-        );
-
         if (returnClass == RuntimeContext.getClass("Void")) {
             if (result != RuntimeContext.getGlobal("und")) {
                 throw new ReturnException(
@@ -94,6 +229,92 @@ public class CreatedFunction<B> {
         return result;
     }
 
+    // A call's body runs between these.
+
+    void enter() {
+        activeCount++;
+    }
+
+    void exit() {
+        activeCount--;
+    }
+
+    boolean isActive() {
+        return activeCount != 0;
+    }
+
+    /**
+     * Calls this function's compiled code, first compiling it if the function
+     * has been called often enough.
+     *
+     * @param arguments The function's arguments.
+     * @return The function's result, or `null` if it has no valid compiled
+     * code and has to be interpreted.
+     */
+    private CreatedObject callCompiled(CreatedObject[] arguments) {
+        if (!countCall()) {
+            return null;
+        }
+
+        try {
+            return jitCode.call(arguments);
+        } catch (StackOverflowError error) {
+            // Compiled functions call each other on the JVM's stack, which
+            // is too small for this call's recursion. Compiled code can't
+            // change anything outside of itself, so the call is interpreted
+            // again from the start, and the compiled code is dropped for
+            // good, since `callCount` is already past the threshold.
+            jitCode = null;
+            return null;
+        }
+    }
+
+    /**
+     * Counts a call of this function, and compiles it once it has been called
+     * `JitCompiler.CALL_THRESHOLD` times. A call site that runs the function
+     * inline counts its calls with this too, since they don't go through
+     * `call`.
+     *
+     * @return Whether the function has valid compiled code.
+     */
+    boolean countCall() {
+        if (jitCode != null && !jitCode.isValid()) {
+            JitCompiler.countInvalidated();
+            jitCode = null;
+            callCount = 0;
+        }
+
+        if (jitCode == null) {
+            if (++callCount != JitCompiler.CALL_THRESHOLD) {
+                return false;
+            }
+
+            jitCode = JitCompiler.compile(this);
+        }
+
+        return jitCode != null;
+    }
+
+    ParameterMap getParameters() {
+        return parameters;
+    }
+
+    CreatedClass getReturnClass() {
+        return returnClass;
+    }
+
+    FunctionDeclaration getDeclaration() {
+        return declaration;
+    }
+
+    FunctionBody getBody() {
+        return body;
+    }
+
+    String getName() {
+        return name;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -117,3 +338,14 @@ class ParameterMap extends LinkedHashMap<String, CreatedClass> {
 
 interface RuntimeFunction extends Function<RuntimeContext, CreatedObject> {
 }
+
+/**
+ * A built-in method with one parameter, which runs directly on its receiver
+ * and argument. `CreatedFunction.call` runs it without creating a
+ * `RuntimeContext` once it has checked the argument's class, so operators on
+ * `Int`, `Flt`, `Bln` and `Str` don't go through the method's parameters by
+ * name.
+ */
+interface Intrinsic {
+    CreatedObject apply(CreatedObject receiver, CreatedObject other);
+}
@@ -1,9 +1,9 @@
 package flannelscript.runtime;
 
-import java.util.LinkedHashMap;
-
 public class CreatedObject<B> {
-    private PropertyMap properties;
+    // The values of the object's properties, by their index in its class's
+    // `Shape`.
+    private CreatedObject[] propertyValues;
     private CreatedClass<B> objectClass;
     private B baseValue;
 
@@ -13,19 +13,13 @@ public class CreatedObject<B> {
     ) {
         this.objectClass = objectClass;
         this.baseValue = baseValue;
-        this.properties = objectClass.getPropertiesCopy();
+        this.propertyValues = objectClass.createPropertyValues();
     }
 
     CreatedObject(CreatedObject<B> original) {
         this.objectClass = original.objectClass;
         this.baseValue = original.getBaseValue();
-
-        if (original.properties.size() == 0) {
-            this.properties = new PropertyMap();
-            return;
-        }
-
-        this.properties = original.getObjectClass().getPropertiesCopy();
+        this.propertyValues = objectClass.createPropertyValues();
     }
 
     public CreatedClass getObjectClass() {
@@ -33,15 +27,47 @@ public class CreatedObject<B> {
     }
 
     public boolean checkHasProperty(String name) {
-        return properties.containsKey(name);
+        return objectClass.getShape().getIndex(name) != -1;
     }
 
     public CreatedObject getProperty(String name) {
-        return properties.get(name);
+        int index = objectClass.getShape().getIndex(name);
+
+        if (index == -1) {
+            return null;
+        }
+
+        return propertyValues[index];
     }
 
     public void setProperty(String name, CreatedObject propertyValue) {
-        properties.put(name, propertyValue);
+        int index = objectClass.getShape().getIndex(name);
+
+        if (index == -1) {
+            throw new ObjectException(
+                "A property with the name `" + name + "` could not be found."
+            );
+        }
+
+        setProperty(index, propertyValue);
+    }
+
+    /**
+     * @param index A property's index in the object's shape, e.g., from a
+     * `PropertyCache`.
+     * @return The property's value.
+     */
+    CreatedObject getProperty(int index) {
+        return propertyValues[index];
+    }
+
+    void setProperty(int index, CreatedObject propertyValue) {
+        // The class's template is shared until the object sets a property.
+        if (objectClass.isPropertyTemplate(propertyValues)) {
+            propertyValues = propertyValues.clone();
+        }
+
+        propertyValues[index] = propertyValue;
     }
 
     public CreatedObject callMethod(String name, CreatedObject[] arguments) {
@@ -51,9 +77,36 @@ public class CreatedObject<B> {
     public B getBaseValue() {
         return baseValue;
     }
-}
 
-class PropertyMap extends LinkedHashMap<String, CreatedObject<Object>> {
+    // These read the base value of an `Int`, `Flt` or `Bln` without boxing
+    // it. `IntValue`, `FltValue` and `BlnValue` override them to return the
+    // raw value they hold.
+
+    long getLongValue() {
+        return (Long) baseValue;
+    }
+
+    double getDoubleValue() {
+        return (Double) baseValue;
+    }
+
+    boolean getBooleanValue() {
+        return (Boolean) baseValue;
+    }
+
+    /**
+     * Returns what `echo` and `ask` print for this object, which is its
+     * `getStr` result unless it is already a `Str`.
+     *
+     * @return The value to print.
+     */
+    Object getPrintedValue() {
+        if (objectClass == RuntimeConstants.getStrClass()) {
+            return baseValue;
+        }
+
+        return callMethod("getStr", new CreatedObject[] {}).getBaseValue();
+    }
 }
 
 class ObjectException extends RuntimeException {
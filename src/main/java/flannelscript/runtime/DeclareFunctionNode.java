@@ -0,0 +1,99 @@
+package flannelscript.runtime;
+
+import flannelscript.ir.FunctionDeclaration;
+
+/**
+ * Declares a function. Its body has been compiled ahead of time, so the same
+ * node also serves as a template for a class's methods, which are created
+ * each time the class is declared.
+ */
+class DeclareFunctionNode extends ExecutableStatement {
+    private final String name;
+    private final String[] parameterNames;
+    private final String[] parameterTypeNames;
+    private final String returnTypeName;
+    private final FunctionBody body;
+    private final FunctionDeclaration declaration;
+
+    DeclareFunctionNode(
+        String name,
+        String[] parameterNames,
+        String[] parameterTypeNames,
+        String returnTypeName,
+        FunctionBody body,
+        FunctionDeclaration declaration
+    ) {
+        this.name = name;
+        this.parameterNames = parameterNames;
+        this.parameterTypeNames = parameterTypeNames;
+        this.returnTypeName = returnTypeName;
+        this.body = body;
+        this.declaration = declaration;
+    }
+
+    static DeclareFunctionNode compile(FunctionDeclaration declaration) {
+        return compile(
+            declaration,
+            ExecutableBlock.compileFunction(declaration)
+        );
+    }
+
+    /**
+     * Creates a node declaring a function whose body has already been
+     * compiled, e.g., into `CompiledCode` by `BytecodeCompiler`.
+     *
+     * @param declaration The function's declaration.
+     * @param body The function's compiled body.
+     * @return The node.
+     */
+    static DeclareFunctionNode compile(
+        FunctionDeclaration declaration,
+        FunctionBody body
+    ) {
+        String[] parameterNames = new String[declaration.getParameterCount()];
+        String[] parameterTypeNames = new String[parameterNames.length];
+
+        for (int i = 0; i < parameterNames.length; i++) {
+            parameterNames[i] = declaration.getParameter(i).getName();
+            parameterTypeNames[i] = declaration.getParameter(i).getTypeName();
+        }
+
+        return new DeclareFunctionNode(
+            declaration.getName(),
+            parameterNames,
+            parameterTypeNames,
+            declaration.getReturnTypeName(),
+            body,
+            declaration
+        );
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        RuntimeContext.setGlobalFunction(name, createFunction());
+        return null;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    CreatedFunction<Object> createFunction() {
+        ParameterMap parameters = new ParameterMap();
+
+        for (int i = 0; i < parameterNames.length; i++) {
+            parameters.put(
+                parameterNames[i],
+                RuntimeContext.getClass(parameterTypeNames[i])
+            );
+        }
+
+        return new CreatedFunction<Object>(
+            parameters,
+            body,
+            RuntimeContext.getClass(returnTypeName),
+            name,
+            declaration
+        );
+    }
+}
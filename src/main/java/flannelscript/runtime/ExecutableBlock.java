@@ -0,0 +1,103 @@
+package flannelscript.runtime;
+
+import flannelscript.ir.Block;
+import flannelscript.ir.FunctionDeclaration;
+import flannelscript.ir.ReturnStatement;
+
+/**
+ * A `Block` that has been compiled into executable nodes. A `return`
+ * statement ends the block, so any statements after it are dropped.
+ */
+class ExecutableBlock implements FunctionBody {
+    private final ExecutableStatement[] statements;
+    private final int slotCount;
+
+    ExecutableBlock(ExecutableStatement[] statements, int slotCount) {
+        this.statements = statements;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Compiles the body of a function or method, resolving its locals to
+     * slots.
+     *
+     * @param declaration The function's declaration.
+     * @return The compiled body.
+     */
+    static ExecutableBlock compileFunction(FunctionDeclaration declaration) {
+        return compile(
+            declaration.getBody(),
+            SlotResolver.resolveFunction(declaration)
+        );
+    }
+
+    /**
+     * Compiles a block into executable nodes.
+     *
+     * @param block The block to compile.
+     * @param slots The slots of the unit of code that the block is in.
+     * @return The compiled block.
+     */
+    static ExecutableBlock compile(Block block, SlotResolver slots) {
+        int statementCount = block.getStatementCount();
+
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            if (block.getStatement(i) instanceof ReturnStatement) {
+                statementCount = i + 1;
+                break;
+            }
+        }
+
+        ExecutableStatement[] statements = new ExecutableStatement[statementCount];
+
+        for (int i = 0; i < statementCount; i++) {
+            statements[i] = ExecutableStatement.compile(block.getStatement(i), slots);
+        }
+
+        return new ExecutableBlock(statements, slots.getSlotCount());
+    }
+
+    /**
+     * Executes this block's statements, until one of them returns.
+     *
+     * @param context The context to execute them in.
+     * @return The value returned by a `return` statement, or `null` if the
+     * block completed normally. See `ExecutableStatement`.
+     */
+    CreatedObject execute(RuntimeContext context) {
+        for (int i = 0; i < statements.length; i++) {
+            CreatedObject returnedValue = statements[i].execute(context);
+
+            if (returnedValue != null) {
+                return returnedValue;
+            }
+        }
+
+        return null;
+    }
+
+    int getSlotCount() {
+        return slotCount;
+    }
+
+    @Override
+    public CreatedObject run(
+        RuntimeContext context,
+        CreatedObject[] arguments
+    ) {
+        // Parameters have the first slots. See `SlotResolver`.
+        CreatedObject[] slots = new CreatedObject[slotCount];
+
+        System.arraycopy(arguments, 0, slots, 0, arguments.length);
+        context.setSlots(slots);
+
+        CreatedObject returnedValue = execute(context);
+
+        // A function that doesn't return anything returns `und`.
+        if (returnedValue == null) {
+            return RuntimeContext.getGlobal("und");
+        }
+
+        return returnedValue;
+    }
+}
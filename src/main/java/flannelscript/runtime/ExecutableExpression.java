@@ -0,0 +1,381 @@
+package flannelscript.runtime;
+
+import java.util.Scanner;
+
+import flannelscript.ir.AskExpression;
+import flannelscript.ir.BinaryExpression;
+import flannelscript.ir.BlnLiteral;
+import flannelscript.ir.ClassCall;
+import flannelscript.ir.Expression;
+import flannelscript.ir.FltLiteral;
+import flannelscript.ir.FunctionCall;
+import flannelscript.ir.IntLiteral;
+import flannelscript.ir.MethodCall;
+import flannelscript.ir.NotExpression;
+import flannelscript.ir.PropertyGet;
+import flannelscript.ir.StrLiteral;
+import flannelscript.ir.VariableGet;
+
+/**
+ * An expression that has been compiled into a node that evaluates itself.
+ * Each kind of `Expression` has its own subclass, so choosing what to do with
+ * a node happens once when it is compiled, instead of every time it is
+ * evaluated.
+ */
+abstract class ExecutableExpression {
+    /**
+     * Evaluates this node.
+     *
+     * @param context The context to evaluate this node in.
+     * @return The resulting object.
+     */
+    abstract CreatedObject evaluate(RuntimeContext context);
+
+    /**
+     * Compiles an expression into an executable node.
+     *
+     * @param expression The expression to compile.
+     * @param slots The slots of the unit of code that the expression is in.
+     * @return The executable node.
+     */
+    static ExecutableExpression compile(Expression expression, SlotResolver slots) {
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+
+            return new BinaryNode(
+                binaryExpression.getOperator(),
+                compile(binaryExpression.getLeft(), slots),
+                compile(binaryExpression.getRight(), slots)
+            );
+        }
+
+        if (expression instanceof VariableGet) {
+            return compileVariable(((VariableGet) expression).getName(), slots);
+        }
+
+        if (expression instanceof IntLiteral) {
+            return new LiteralNode(
+                RuntimeConstants.createInt(((IntLiteral) expression).getValue())
+            );
+        }
+
+        if (expression instanceof FltLiteral) {
+            return new LiteralNode(
+                RuntimeConstants.createFlt(((FltLiteral) expression).getValue())
+            );
+        }
+
+        if (expression instanceof BlnLiteral) {
+            return new LiteralNode(
+                RuntimeConstants.createBln(((BlnLiteral) expression).getValue())
+            );
+        }
+
+        if (expression instanceof StrLiteral) {
+            return new LiteralNode(
+                RuntimeConstants.getStrClass().createObject(
+                    ((StrLiteral) expression).getValue()
+                )
+            );
+        }
+
+        if (expression instanceof NotExpression) {
+            return new NotNode(
+                compile(((NotExpression) expression).getOperand(), slots)
+            );
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+            ExecutableExpression[] arguments
+                = new ExecutableExpression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = compile(call.getArgument(i), slots);
+            }
+
+            return new FunctionCallNode(call.getName(), arguments);
+        }
+
+        if (expression instanceof MethodCall) {
+            MethodCall call = (MethodCall) expression;
+            ExecutableExpression[] arguments
+                = new ExecutableExpression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = compile(call.getArgument(i), slots);
+            }
+
+            return new MethodCallNode(
+                compileVariable(call.getObjectName(), slots),
+                call.getMethodName(),
+                arguments
+            );
+        }
+
+        if (expression instanceof ClassCall) {
+            ClassCall call = (ClassCall) expression;
+            ExecutableExpression[] arguments
+                = new ExecutableExpression[call.getArgumentCount()];
+
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = compile(call.getArgument(i), slots);
+            }
+
+            return new ClassCallNode(call.getClassName(), arguments);
+        }
+
+        if (expression instanceof PropertyGet) {
+            PropertyGet propertyGet = (PropertyGet) expression;
+
+            return new PropertyGetNode(
+                compileVariable(propertyGet.getObjectName(), slots),
+                propertyGet.getPropertyName()
+            );
+        }
+
+        if (expression instanceof AskExpression) {
+            return new AskNode(
+                compile(((AskExpression) expression).getPrompt(), slots)
+            );
+        }
+
+        throw new ExecutableExpressionException("Expression found is unsupported.");
+    }
+
+    /**
+     * Compiles a read of a variable, which reads its slot if it has one.
+     *
+     * @param name The variable's name.
+     * @param slots The slots of the unit of code that the read is in.
+     * @return The executable node.
+     */
+    static ExecutableExpression compileVariable(String name, SlotResolver slots) {
+        if (slots.hasSlot(name)) {
+            return new LocalVariableNode(slots.getSlot(name), name);
+        }
+
+        return new VariableNode(name);
+    }
+
+    /**
+     * Evaluates a series of argument nodes, in order.
+     *
+     * @param arguments The argument nodes.
+     * @param context The context to evaluate them in.
+     * @return The evaluated arguments.
+     */
+    static CreatedObject[] evaluateArguments(
+        ExecutableExpression[] arguments,
+        RuntimeContext context
+    ) {
+        CreatedObject[] evaluatedArguments = new CreatedObject[arguments.length];
+
+        for (int i = 0; i < arguments.length; i++) {
+            evaluatedArguments[i] = arguments[i].evaluate(context);
+        }
+
+        return evaluatedArguments;
+    }
+}
+
+class VariableNode extends ExecutableExpression {
+    private final PropertyCache cache;
+
+    VariableNode(String name) {
+        this.cache = new PropertyCache(name);
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        return context.getObject(cache);
+    }
+}
+
+/**
+ * Reads a variable from its slot. Until the variable's declaration has run,
+ * its slot is empty and it is looked up by name instead, the same as in
+ * `RuntimeNode`.
+ */
+class LocalVariableNode extends ExecutableExpression {
+    private final int slot;
+    private final String name;
+
+    LocalVariableNode(int slot, String name) {
+        this.slot = slot;
+        this.name = name;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        CreatedObject value = context.getSlots()[slot];
+
+        if (value == null) {
+            return context.getObject(name);
+        }
+
+        return value;
+    }
+}
+
+/**
+ * A literal, whose value is created once when it is compiled, and returned
+ * every time it is evaluated. Nothing can change an `Int`, `Flt`, `Bln` or
+ * `Str`, so sharing it is safe.
+ */
+class LiteralNode extends ExecutableExpression {
+    private final CreatedObject value;
+
+    LiteralNode(CreatedObject value) {
+        this.value = value;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        return value;
+    }
+}
+
+class NotNode extends ExecutableExpression {
+    private final ExecutableExpression operand;
+
+    NotNode(ExecutableExpression operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        CreatedObject evaluatedOperand = operand.evaluate(context);
+
+        if (evaluatedOperand.getObjectClass() != RuntimeConstants.getBlnClass()) {
+            throw new ExecutableExpressionException("Expected `Bln` type, but was not found.");
+        }
+
+        return evaluatedOperand.callMethod(
+            "equals",
+            new CreatedObject[] {
+                RuntimeConstants.createBln(false)
+            }
+        );
+    }
+}
+
+class FunctionCallNode extends ExecutableExpression {
+    private final InlineCache cache;
+    private final InlinedCall inlinedCall = new InlinedCall();
+    private final ExecutableExpression[] arguments;
+
+    FunctionCallNode(String name, ExecutableExpression[] arguments) {
+        this.cache = new InlineCache(name);
+        this.arguments = arguments;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        CreatedObject[] evaluatedArguments = evaluateArguments(arguments, context);
+        CreatedFunction function = cache.getFunction(context);
+
+        // The function's receiver is the open object, so an inlined body can
+        // run in the caller's context.
+        if (inlinedCall.isInlined(function)) {
+            return inlinedCall.run(context, evaluatedArguments);
+        }
+
+        return function.call(context.getOpenObject(), evaluatedArguments);
+    }
+}
+
+class MethodCallNode extends ExecutableExpression {
+    private final ExecutableExpression object;
+    private final InlineCache cache;
+    private final InlinedCall inlinedCall = new InlinedCall();
+    private final ExecutableExpression[] arguments;
+
+    MethodCallNode(
+        ExecutableExpression object,
+        String methodName,
+        ExecutableExpression[] arguments
+    ) {
+        this.object = object;
+        this.cache = new InlineCache(methodName);
+        this.arguments = arguments;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        CreatedObject[] evaluatedArguments = evaluateArguments(arguments, context);
+        CreatedObject receiver = object.evaluate(context);
+        CreatedFunction method = cache.getMethod(receiver);
+
+        if (inlinedCall.isInlined(method)) {
+            return inlinedCall.run(new RuntimeContext(receiver), evaluatedArguments);
+        }
+
+        return method.call(receiver, evaluatedArguments);
+    }
+}
+
+class ClassCallNode extends ExecutableExpression {
+    private final String className;
+    private final ExecutableExpression[] arguments;
+
+    ClassCallNode(String className, ExecutableExpression[] arguments) {
+        this.className = className;
+        this.arguments = arguments;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        CreatedObject[] evaluatedArguments = evaluateArguments(arguments, context);
+
+        return RuntimeContext.getClass(className).createObject(
+            evaluatedArguments,
+            null
+        );
+    }
+}
+
+class PropertyGetNode extends ExecutableExpression {
+    private final ExecutableExpression object;
+    private final PropertyCache cache;
+
+    PropertyGetNode(ExecutableExpression object, String propertyName) {
+        this.object = object;
+        this.cache = new PropertyCache(propertyName);
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        CreatedObject evaluatedObject = object.evaluate(context);
+        int index = cache.getIndex(evaluatedObject);
+
+        if (index == -1) {
+            return null;
+        }
+
+        return evaluatedObject.getProperty(index);
+    }
+}
+
+class AskNode extends ExecutableExpression {
+    private final ExecutableExpression prompt;
+
+    AskNode(ExecutableExpression prompt) {
+        this.prompt = prompt;
+    }
+
+    @Override
+    CreatedObject evaluate(RuntimeContext context) {
+        System.out.println(prompt.evaluate(context).getPrintedValue());
+
+        Scanner scanner = new Scanner(System.in);
+        String nextLine = scanner.nextLine();
+        return RuntimeConstants.getStrClass().createObject(nextLine);
+    }
+}
+
+class ExecutableExpressionException extends RuntimeException {
+    ExecutableExpressionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,432 @@
+package flannelscript.runtime;
+
+import flannelscript.ir.ClassDeclaration;
+import flannelscript.ir.EchoStatement;
+import flannelscript.ir.ExpressionStatement;
+import flannelscript.ir.FunctionDeclaration;
+import flannelscript.ir.IfStatement;
+import flannelscript.ir.ReturnStatement;
+import flannelscript.ir.Statement;
+import flannelscript.ir.VariableAssignment;
+import flannelscript.ir.VariableDeclaration;
+import flannelscript.ir.WhileStatement;
+
+/**
+ * A statement that has been compiled into a node that executes itself. See
+ * `ExecutableExpression`.
+ *
+ * Executing a node completes it either normally or by a `return` statement,
+ * which is signaled by returning the returned value instead of `null`. Each
+ * block and loop stops as soon as a statement in it returns, and passes the
+ * value on, until it reaches the function (or the program) that the
+ * statement is in, so a `return` inside of nested blocks doesn't need an
+ * exception to get there.
+ */
+abstract class ExecutableStatement {
+    /**
+     * Executes this node.
+     *
+     * @param context The context to execute this node in.
+     * @return The value returned by a `return` statement, if one ended this
+     * node, otherwise `null`.
+     */
+    abstract CreatedObject execute(RuntimeContext context);
+
+    /**
+     * Compiles a statement into an executable node.
+     *
+     * @param statement The statement to compile.
+     * @param slots The slots of the unit of code that the statement is in.
+     * @return The executable node.
+     */
+    static ExecutableStatement compile(Statement statement, SlotResolver slots) {
+        if (statement instanceof VariableDeclaration) {
+            VariableDeclaration declaration = (VariableDeclaration) statement;
+
+            return new DeclareVariableNode(
+                declaration.getTypeName(),
+                slots.getSlot(declaration.getName()),
+                ExecutableExpression.compile(declaration.getValue(), slots)
+            );
+        }
+
+        if (statement instanceof VariableAssignment) {
+            VariableAssignment assignment = (VariableAssignment) statement;
+
+            if (slots.hasSlot(assignment.getName())) {
+                return new AssignLocalNode(
+                    slots.getSlot(assignment.getName()),
+                    assignment.getName(),
+                    ExecutableExpression.compile(assignment.getValue(), slots)
+                );
+            }
+
+            return new AssignVariableNode(
+                assignment.getName(),
+                ExecutableExpression.compile(assignment.getValue(), slots)
+            );
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            return new EvaluateNode(
+                ExecutableExpression.compile(
+                    ((ExpressionStatement) statement).getExpression(),
+                    slots
+                )
+            );
+        }
+
+        if (statement instanceof EchoStatement) {
+            return new EchoNode(
+                ExecutableExpression.compile(((EchoStatement) statement).getValue(), slots)
+            );
+        }
+
+        if (statement instanceof ReturnStatement) {
+            return new ReturnNode(
+                ExecutableExpression.compile(((ReturnStatement) statement).getValue(), slots)
+            );
+        }
+
+        if (statement instanceof WhileStatement) {
+            WhileStatement whileStatement = (WhileStatement) statement;
+            CountedLoopNode countedLoop
+                = CountedLoopNode.compile(whileStatement, slots);
+
+            if (countedLoop != null) {
+                return countedLoop;
+            }
+
+            return new WhileNode(
+                ExecutableExpression.compile(whileStatement.getCondition(), slots),
+                ExecutableBlock.compile(whileStatement.getBody(), slots)
+            );
+        }
+
+        if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+
+            return new IfNode(
+                ExecutableExpression.compile(ifStatement.getCondition(), slots),
+                ExecutableBlock.compile(ifStatement.getBody(), slots)
+            );
+        }
+
+        if (statement instanceof FunctionDeclaration) {
+            return DeclareFunctionNode.compile((FunctionDeclaration) statement);
+        }
+
+        if (statement instanceof ClassDeclaration) {
+            return DeclareClassNode.compile((ClassDeclaration) statement, slots);
+        }
+
+        throw new ExecutableStatementException("Statement found is unsupported.");
+    }
+
+    /**
+     * Evaluates a condition, throwing an exception if it is not a `Bln`.
+     *
+     * @param condition The condition to evaluate.
+     * @param context The context to evaluate it in.
+     * @return The condition's value.
+     */
+    static boolean evaluateCondition(
+        ExecutableExpression condition,
+        RuntimeContext context
+    ) {
+        CreatedObject evaluatedCondition = condition.evaluate(context);
+
+        if (
+            TypeChecks.isEnabled()
+                && evaluatedCondition.getObjectClass() != RuntimeConstants.getBlnClass()
+        ) {
+            throw new ExecutableStatementException("Expected `Bln` type, but was not found.");
+        }
+
+        return evaluatedCondition.getBooleanValue();
+    }
+}
+
+class DeclareVariableNode extends ExecutableStatement {
+    private final String typeName;
+    private final int slot;
+    private final ExecutableExpression value;
+
+    DeclareVariableNode(
+        String typeName,
+        int slot,
+        ExecutableExpression value
+    ) {
+        this.typeName = typeName;
+        this.slot = slot;
+        this.value = value;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        CreatedObject evaluatedValue = value.evaluate(context);
+
+        if (
+            TypeChecks.isEnabled()
+                && RuntimeContext.getClass(typeName) != evaluatedValue.getObjectClass()
+        ) {
+            throw new ExecutableStatementException(
+                "Type `" + typeName + "` does not match found type."
+            );
+        }
+
+        context.getSlots()[slot] = evaluatedValue;
+        return null;
+    }
+}
+
+/**
+ * Assigns to a variable that has a slot. See `LocalVariableNode`.
+ */
+class AssignLocalNode extends ExecutableStatement {
+    private final int slot;
+    private final String name;
+    private final ExecutableExpression value;
+
+    AssignLocalNode(int slot, String name, ExecutableExpression value) {
+        this.slot = slot;
+        this.name = name;
+        this.value = value;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        CreatedObject evaluatedValue = value.evaluate(context);
+        CreatedObject[] slots = context.getSlots();
+
+        if (slots[slot] != null) {
+            slots[slot] = evaluatedValue;
+        } else {
+            context.updateObject(name, evaluatedValue);
+        }
+
+        return null;
+    }
+}
+
+class AssignVariableNode extends ExecutableStatement {
+    private final PropertyCache cache;
+    private final ExecutableExpression value;
+
+    AssignVariableNode(String name, ExecutableExpression value) {
+        this.cache = new PropertyCache(name);
+        this.value = value;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        context.updateObject(cache, value.evaluate(context));
+        return null;
+    }
+}
+
+class EvaluateNode extends ExecutableStatement {
+    private final ExecutableExpression expression;
+
+    EvaluateNode(ExecutableExpression expression) {
+        this.expression = expression;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        expression.evaluate(context);
+        return null;
+    }
+}
+
+class EchoNode extends ExecutableStatement {
+    private final ExecutableExpression value;
+
+    EchoNode(ExecutableExpression value) {
+        this.value = value;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        System.out.println(value.evaluate(context).getPrintedValue());
+        return null;
+    }
+}
+
+/**
+ * A `return` statement, which ends the function that it is in, or the
+ * program if it is outside of one.
+ */
+class ReturnNode extends ExecutableStatement {
+    private final ExecutableExpression value;
+
+    ReturnNode(ExecutableExpression value) {
+        this.value = value;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        return value.evaluate(context);
+    }
+}
+
+class WhileNode extends ExecutableStatement {
+    private final ExecutableExpression condition;
+    private final ExecutableBlock body;
+
+    WhileNode(ExecutableExpression condition, ExecutableBlock body) {
+        this.condition = condition;
+        this.body = body;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        // The condition is checked for being a `Bln` once before the loop
+        // starts, in the same way as `RuntimeNode`.
+        if (TypeChecks.isEnabled()) {
+            evaluateCondition(condition, context);
+        }
+
+        while (evaluateCondition(condition, context)) {
+            CreatedObject returnedValue = body.execute(context);
+
+            if (returnedValue != null) {
+                return returnedValue;
+            }
+        }
+
+        return null;
+    }
+}
+
+class IfNode extends ExecutableStatement {
+    private final ExecutableExpression condition;
+    private final ExecutableBlock body;
+
+    IfNode(ExecutableExpression condition, ExecutableBlock body) {
+        this.condition = condition;
+        this.body = body;
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        // See `WhileNode`.
+        if (TypeChecks.isEnabled()) {
+            evaluateCondition(condition, context);
+        }
+
+        if (evaluateCondition(condition, context)) {
+            return body.execute(context);
+        }
+
+        return null;
+    }
+}
+
+class DeclareClassNode extends ExecutableStatement {
+    private final String name;
+    private final String extendsName;
+    private final String[] overrideNames;
+    private final ExecutableExpression[] overrideValues;
+    private final String[] propertyNames;
+    private final String[] propertyTypeNames;
+    private final ExecutableExpression[] propertyValues;
+    private final DeclareFunctionNode[] methods;
+
+    DeclareClassNode(
+        String name,
+        String extendsName,
+        String[] overrideNames,
+        ExecutableExpression[] overrideValues,
+        String[] propertyNames,
+        String[] propertyTypeNames,
+        ExecutableExpression[] propertyValues,
+        DeclareFunctionNode[] methods
+    ) {
+        this.name = name;
+        this.extendsName = extendsName;
+        this.overrideNames = overrideNames;
+        this.overrideValues = overrideValues;
+        this.propertyNames = propertyNames;
+        this.propertyTypeNames = propertyTypeNames;
+        this.propertyValues = propertyValues;
+        this.methods = methods;
+    }
+
+    static DeclareClassNode compile(
+        ClassDeclaration declaration,
+        SlotResolver slots
+    ) {
+        String[] overrideNames = new String[declaration.getOverrideCount()];
+        ExecutableExpression[] overrideValues
+            = new ExecutableExpression[overrideNames.length];
+        String[] propertyNames = new String[declaration.getPropertyCount()];
+        String[] propertyTypeNames = new String[propertyNames.length];
+        ExecutableExpression[] propertyValues
+            = new ExecutableExpression[propertyNames.length];
+        DeclareFunctionNode[] methods
+            = new DeclareFunctionNode[declaration.getMethodCount()];
+
+        for (int i = 0; i < overrideNames.length; i++) {
+            VariableAssignment override = declaration.getOverride(i);
+
+            overrideNames[i] = override.getName();
+            overrideValues[i] = ExecutableExpression.compile(override.getValue(), slots);
+        }
+
+        for (int i = 0; i < propertyNames.length; i++) {
+            VariableDeclaration property = declaration.getProperty(i);
+
+            propertyNames[i] = property.getName();
+            propertyTypeNames[i] = property.getTypeName();
+            propertyValues[i] = ExecutableExpression.compile(property.getValue(), slots);
+        }
+
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = DeclareFunctionNode.compile(declaration.getMethod(i));
+        }
+
+        return new DeclareClassNode(
+            declaration.getName(),
+            declaration.getExtendsName(),
+            overrideNames,
+            overrideValues,
+            propertyNames,
+            propertyTypeNames,
+            propertyValues,
+            methods
+        );
+    }
+
+    @Override
+    CreatedObject execute(RuntimeContext context) {
+        CreatedObject[] evaluatedOverrideValues
+            = ExecutableExpression.evaluateArguments(overrideValues, context);
+        CreatedObject[] evaluatedPropertyValues
+            = ExecutableExpression.evaluateArguments(propertyValues, context);
+        MethodMap<Object> methodMap = new MethodMap<Object>();
+
+        for (int i = 0; i < methods.length; i++) {
+            methodMap.put(methods[i].getName(), methods[i].createFunction());
+        }
+
+        CreatedClass.declare(
+            name,
+            extendsName,
+            overrideNames,
+            evaluatedOverrideValues,
+            propertyTypeNames,
+            propertyNames,
+            evaluatedPropertyValues,
+            methodMap
+        );
+
+        return null;
+    }
+}
+
+class ExecutableStatementException extends RuntimeException {
+    ExecutableStatementException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package flannelscript.runtime;
+
+/**
+ * A `Flt`, which holds its value as a raw `double` instead of a boxed
+ * `Double`. Create them with `RuntimeConstants.createFlt`.
+ */
+final class FltValue extends CreatedObject<Double> {
+    private final double value;
+
+    FltValue(CreatedClass<Double> fltClass, double value) {
+        super(fltClass, null);
+        this.value = value;
+    }
+
+    @Override
+    public Double getBaseValue() {
+        return value;
+    }
+
+    @Override
+    double getDoubleValue() {
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+package flannelscript.runtime;
+
+/**
+ * The state of a unit of compiled code that `BytecodeInterpreter` is running,
+ * kept on the heap instead of in the JVM's stack, so that calls don't nest
+ * the JVM's stack. While a frame runs, the interpreter keeps its operand
+ * stack size and instruction index in locals, and only saves them here when
+ * it makes a call.
+ */
+class Frame {
+    private final CompiledCode code;
+    private final RuntimeContext context;
+    private final CreatedObject[] slots;
+    private final CreatedObject[] stack;
+    // The called function, or `null` for the frame that
+    // `BytecodeInterpreter.execute` started with.
+    private final CreatedFunction function;
+    // The frame to return to, or `null` for the frame that
+    // `BytecodeInterpreter.execute` started with.
+    private final Frame caller;
+    private int stackSize = 0;
+    private int instruction = 0;
+
+    Frame(
+        CompiledCode code,
+        RuntimeContext context,
+        CreatedObject[] slots,
+        CreatedFunction function,
+        Frame caller
+    ) {
+        this.code = code;
+        this.context = context;
+        this.slots = slots;
+        this.stack = new CreatedObject[code.getMaxStackSize()];
+        this.function = function;
+        this.caller = caller;
+    }
+
+    /**
+     * Saves where the frame is, before it makes a call.
+     *
+     * @param newStackSize The size of the operand stack.
+     * @param newInstruction The index of the instruction after the call.
+     */
+    void save(int newStackSize, int newInstruction) {
+        stackSize = newStackSize;
+        instruction = newInstruction;
+    }
+
+    /**
+     * Pushes the result of a call that the frame made.
+     *
+     * @param value The call's result.
+     */
+    void push(CreatedObject value) {
+        stack[stackSize++] = value;
+    }
+
+    CompiledCode getCode() {
+        return code;
+    }
+
+    RuntimeContext getContext() {
+        return context;
+    }
+
+    CreatedObject[] getSlots() {
+        return slots;
+    }
+
+    CreatedObject[] getStack() {
+        return stack;
+    }
+
+    CreatedFunction getFunction() {
+        return function;
+    }
+
+    Frame getCaller() {
+        return caller;
+    }
+
+    int getStackSize() {
+        return stackSize;
+    }
+
+    int getInstruction() {
+        return instruction;
+    }
+}
@@ -0,0 +1,20 @@
+package flannelscript.runtime;
+
+/**
+ * The code that runs when a user-defined `CreatedFunction` is called. Each
+ * execution engine provides its own kind of body, e.g., `RuntimeNode` walks
+ * the function's `Block`, `ExecutableBlock` runs nodes that were compiled
+ * from it ahead of time, and `CompiledCode` runs it as bytecode.
+ */
+interface FunctionBody {
+    /**
+     * Runs the body.
+     *
+     * @param context The context to run the body in, whose open object is
+     * the function's receiver.
+     * @param arguments The function's arguments, in the order of its
+     * parameters. The body stores them wherever it keeps its locals.
+     * @return The returned object, or `und` if nothing was returned.
+     */
+    CreatedObject run(RuntimeContext context, CreatedObject[] arguments);
+}
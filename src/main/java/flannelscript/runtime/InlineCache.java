@@ -0,0 +1,123 @@
+package flannelscript.runtime;
+
+/**
+ * Remembers which function a call site resolved its name to, keyed by the
+ * class it was resolved on, so that calling it again skips looking it up.
+ * A site holds up to `MAX_ENTRY_COUNT` classes. Once it sees more, it is
+ * megamorphic, and new classes are looked up every time instead. A method
+ * call site first tries the index in the class's method table that it last
+ * looked its method up at, which fits any class that inherits the method
+ * from the same class.
+ *
+ * A method call site is keyed by its receiver's class. A class's methods do
+ * not change after it is declared, and declaring a class with the same name
+ * creates a new `CreatedClass`, so its entries never go stale. A function
+ * call site is keyed by the class of the open object, or `null` if there is
+ * none, since a method of the open object takes precedence over a global
+ * function. Global functions can be redeclared, so its entries are dropped
+ * whenever anything is declared.
+ */
+public class InlineCache {
+    static final int MAX_ENTRY_COUNT = 4;
+
+    private static long hitCount = 0;
+    private static long missCount = 0;
+
+    private final String name;
+    private final CreatedClass[] classes = new CreatedClass[MAX_ENTRY_COUNT];
+    private final CreatedFunction[] functions
+        = new CreatedFunction[MAX_ENTRY_COUNT];
+    private int entryCount = 0;
+    private int methodIndex = -1;
+    private int declarationVersion = RuntimeContext.getDeclarationVersion();
+
+    /**
+     * @param name The name of the function or method that the site calls.
+     */
+    InlineCache(String name) {
+        this.name = name;
+    }
+
+    public static long getHitCount() {
+        return hitCount;
+    }
+
+    public static long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Resolves the method that a method call site calls.
+     *
+     * @param receiver The object that the method is called on.
+     * @return The method.
+     */
+    CreatedFunction getMethod(CreatedObject receiver) {
+        CreatedClass receiverClass = receiver.getObjectClass();
+
+        for (int i = 0; i < entryCount; i++) {
+            if (classes[i] == receiverClass) {
+                hitCount++;
+                return functions[i];
+            }
+        }
+
+        CreatedFunction method = receiverClass.getMethod(methodIndex, name);
+
+        if (method != null) {
+            hitCount++;
+        } else {
+            missCount++;
+            methodIndex = receiverClass.getMethodIndex(name);
+            method = receiverClass.getMethod(name);
+        }
+
+        addEntry(receiverClass, method);
+        return method;
+    }
+
+    /**
+     * Resolves the function that a function call site calls, in the same way
+     * as `RuntimeContext.getFunction`.
+     *
+     * @param context The context that the call is in.
+     * @return The function.
+     */
+    CreatedFunction getFunction(RuntimeContext context) {
+        CreatedObject openObject = context.getOpenObject();
+        CreatedClass openClass = null;
+
+        if (openObject != null) {
+            openClass = openObject.getObjectClass();
+        }
+
+        if (declarationVersion != RuntimeContext.getDeclarationVersion()) {
+            declarationVersion = RuntimeContext.getDeclarationVersion();
+            entryCount = 0;
+        }
+
+        for (int i = 0; i < entryCount; i++) {
+            if (classes[i] == openClass) {
+                hitCount++;
+                return functions[i];
+            }
+        }
+
+        missCount++;
+
+        CreatedFunction function = context.getFunction(name);
+
+        addEntry(openClass, function);
+        return function;
+    }
+
+    private void addEntry(CreatedClass objectClass, CreatedFunction function) {
+        if (entryCount == MAX_ENTRY_COUNT) {
+            return;
+        }
+
+        classes[entryCount] = objectClass;
+        functions[entryCount] = function;
+        entryCount++;
+    }
+}
@@ -0,0 +1,73 @@
+package flannelscript.runtime;
+
+/**
+ * The inlined function of a call site in `NodeEngine`, if `Inliner` inlined
+ * the first function that the site called.
+ *
+ * Calls that could run compiled code, i.e., those without a receiver, still
+ * count towards compiling the function with `JitCompiler`. Once it is
+ * compiled, the site stops inlining it and calls the compiled code instead.
+ */
+class InlinedCall {
+    private boolean hasTriedInlining = false;
+    private CreatedFunction function;
+    private ExecutableBlock body;
+
+    /**
+     * Checks whether the site runs a function inline, trying to inline it
+     * the first time the site runs.
+     *
+     * @param function The function that the site resolved its call to.
+     * @return Whether `run` runs it.
+     */
+    boolean isInlined(CreatedFunction function) {
+        if (!hasTriedInlining) {
+            hasTriedInlining = true;
+            body = Inliner.inline(function);
+
+            if (body != null) {
+                this.function = function;
+            }
+        }
+
+        return function == this.function;
+    }
+
+    /**
+     * Runs the inlined function in the same way as `CreatedFunction.call`.
+     *
+     * @param context A context whose open object is the function's receiver.
+     * Its slots are the function's while it runs.
+     * @param arguments The function's arguments.
+     * @return The function's result.
+     */
+    CreatedObject run(RuntimeContext context, CreatedObject[] arguments) {
+        if (
+            context.getOpenObject() == null
+                && JitCompiler.isEnabled()
+                && function.countCall()
+        ) {
+            CreatedFunction compiledFunction = function;
+
+            Inliner.stopInlining(compiledFunction);
+            function = null;
+            body = null;
+            return compiledFunction.call(null, arguments);
+        }
+
+        CreatedObject[] callerSlots = context.getSlots();
+        CreatedObject result;
+
+        function.checkArguments(arguments, arguments.length);
+        function.enter();
+
+        try {
+            result = body.run(context, arguments);
+        } finally {
+            function.exit();
+            context.setSlots(callerSlots);
+        }
+
+        return function.checkResult(result);
+    }
+}
@@ -0,0 +1,357 @@
+package flannelscript.runtime;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import flannelscript.ir.AskExpression;
+import flannelscript.ir.BinaryExpression;
+import flannelscript.ir.Block;
+import flannelscript.ir.ClassCall;
+import flannelscript.ir.EchoStatement;
+import flannelscript.ir.Expression;
+import flannelscript.ir.ExpressionStatement;
+import flannelscript.ir.FunctionCall;
+import flannelscript.ir.FunctionDeclaration;
+import flannelscript.ir.IfStatement;
+import flannelscript.ir.MethodCall;
+import flannelscript.ir.NotExpression;
+import flannelscript.ir.ReturnStatement;
+import flannelscript.ir.Statement;
+import flannelscript.ir.VariableAssignment;
+import flannelscript.ir.VariableDeclaration;
+import flannelscript.ir.WhileStatement;
+
+/**
+ * Decides which calls `NodeEngine`'s call sites inline. The first time a site
+ * runs, it asks for the function it calls to be inlined. If the function is
+ * user-defined, small enough and not recursive, the site gets its own copy
+ * of the function's compiled body, and from then on runs that copy directly
+ * for as long as it resolves to the same function, instead of going through
+ * `CreatedFunction.call`. The copy's nodes only specialize on what that site
+ * passes them.
+ *
+ * A site stops inlining a function once `JitCompiler` has compiled it,
+ * since the compiled code is faster. See `InlinedCall`.
+ *
+ * Built-in methods are not inlined here. Their `Int`, `Flt` and `Bln`
+ * operators, and those of `Str`, are inlined by `BinaryNode` instead.
+ */
+public class Inliner {
+    // The largest body that is inlined, counted in statements and
+    // expressions.
+    static final int MAX_INLINED_SIZE = 40;
+
+    private static boolean isReporting = false;
+    // How many call sites each decision was made for, in the order they were
+    // first made.
+    private static final Map<String, Integer> decisions
+        = new LinkedHashMap<String, Integer>();
+    private static int inlinedCount = 0;
+    private static int notInlinedCount = 0;
+    private static int compiledCount = 0;
+
+    public static void setReporting(boolean isReporting) {
+        Inliner.isReporting = isReporting;
+    }
+
+    /**
+     * Prints how many call sites were inlined, and why the others were not.
+     */
+    public static void printReport() {
+        System.err.println(
+            "inlining: " + inlinedCount + " call sites inlined, "
+                + notInlinedCount + " not inlined, "
+                + compiledCount + " compiled instead"
+        );
+
+        for (Map.Entry<String, Integer> decision : decisions.entrySet()) {
+            System.err.println(
+                "  " + decision.getKey() + " (" + decision.getValue()
+                    + (decision.getValue() == 1 ? " call site)" : " call sites)")
+            );
+        }
+    }
+
+    /**
+     * Inlines a function at a call site, if it can be.
+     *
+     * @param function The function that the site calls.
+     * @return The site's own copy of the function's body, or `null` if it
+     * should keep calling the function.
+     */
+    static ExecutableBlock inline(CreatedFunction function) {
+        FunctionDeclaration declaration = function.getDeclaration();
+
+        if (declaration == null || !(function.getBody() instanceof ExecutableBlock)) {
+            return notInlined(function, "is built in");
+        }
+
+        if (function.isActive() || callsItself(declaration.getBody(), function.getName())) {
+            return notInlined(function, "is recursive");
+        }
+
+        int size = getSize(declaration.getBody());
+
+        if (size > MAX_INLINED_SIZE) {
+            return notInlined(
+                function,
+                "has size " + size + ", over the budget of " + MAX_INLINED_SIZE
+            );
+        }
+
+        inlinedCount++;
+        record("`" + function.getName() + "` inlined, with size " + size);
+        return ExecutableBlock.compileFunction(declaration);
+    }
+
+    /**
+     * Records that a call site stopped inlining a function, since
+     * `JitCompiler` compiled it.
+     *
+     * @param function The function.
+     */
+    static void stopInlining(CreatedFunction function) {
+        inlinedCount--;
+        compiledCount++;
+        record(
+            "`" + function.getName() + "` no longer inlined, since `JitCompiler`"
+                + " compiled it"
+        );
+    }
+
+    private static ExecutableBlock notInlined(CreatedFunction function, String reason) {
+        notInlinedCount++;
+        record("`" + function.getName() + "` not inlined, since it " + reason);
+        return null;
+    }
+
+    private static void record(String decision) {
+        if (!isReporting) {
+            return;
+        }
+
+        Integer count = decisions.get(decision);
+
+        if (count == null) {
+            count = 0;
+        }
+
+        decisions.put(decision, count + 1);
+    }
+
+    private static int getSize(Block block) {
+        int size = 0;
+
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            size += getSize(block.getStatement(i));
+        }
+
+        return size;
+    }
+
+    private static int getSize(Statement statement) {
+        if (statement instanceof VariableDeclaration) {
+            return 1 + getSize(((VariableDeclaration) statement).getValue());
+        }
+
+        if (statement instanceof VariableAssignment) {
+            return 1 + getSize(((VariableAssignment) statement).getValue());
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            return 1 + getSize(((ExpressionStatement) statement).getExpression());
+        }
+
+        if (statement instanceof EchoStatement) {
+            return 1 + getSize(((EchoStatement) statement).getValue());
+        }
+
+        if (statement instanceof ReturnStatement) {
+            return 1 + getSize(((ReturnStatement) statement).getValue());
+        }
+
+        if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+
+            return 1 + getSize(ifStatement.getCondition())
+                + getSize(ifStatement.getBody());
+        }
+
+        if (statement instanceof WhileStatement) {
+            WhileStatement whileStatement = (WhileStatement) statement;
+
+            return 1 + getSize(whileStatement.getCondition())
+                + getSize(whileStatement.getBody());
+        }
+
+        // Declarations are never inlined, so they count as over the budget.
+        return MAX_INLINED_SIZE + 1;
+    }
+
+    private static int getSize(Expression expression) {
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+
+            return 1 + getSize(binaryExpression.getLeft())
+                + getSize(binaryExpression.getRight());
+        }
+
+        if (expression instanceof NotExpression) {
+            return 1 + getSize(((NotExpression) expression).getOperand());
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+            int size = 1;
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                size += getSize(call.getArgument(i));
+            }
+
+            return size;
+        }
+
+        if (expression instanceof MethodCall) {
+            MethodCall call = (MethodCall) expression;
+            int size = 1;
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                size += getSize(call.getArgument(i));
+            }
+
+            return size;
+        }
+
+        if (expression instanceof ClassCall) {
+            ClassCall call = (ClassCall) expression;
+            int size = 1;
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                size += getSize(call.getArgument(i));
+            }
+
+            return size;
+        }
+
+        if (expression instanceof AskExpression) {
+            return 1 + getSize(((AskExpression) expression).getPrompt());
+        }
+
+        return 1;
+    }
+
+    /**
+     * Checks whether a body calls a function with its own name, which (unless
+     * an open object has a method with the same name) is itself.
+     */
+    private static boolean callsItself(Block block, String name) {
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof IfStatement) {
+                IfStatement ifStatement = (IfStatement) statement;
+
+                if (
+                    callsItself(ifStatement.getCondition(), name)
+                        || callsItself(ifStatement.getBody(), name)
+                ) {
+                    return true;
+                }
+            } else if (statement instanceof WhileStatement) {
+                WhileStatement whileStatement = (WhileStatement) statement;
+
+                if (
+                    callsItself(whileStatement.getCondition(), name)
+                        || callsItself(whileStatement.getBody(), name)
+                ) {
+                    return true;
+                }
+            } else if (callsItself(getValue(statement), name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean callsItself(Expression expression, String name) {
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+
+            return callsItself(binaryExpression.getLeft(), name)
+                || callsItself(binaryExpression.getRight(), name);
+        }
+
+        if (expression instanceof NotExpression) {
+            return callsItself(((NotExpression) expression).getOperand(), name);
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+
+            if (call.getName().equals(name)) {
+                return true;
+            }
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                if (callsItself(call.getArgument(i), name)) {
+                    return true;
+                }
+            }
+        }
+
+        if (expression instanceof MethodCall) {
+            MethodCall call = (MethodCall) expression;
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                if (callsItself(call.getArgument(i), name)) {
+                    return true;
+                }
+            }
+        }
+
+        if (expression instanceof ClassCall) {
+            ClassCall call = (ClassCall) expression;
+
+            for (int i = 0; i < call.getArgumentCount(); i++) {
+                if (callsItself(call.getArgument(i), name)) {
+                    return true;
+                }
+            }
+        }
+
+        if (expression instanceof AskExpression) {
+            return callsItself(((AskExpression) expression).getPrompt(), name);
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The expression that a simple statement evaluates, or `null` if
+     * it has none.
+     */
+    private static Expression getValue(Statement statement) {
+        if (statement instanceof VariableDeclaration) {
+            return ((VariableDeclaration) statement).getValue();
+        }
+
+        if (statement instanceof VariableAssignment) {
+            return ((VariableAssignment) statement).getValue();
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            return ((ExpressionStatement) statement).getExpression();
+        }
+
+        if (statement instanceof EchoStatement) {
+            return ((EchoStatement) statement).getValue();
+        }
+
+        if (statement instanceof ReturnStatement) {
+            return ((ReturnStatement) statement).getValue();
+        }
+
+        return null;
+    }
+}
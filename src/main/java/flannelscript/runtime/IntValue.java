@@ -0,0 +1,25 @@
+package flannelscript.runtime;
+
+/**
+ * An `Int`, which holds its value as a raw `long` instead of a boxed `Long`.
+ * Create them with `RuntimeConstants.createInt`, which reuses cached objects
+ * for small values.
+ */
+final class IntValue extends CreatedObject<Long> {
+    private final long value;
+
+    IntValue(CreatedClass<Long> intClass, long value) {
+        super(intClass, null);
+        this.value = value;
+    }
+
+    @Override
+    public Long getBaseValue() {
+        return value;
+    }
+
+    @Override
+    long getLongValue() {
+        return value;
+    }
+}
@@ -0,0 +1,41 @@
+package flannelscript.runtime;
+
+/**
+ * The base class of the hidden classes that `JitCompiler` generates. Each one
+ * unboxes a function's arguments, runs the function's compiled body on
+ * primitive values, and boxes its result.
+ *
+ * The compiled code assumes that the functions and classes it refers to are
+ * the ones that were declared when it was compiled. Once anything else is
+ * declared it is no longer valid, and the function is interpreted again.
+ */
+abstract class JitCode {
+    private final int declarationVersion = RuntimeContext.getDeclarationVersion();
+
+    /**
+     * Calls the compiled function.
+     *
+     * @param arguments The function's arguments, which have already been
+     * checked against its parameters.
+     * @return The function's result.
+     */
+    abstract CreatedObject call(CreatedObject[] arguments);
+
+    boolean isValid() {
+        return declarationVersion == RuntimeContext.getDeclarationVersion();
+    }
+
+    // The generated classes box their results with these.
+
+    static CreatedObject createInt(long value) {
+        return RuntimeConstants.createInt(value);
+    }
+
+    static CreatedObject createFlt(double value) {
+        return RuntimeConstants.createFlt(value);
+    }
+
+    static CreatedObject createBln(boolean value) {
+        return RuntimeConstants.createBln(value);
+    }
+}
@@ -0,0 +1,840 @@
+package flannelscript.runtime;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import flannelscript.ir.BinaryExpression;
+import flannelscript.ir.BinaryOperator;
+import flannelscript.ir.BlnLiteral;
+import flannelscript.ir.Block;
+import flannelscript.ir.Expression;
+import flannelscript.ir.ExpressionStatement;
+import flannelscript.ir.FltLiteral;
+import flannelscript.ir.FunctionCall;
+import flannelscript.ir.IfStatement;
+import flannelscript.ir.IntLiteral;
+import flannelscript.ir.NotExpression;
+import flannelscript.ir.ReturnStatement;
+import flannelscript.ir.Statement;
+import flannelscript.ir.VariableAssignment;
+import flannelscript.ir.VariableDeclaration;
+import flannelscript.ir.VariableGet;
+import flannelscript.ir.WhileStatement;
+
+/**
+ * Compiles functions that are called often into JVM bytecode, so that the
+ * JVM can optimize them itself. `CreatedFunction` compiles itself with this
+ * once it has been called `CALL_THRESHOLD` times.
+ *
+ * Only functions that work on `Int`, `Flt` and `Bln` values alone can be
+ * compiled, i.e., ones whose parameters, variables and result all have those
+ * types, and that only call other such functions. Their values are then
+ * `long`, `double` and `boolean` values on the JVM, and their operators are
+ * single JVM instructions. Each function they call is compiled into the same
+ * class as a static method, so calls between them skip `CreatedFunction`
+ * altogether.
+ *
+ * Since such functions cannot print anything or change anything outside of
+ * themselves, evaluating a condition once instead of twice like the
+ * interpreters do makes no difference.
+ */
+public class JitCompiler {
+    static final int CALL_THRESHOLD = 1000;
+
+    private static final String CLASS_NAME = "flannelscript/runtime/JitCode$Function";
+    private static final String JIT_CODE = "flannelscript/runtime/JitCode";
+    private static final String CREATED_OBJECT = "flannelscript/runtime/CreatedObject";
+
+    private static boolean isEnabled = true;
+    private static int compiledCount = 0;
+    private static int notCompilableCount = 0;
+    private static int invalidatedCount = 0;
+
+    private final ClassFileWriter classFile
+        = new ClassFileWriter(CLASS_NAME, JIT_CODE);
+    private final ArrayList<CreatedFunction> functions
+        = new ArrayList<CreatedFunction>();
+    private final HashMap<CreatedFunction, Integer> functionIndexes
+        = new HashMap<CreatedFunction, Integer>();
+
+    // The state of the function being compiled:
+    private CodeWriter code;
+    private HashMap<String, Integer> locals;
+    private HashMap<String, CreatedClass> localClasses;
+    private int localCount;
+    private CreatedClass returnClass;
+
+    private JitCompiler() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Returns how many functions have been compiled.
+     *
+     * @return The number of functions.
+     */
+    public static int getCompiledCount() {
+        return compiledCount;
+    }
+
+    /**
+     * Returns how many functions were called often enough to be compiled,
+     * but could not be.
+     *
+     * @return The number of functions.
+     */
+    public static int getNotCompilableCount() {
+        return notCompilableCount;
+    }
+
+    /**
+     * Returns how many times compiled code has been thrown away because
+     * something it relied on was declared again.
+     *
+     * @return The number of times.
+     */
+    public static int getInvalidatedCount() {
+        return invalidatedCount;
+    }
+
+    static void countInvalidated() {
+        invalidatedCount++;
+    }
+
+    /**
+     * Compiles a function, along with every function that it calls.
+     *
+     * @param function The function to compile.
+     * @return The compiled code, or `null` if the function cannot be compiled.
+     */
+    static JitCode compile(CreatedFunction function) {
+        JitCompiler compiler = new JitCompiler();
+
+        try {
+            compiler.addFunction(function);
+
+            // Compiling a function can add the functions it calls.
+            for (int i = 0; i < compiler.functions.size(); i++) {
+                compiler.compileFunction(i);
+            }
+
+            compiler.compileEntry(function);
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                .defineHiddenClass(compiler.classFile.toByteArray(), true);
+
+            JitCode jitCode = (JitCode) lookup.findConstructor(
+                lookup.lookupClass(),
+                MethodType.methodType(void.class)
+            ).invoke();
+
+            compiledCount++;
+            return jitCode;
+        } catch (
+            NotCompilableException
+                | ClassFileWriterException
+                | RuntimeContextException e
+        ) {
+            notCompilableCount++;
+            return null;
+        } catch (Throwable e) {
+            throw new JitCompilerException(
+                "Function `" + function + "` could not be compiled: " + e
+            );
+        }
+    }
+
+    private int addFunction(CreatedFunction function) {
+        Integer index = functionIndexes.get(function);
+
+        if (index != null) {
+            return index;
+        }
+
+        if (function.getDeclaration() == null) {
+            throw new NotCompilableException();
+        }
+
+        // Make sure that the function's signature only uses primitives.
+        getDescriptor(function);
+
+        functions.add(function);
+        functionIndexes.put(function, functions.size() - 1);
+        return functions.size() - 1;
+    }
+
+    private static String getDescriptor(CreatedFunction function) {
+        StringBuilder descriptor = new StringBuilder("(");
+
+        for (CreatedClass parameterClass : function.getParameters().values()) {
+            descriptor.append(getTypeDescriptor(parameterClass));
+        }
+
+        return descriptor
+            .append(")")
+            .append(getTypeDescriptor(function.getReturnClass()))
+            .toString();
+    }
+
+    private static String getTypeDescriptor(CreatedClass createdClass) {
+        if (createdClass == RuntimeConstants.getIntClass()) {
+            return "J";
+        }
+
+        if (createdClass == RuntimeConstants.getFltClass()) {
+            return "D";
+        }
+
+        if (createdClass == RuntimeConstants.getBlnClass()) {
+            return "Z";
+        }
+
+        throw new NotCompilableException();
+    }
+
+    private static int getSize(CreatedClass createdClass) {
+        return createdClass == RuntimeConstants.getBlnClass() ? 1 : 2;
+    }
+
+    private static int getLoadOpcode(CreatedClass createdClass) {
+        if (createdClass == RuntimeConstants.getIntClass()) {
+            return CodeWriter.LLOAD;
+        }
+
+        if (createdClass == RuntimeConstants.getFltClass()) {
+            return CodeWriter.DLOAD;
+        }
+
+        return CodeWriter.ILOAD;
+    }
+
+    private static int getStoreOpcode(CreatedClass createdClass) {
+        if (createdClass == RuntimeConstants.getIntClass()) {
+            return CodeWriter.LSTORE;
+        }
+
+        if (createdClass == RuntimeConstants.getFltClass()) {
+            return CodeWriter.DSTORE;
+        }
+
+        return CodeWriter.ISTORE;
+    }
+
+    /**
+     * Compiles the method that `CreatedFunction` calls, which unboxes the
+     * arguments, calls the compiled function and boxes its result.
+     *
+     * @param function The function that is being compiled.
+     */
+    private void compileEntry(CreatedFunction function) {
+        code = new CodeWriter();
+        code.useLocals(2);
+        code.emit(CodeWriter.ALOAD_0, 1);
+        code.emitShort(
+            CodeWriter.INVOKESPECIAL,
+            -1,
+            classFile.methodReference(JIT_CODE, "<init>", "()V")
+        );
+        code.emit(CodeWriter.RETURN, 0);
+        classFile.addMethod(0, "<init>", "()V", code);
+
+        code = new CodeWriter();
+        code.useLocals(2);
+
+        int i = 0;
+
+        for (CreatedClass createdClass : function.getParameters().values()) {
+            String unboxName;
+            String unboxDescriptor;
+
+            if (createdClass == RuntimeConstants.getIntClass()) {
+                unboxName = "getLongValue";
+                unboxDescriptor = "()J";
+            } else if (createdClass == RuntimeConstants.getFltClass()) {
+                unboxName = "getDoubleValue";
+                unboxDescriptor = "()D";
+            } else {
+                unboxName = "getBooleanValue";
+                unboxDescriptor = "()Z";
+            }
+
+            code.emit(CodeWriter.ALOAD_1, 1);
+            pushIndex(i);
+            code.emit(CodeWriter.AALOAD, -1);
+            code.emitShort(
+                CodeWriter.INVOKEVIRTUAL,
+                getSize(createdClass) - 1,
+                classFile.methodReference(
+                    CREATED_OBJECT,
+                    unboxName,
+                    unboxDescriptor
+                )
+            );
+            i++;
+        }
+
+        CreatedClass returnClass = function.getReturnClass();
+        String createName;
+
+        if (returnClass == RuntimeConstants.getIntClass()) {
+            createName = "createInt";
+        } else if (returnClass == RuntimeConstants.getFltClass()) {
+            createName = "createFlt";
+        } else {
+            createName = "createBln";
+        }
+
+        emitCall(function);
+        code.emitShort(
+            CodeWriter.INVOKESTATIC,
+            1 - getSize(returnClass),
+            classFile.methodReference(
+                JIT_CODE,
+                createName,
+                "(" + getTypeDescriptor(returnClass) + ")L" + CREATED_OBJECT + ";"
+            )
+        );
+        code.emit(CodeWriter.ARETURN, -1);
+        classFile.addMethod(
+            0,
+            "call",
+            "([L" + CREATED_OBJECT + ";)L" + CREATED_OBJECT + ";",
+            code
+        );
+    }
+
+    private void pushIndex(int index) {
+        if (index <= 5) {
+            code.emit(CodeWriter.ICONST_0 + index, 1);
+        } else {
+            code.emitByte(CodeWriter.BIPUSH, 1, index);
+        }
+    }
+
+    private void emitCall(CreatedFunction function) {
+        int index = addFunction(function);
+        int argumentSize = 0;
+
+        for (CreatedClass parameterClass : function.getParameters().values()) {
+            argumentSize += getSize(parameterClass);
+        }
+
+        code.emitShort(
+            CodeWriter.INVOKESTATIC,
+            getSize(function.getReturnClass()) - argumentSize,
+            classFile.methodReference(
+                CLASS_NAME,
+                "function" + index,
+                getDescriptor(function)
+            )
+        );
+    }
+
+    /**
+     * Compiles a function into a static method. Like in the interpreters, its
+     * body ends at its first `return` statement, which it has to have.
+     *
+     * @param index The function's index.
+     */
+    private void compileFunction(int index) {
+        CreatedFunction function = functions.get(index);
+        Block body = function.getDeclaration().getBody();
+        HashSet<String> declaredNames = new HashSet<String>();
+
+        code = new CodeWriter();
+        locals = new HashMap<String, Integer>();
+        localClasses = new HashMap<String, CreatedClass>();
+        localCount = 0;
+        returnClass = function.getReturnClass();
+
+        for (Map.Entry<String, CreatedClass> parameter
+            : function.getParameters().entrySet()
+        ) {
+            declareLocal(parameter.getKey(), parameter.getValue());
+            declaredNames.add(parameter.getKey());
+        }
+
+        code.useLocals(localCount);
+
+        for (int i = 0; i < body.getStatementCount(); i++) {
+            Statement statement = body.getStatement(i);
+
+            if (statement instanceof ReturnStatement) {
+                compileReturn((ReturnStatement) statement, declaredNames);
+                classFile.addMethod(
+                    0x0008,
+                    "function" + index,
+                    getDescriptor(function),
+                    code
+                );
+                return;
+            }
+
+            compileStatement(statement, declaredNames);
+        }
+
+        // Without a `return`, the function returns `und`, which is not a
+        // primitive.
+        throw new NotCompilableException();
+    }
+
+    private void compileReturn(
+        ReturnStatement statement,
+        HashSet<String> declaredNames
+    ) {
+        expectClass(
+            compileExpression(statement.getValue(), declaredNames),
+            returnClass
+        );
+
+        if (returnClass == RuntimeConstants.getIntClass()) {
+            code.emit(CodeWriter.LRETURN, -2);
+        } else if (returnClass == RuntimeConstants.getFltClass()) {
+            code.emit(CodeWriter.DRETURN, -2);
+        } else {
+            code.emit(CodeWriter.IRETURN, -1);
+        }
+    }
+
+    private void declareLocal(String name, CreatedClass createdClass) {
+        if (locals.containsKey(name)) {
+            // A variable's type can never change.
+            expectClass(createdClass, localClasses.get(name));
+            return;
+        }
+
+        getTypeDescriptor(createdClass);
+        locals.put(name, localCount);
+        localClasses.put(name, createdClass);
+        localCount += getSize(createdClass);
+    }
+
+    private static void expectClass(CreatedClass found, CreatedClass expected) {
+        if (found != expected) {
+            throw new NotCompilableException();
+        }
+    }
+
+    /**
+     * Compiles the statements of a nested block. A `return` statement
+     * returns from the function, so nothing after it in the block is
+     * compiled.
+     *
+     * @param block The block to compile.
+     * @param outerNames The variables declared before the block.
+     */
+    private void compileBlock(Block block, HashSet<String> outerNames) {
+        // Variables declared in a block may not have been declared after it.
+        HashSet<String> declaredNames = new HashSet<String>(outerNames);
+
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof ReturnStatement) {
+                compileReturn((ReturnStatement) statement, declaredNames);
+                return;
+            }
+
+            compileStatement(statement, declaredNames);
+        }
+    }
+
+    private void compileStatement(
+        Statement statement,
+        HashSet<String> declaredNames
+    ) {
+        if (statement instanceof VariableDeclaration) {
+            VariableDeclaration declaration = (VariableDeclaration) statement;
+            CreatedClass declaredClass
+                = RuntimeContext.getClass(declaration.getTypeName());
+
+            expectClass(
+                compileExpression(declaration.getValue(), declaredNames),
+                declaredClass
+            );
+            declareLocal(declaration.getName(), declaredClass);
+            declaredNames.add(declaration.getName());
+            code.emitLocal(
+                getStoreOpcode(declaredClass),
+                -getSize(declaredClass),
+                locals.get(declaration.getName()),
+                getSize(declaredClass)
+            );
+            return;
+        }
+
+        if (statement instanceof VariableAssignment) {
+            VariableAssignment assignment = (VariableAssignment) statement;
+
+            if (!declaredNames.contains(assignment.getName())) {
+                throw new NotCompilableException();
+            }
+
+            CreatedClass localClass = localClasses.get(assignment.getName());
+
+            expectClass(
+                compileExpression(assignment.getValue(), declaredNames),
+                localClass
+            );
+            code.emitLocal(
+                getStoreOpcode(localClass),
+                -getSize(localClass),
+                locals.get(assignment.getName()),
+                getSize(localClass)
+            );
+            return;
+        }
+
+        if (statement instanceof ExpressionStatement) {
+            CreatedClass valueClass = compileExpression(
+                ((ExpressionStatement) statement).getExpression(),
+                declaredNames
+            );
+
+            code.emit(
+                getSize(valueClass) == 2 ? CodeWriter.POP2 : CodeWriter.POP,
+                -getSize(valueClass)
+            );
+            return;
+        }
+
+        if (statement instanceof WhileStatement) {
+            WhileStatement whileStatement = (WhileStatement) statement;
+            int start = code.newLabel();
+            int end = code.newLabel();
+
+            code.placeLabel(start);
+            expectClass(
+                compileExpression(whileStatement.getCondition(), declaredNames),
+                RuntimeConstants.getBlnClass()
+            );
+            code.emitJump(CodeWriter.IFEQ, -1, end);
+            compileBlock(whileStatement.getBody(), declaredNames);
+            code.emitJump(CodeWriter.GOTO, 0, start);
+            code.placeLabel(end);
+            return;
+        }
+
+        if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+            int end = code.newLabel();
+
+            expectClass(
+                compileExpression(ifStatement.getCondition(), declaredNames),
+                RuntimeConstants.getBlnClass()
+            );
+            code.emitJump(CodeWriter.IFEQ, -1, end);
+            compileBlock(ifStatement.getBody(), declaredNames);
+            code.placeLabel(end);
+            return;
+        }
+
+        // E.g., `echo`, which has an effect outside of the function.
+        throw new NotCompilableException();
+    }
+
+    /**
+     * Compiles an expression, leaving its value on the stack.
+     *
+     * @param expression The expression to compile.
+     * @param declaredNames The variables that have been declared.
+     * @return The expression's class.
+     */
+    private CreatedClass compileExpression(
+        Expression expression,
+        HashSet<String> declaredNames
+    ) {
+        if (expression instanceof IntLiteral) {
+            long value = ((IntLiteral) expression).getValue();
+
+            if (value == 0 || value == 1) {
+                code.emit(CodeWriter.LCONST_0 + (int) value, 2);
+            } else {
+                code.emitShort(CodeWriter.LDC2_W, 2, classFile.longConstant(value));
+            }
+
+            return RuntimeConstants.getIntClass();
+        }
+
+        if (expression instanceof FltLiteral) {
+            double value = ((FltLiteral) expression).getValue();
+
+            if (Double.doubleToRawLongBits(value) == 0L) {
+                code.emit(CodeWriter.DCONST_0, 2);
+            } else if (value == 1.0) {
+                code.emit(CodeWriter.DCONST_1, 2);
+            } else {
+                code.emitShort(
+                    CodeWriter.LDC2_W,
+                    2,
+                    classFile.doubleConstant(value)
+                );
+            }
+
+            return RuntimeConstants.getFltClass();
+        }
+
+        if (expression instanceof BlnLiteral) {
+            code.emit(
+                ((BlnLiteral) expression).getValue()
+                    ? CodeWriter.ICONST_1
+                    : CodeWriter.ICONST_0,
+                1
+            );
+            return RuntimeConstants.getBlnClass();
+        }
+
+        if (expression instanceof VariableGet) {
+            String name = ((VariableGet) expression).getName();
+
+            // Anything else would be looked up outside of the function.
+            if (!declaredNames.contains(name)) {
+                throw new NotCompilableException();
+            }
+
+            CreatedClass localClass = localClasses.get(name);
+
+            code.emitLocal(
+                getLoadOpcode(localClass),
+                getSize(localClass),
+                locals.get(name),
+                getSize(localClass)
+            );
+            return localClass;
+        }
+
+        if (expression instanceof NotExpression) {
+            expectClass(
+                compileExpression(
+                    ((NotExpression) expression).getOperand(),
+                    declaredNames
+                ),
+                RuntimeConstants.getBlnClass()
+            );
+            code.emit(CodeWriter.ICONST_1, 1);
+            code.emit(CodeWriter.IXOR, -1);
+            return RuntimeConstants.getBlnClass();
+        }
+
+        if (expression instanceof BinaryExpression) {
+            return compileBinaryExpression(
+                (BinaryExpression) expression,
+                declaredNames
+            );
+        }
+
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+            CreatedFunction function
+                = RuntimeContext.getGlobalFunction(call.getName());
+
+            if (
+                function == null
+                    || call.getArgumentCount() != function.getParameters().size()
+            ) {
+                throw new NotCompilableException();
+            }
+
+            int i = 0;
+
+            for (CreatedClass parameterClass : function.getParameters().values()) {
+                expectClass(
+                    compileExpression(call.getArgument(i), declaredNames),
+                    parameterClass
+                );
+                i++;
+            }
+
+            emitCall(function);
+            return function.getReturnClass();
+        }
+
+        throw new NotCompilableException();
+    }
+
+    private CreatedClass compileBinaryExpression(
+        BinaryExpression expression,
+        HashSet<String> declaredNames
+    ) {
+        BinaryOperator operator = expression.getOperator();
+
+        if (operator == BinaryOperator.AND || operator == BinaryOperator.OR) {
+            return compileLogicalExpression(expression, declaredNames);
+        }
+
+        CreatedClass operandClass
+            = compileExpression(expression.getLeft(), declaredNames);
+        boolean isFlt = operandClass == RuntimeConstants.getFltClass();
+        boolean isEquality = operator == BinaryOperator.EQUALITY
+            || operator == BinaryOperator.NEGATED_EQUALITY;
+
+        // `Flt` values are equal like `Double.equals` says they are, e.g.,
+        // `NaN` equals itself.
+        if (isFlt && isEquality) {
+            emitDoubleToLongBits();
+        }
+
+        expectClass(
+            compileExpression(expression.getRight(), declaredNames),
+            operandClass
+        );
+
+        if (isFlt && isEquality) {
+            emitDoubleToLongBits();
+            operandClass = RuntimeConstants.getIntClass();
+        }
+
+        if (operandClass == RuntimeConstants.getBlnClass()) {
+            switch (operator) {
+                case EQUALITY:
+                    return emitComparison(CodeWriter.IF_ICMPEQ, -2);
+                case NEGATED_EQUALITY:
+                    return emitComparison(CodeWriter.IF_ICMPNE, -2);
+                default:
+                    throw new NotCompilableException();
+            }
+        }
+
+        boolean isInt = operandClass == RuntimeConstants.getIntClass();
+
+        switch (operator) {
+            case PLUS:
+                code.emit(isInt ? CodeWriter.LADD : CodeWriter.DADD, -2);
+                return operandClass;
+            case MINUS:
+                code.emit(isInt ? CodeWriter.LSUB : CodeWriter.DSUB, -2);
+                return operandClass;
+            case TIMES:
+                code.emit(isInt ? CodeWriter.LMUL : CodeWriter.DMUL, -2);
+                return operandClass;
+            case DIVIDE:
+                code.emit(isInt ? CodeWriter.LDIV : CodeWriter.DDIV, -2);
+                return operandClass;
+            case MODULO:
+                code.emit(isInt ? CodeWriter.LREM : CodeWriter.DREM, -2);
+                return operandClass;
+            default:
+                break;
+        }
+
+        // A comparison of doubles is false if either is `NaN`.
+        int compareOpcode = CodeWriter.LCMP;
+
+        if (!isInt) {
+            compareOpcode = operator == BinaryOperator.LESS_THAN
+                || operator == BinaryOperator.LESS_OR_EQUAL
+                ? CodeWriter.DCMPG
+                : CodeWriter.DCMPL;
+        }
+
+        switch (operator) {
+            case EQUALITY:
+                code.emit(compareOpcode, -3);
+                return emitComparison(CodeWriter.IFEQ, -1);
+            case NEGATED_EQUALITY:
+                code.emit(compareOpcode, -3);
+                return emitComparison(CodeWriter.IFNE, -1);
+            case GREATER_THAN:
+                code.emit(compareOpcode, -3);
+                return emitComparison(CodeWriter.IFGT, -1);
+            case LESS_THAN:
+                code.emit(compareOpcode, -3);
+                return emitComparison(CodeWriter.IFLT, -1);
+            case GREATER_OR_EQUAL:
+                code.emit(compareOpcode, -3);
+                return emitComparison(CodeWriter.IFGE, -1);
+            case LESS_OR_EQUAL:
+                code.emit(compareOpcode, -3);
+                return emitComparison(CodeWriter.IFLE, -1);
+            default:
+                // E.g., `^`, which `Int` does not implement as an exponent.
+                throw new NotCompilableException();
+        }
+    }
+
+    /**
+     * Compiles an `&` or `|`, which jumps over its right operand if its left
+     * one decides the result.
+     */
+    private CreatedClass compileLogicalExpression(
+        BinaryExpression expression,
+        HashSet<String> declaredNames
+    ) {
+        boolean isAnd = expression.getOperator() == BinaryOperator.AND;
+        int isDecided = code.newLabel();
+        int end = code.newLabel();
+
+        expectClass(
+            compileExpression(expression.getLeft(), declaredNames),
+            RuntimeConstants.getBlnClass()
+        );
+        code.emitJump(isAnd ? CodeWriter.IFEQ : CodeWriter.IFNE, -1, isDecided);
+        expectClass(
+            compileExpression(expression.getRight(), declaredNames),
+            RuntimeConstants.getBlnClass()
+        );
+        code.emitJump(CodeWriter.GOTO, 0, end);
+        code.setStackSize(code.getStackSize() - 1);
+        code.placeLabel(isDecided);
+        code.emit(isAnd ? CodeWriter.ICONST_0 : CodeWriter.ICONST_1, 1);
+        code.placeLabel(end);
+        return RuntimeConstants.getBlnClass();
+    }
+
+    private void emitDoubleToLongBits() {
+        code.emitShort(
+            CodeWriter.INVOKESTATIC,
+            0,
+            classFile.methodReference(
+                "java/lang/Double",
+                "doubleToLongBits",
+                "(D)J"
+            )
+        );
+    }
+
+    /**
+     * Turns the result of a conditional jump into a `Bln`.
+     *
+     * @param jumpOpcode The jump that is taken if the result is true.
+     * @param stackEffect The jump's stack effect.
+     * @return The `Bln` class.
+     */
+    private CreatedClass emitComparison(int jumpOpcode, int stackEffect) {
+        int isTrue = code.newLabel();
+        int end = code.newLabel();
+
+        code.emitJump(jumpOpcode, stackEffect, isTrue);
+        code.emit(CodeWriter.ICONST_0, 1);
+        code.emitJump(CodeWriter.GOTO, 0, end);
+        code.setStackSize(code.getStackSize() - 1);
+        code.placeLabel(isTrue);
+        code.emit(CodeWriter.ICONST_1, 1);
+        code.placeLabel(end);
+        return RuntimeConstants.getBlnClass();
+    }
+}
+
+/**
+ * Thrown while compiling a function that `JitCompiler` cannot compile, so
+ * that it is interpreted instead.
+ */
+class NotCompilableException extends RuntimeException {
+}
+
+class JitCompilerException extends RuntimeException {
+    JitCompilerException(String message) {
+        super(message);
+    }
+}
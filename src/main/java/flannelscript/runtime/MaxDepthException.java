@@ -0,0 +1,13 @@
+package flannelscript.runtime;
+
+/**
+ * Raised when a program's calls recurse deeper than the depth set with
+ * `BytecodeInterpreter.setMaxDepth`. Unlike the runtime's other exceptions,
+ * it is public, so that the launcher can report it as an error in the
+ * program, the same way that it reports running out of the JVM's stack.
+ */
+public class MaxDepthException extends RuntimeException {
+    MaxDepthException(String message) {
+        super(message);
+    }
+}
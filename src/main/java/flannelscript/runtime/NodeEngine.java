@@ -0,0 +1,34 @@
+package flannelscript.runtime;
+
+import flannelscript.ir.Block;
+
+/**
+ * Runs a program by compiling it into `ExecutableStatement` and
+ * `ExecutableExpression` nodes first. Every node is compiled once, including
+ * the bodies of functions and methods, so running it does not need to
+ * re-dispatch on the kind of each node like `RuntimeNode` does. Local
+ * variables are resolved to slots by `SlotResolver`, so they are read and
+ * written by index instead of by name.
+ */
+public class NodeEngine {
+    public static void runProgram(Block program) {
+        // Literals are created when they are compiled, so the built-in
+        // classes have to exist first.
+        RuntimeConstants.setGlobals();
+
+        ExecutableBlock compiledProgram = ExecutableBlock.compile(
+            program,
+            SlotResolver.resolveProgram(program)
+        );
+        RuntimeContext context = new RuntimeContext(null);
+
+        context.setSlots(new CreatedObject[compiledProgram.getSlotCount()]);
+
+        CreatedObject returnedValue = compiledProgram.execute(context);
+
+        // A `return` outside of a function ends the program.
+        if (returnedValue != null) {
+            System.out.println("returned: " + returnedValue);
+        }
+    }
+}
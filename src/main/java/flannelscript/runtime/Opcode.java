@@ -0,0 +1,72 @@
+package flannelscript.runtime;
+
+/**
+ * The instructions run by `BytecodeInterpreter`. In `CompiledCode`, each
+ * opcode is followed by the operands listed next to it, which are usually
+ * indexes into the code's constants or local slots.
+ */
+final class Opcode {
+    // `constant`: pushes `constants[constant]`.
+    static final int CONSTANT = 0;
+    // `slot name`: pushes a local, or looks `name` up if it is not set yet.
+    static final int LOAD_LOCAL = 1;
+    // `cache`: pushes the variable, property or global named by the
+    // `PropertyCache` constant `cache`, which each site has its own of.
+    static final int LOAD_NAME = 2;
+    // `slot typeName`: pops a value, checks its type and stores it.
+    static final int DECLARE_LOCAL = 3;
+    // `slot name`: pops a value into a local, or updates `name` if it is not
+    // set yet.
+    static final int ASSIGN_LOCAL = 4;
+    // `cache`: pops a value into the variable, property or global named by
+    // `cache`. See `LOAD_NAME`.
+    static final int ASSIGN_NAME = 5;
+    // `operator`: pops the right, then the left operand, and pushes the
+    // result of the `BinaryOperator` whose ordinal is `operator`, through the
+    // same specializations as `BinaryNode`.
+    static final int BINARY = 6;
+    // `false`: pops a `Bln` and pushes its negation.
+    static final int NOT = 7;
+    // `cache argumentCount`: pops the arguments and pushes the result. Each
+    // call site has its own `InlineCache` constant.
+    static final int CALL_FUNCTION = 8;
+    // `cache argumentCount`: pops the receiver and the arguments below it,
+    // and pushes the result.
+    static final int CALL_METHOD = 9;
+    // `className argumentCount`: pops the arguments and pushes a new object.
+    static final int NEW_OBJECT = 10;
+    // `cache`: pops an object and pushes its property named by `cache`. See
+    // `LOAD_NAME`.
+    static final int GET_PROPERTY = 11;
+    // Pops a prompt, prints it, and pushes the line that was read.
+    static final int ASK = 12;
+    // Pops a value and prints it.
+    static final int ECHO = 13;
+    // Pops a value and discards it.
+    static final int POP = 14;
+    // Pops a value and checks that it is a `Bln`.
+    static final int CHECK_BLN = 15;
+    // `target`: continues at `target`.
+    static final int JUMP = 16;
+    // `target`: pops a `Bln`, and continues at `target` if it is false.
+    static final int JUMP_IF_FALSE = 17;
+    // Pops a value and returns it from the function, or from top-level code,
+    // which ends the program.
+    static final int RETURN = 18;
+    // Returns `und` from the function.
+    static final int RETURN_UND = 19;
+    // Ends top-level code.
+    static final int END = 20;
+    // `declaration`: runs a `DeclareFunctionNode` constant.
+    static final int DECLARE_FUNCTION = 21;
+    // `template`: pops the values of a `ClassTemplate` constant's overrides
+    // and properties, and declares its class.
+    static final int DECLARE_CLASS = 22;
+    // `decidingValue target`: continues at `target` if the value on top is
+    // a `Bln` that is `decidingValue` (`0` for `&`, `1` for `|`), leaving it
+    // as the result, instead of evaluating the right operand.
+    static final int JUMP_IF_DECIDED = 23;
+
+    private Opcode() {
+    }
+}
@@ -0,0 +1,38 @@
+package flannelscript.runtime;
+
+/**
+ * Remembers where a site that accesses a property by name found it in the
+ * last `Shape` it saw, so that accessing it on another object with the same
+ * shape skips looking the name up.
+ */
+class PropertyCache {
+    private final String name;
+    private Shape shape;
+    private int index = -1;
+
+    /**
+     * @param name The name of the property that the site accesses.
+     */
+    PropertyCache(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @param object The object whose property is accessed.
+     * @return The property's index, or `-1` if the object does not have it.
+     */
+    int getIndex(CreatedObject object) {
+        Shape objectShape = object.getObjectClass().getShape();
+
+        if (objectShape != shape) {
+            shape = objectShape;
+            index = objectShape.getIndex(name);
+        }
+
+        return index;
+    }
+}
@@ -7,6 +7,14 @@ public class RuntimeConstants {
     private static CreatedClass<Long> intClass;
     private static CreatedClass<Double> fltClass;
 
+    // `Int`s in this range are created once, and reused by `createInt`.
+    private static final long MIN_CACHED_INT = -128;
+    private static final long MAX_CACHED_INT = 1023;
+
+    private static IntValue[] cachedInts;
+    private static BlnValue trueObject;
+    private static BlnValue falseObject;
+
     public static void setGlobals() {
         objClass = new CreatedClass<Object>("Obj", null);
         CreatedClass<Object> voidClass = new CreatedClass<Object>("Void", null);
@@ -29,16 +37,26 @@ public class RuntimeConstants {
         // `Flt`:
         fltClass = new CreatedClass<Double>("Flt", objClass);
 
+        // Values:
+
+        trueObject = new BlnValue(blnClass, true);
+        falseObject = new BlnValue(blnClass, false);
+        cachedInts = new IntValue[(int) (MAX_CACHED_INT - MIN_CACHED_INT + 1)];
+
+        for (int i = 0; i < cachedInts.length; i++) {
+            cachedInts[i] = new IntValue(intClass, MIN_CACHED_INT + i);
+        }
+
         // Methods:
 
         // `equals`:
 
-        RuntimeFunction equalsFunction = (RuntimeContext context) -> {
-            if (context.getOpenBaseValue().equals(context.getObject("other").getBaseValue())) {
-                return blnClass.createObject(true);
+        Intrinsic equalsFunction = (CreatedObject open, CreatedObject other) -> {
+            if (open.getBaseValue().equals(other.getBaseValue())) {
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(blnClass, "equals", equalsFunction);
@@ -48,12 +66,12 @@ public class RuntimeConstants {
 
         // `doesNotEqual`:
 
-        RuntimeFunction doesNotEqualFunction = (RuntimeContext context) -> {
-            if (context.getOpenBaseValue().equals(context.getObject("other").getBaseValue())) {
-                return blnClass.createObject(false);
+        Intrinsic doesNotEqualFunction = (CreatedObject open, CreatedObject other) -> {
+            if (open.getBaseValue().equals(other.getBaseValue())) {
+                return createBln(false);
             }
 
-            return blnClass.createObject(true);
+            return createBln(true);
         };
 
         addBinaryFunctionToClass(blnClass, "doesNotEqual", doesNotEqualFunction);
@@ -63,9 +81,9 @@ public class RuntimeConstants {
 
         // `add` (`str`):
 
-        RuntimeFunction strAddFunction = (RuntimeContext context) -> {
-            String openString = (String) context.getOpenBaseValue();
-            String otherString = (String) context.getObject("other").getBaseValue();
+        Intrinsic strAddFunction = (CreatedObject open, CreatedObject other) -> {
+            String openString = (String) open.getBaseValue();
+            String otherString = (String) other.getBaseValue();
 
             return strClass.createObject(openString + otherString);
         };
@@ -74,271 +92,271 @@ public class RuntimeConstants {
 
         // `add` (`int`):
 
-        RuntimeFunction intAddFunction = (RuntimeContext context) -> {
-            Long openLong = (Long) context.getOpenBaseValue();
-            Long otherLong = (Long) context.getObject("other").getBaseValue();
+        Intrinsic intAddFunction = (CreatedObject open, CreatedObject other) -> {
+            long openLong = open.getLongValue();
+            long otherLong = other.getLongValue();
 
-            return intClass.createObject(openLong + otherLong);
+            return createInt(openLong + otherLong);
         };
 
         addBinaryFunctionToClass(intClass, "add", intAddFunction);
 
         // `add` (`flt`):
 
-        RuntimeFunction fltAddFunction = (RuntimeContext context) -> {
-            Double openDouble = (Double) context.getOpenBaseValue();
-            Double otherDouble = (Double) context.getObject("other").getBaseValue();
+        Intrinsic fltAddFunction = (CreatedObject open, CreatedObject other) -> {
+            double openDouble = open.getDoubleValue();
+            double otherDouble = other.getDoubleValue();
 
-            return fltClass.createObject(openDouble + otherDouble);
+            return createFlt(openDouble + otherDouble);
         };
 
         addBinaryFunctionToClass(fltClass, "add", fltAddFunction);
 
         // `subtract` (`int`):
 
-        RuntimeFunction intSubtractFunction = (RuntimeContext context) -> {
-            Long openLong = (Long) context.getOpenBaseValue();
-            Long otherLong = (Long) context.getObject("other").getBaseValue();
+        Intrinsic intSubtractFunction = (CreatedObject open, CreatedObject other) -> {
+            long openLong = open.getLongValue();
+            long otherLong = other.getLongValue();
 
-            return intClass.createObject(openLong - otherLong);
+            return createInt(openLong - otherLong);
         };
 
         addBinaryFunctionToClass(intClass, "subtract", intSubtractFunction);
 
         // `subtract` (`flt`):
 
-        RuntimeFunction fltSubtractFunction = (RuntimeContext context) -> {
-            Double openDouble = (Double) context.getOpenBaseValue();
-            Double otherDouble = (Double) context.getObject("other").getBaseValue();
+        Intrinsic fltSubtractFunction = (CreatedObject open, CreatedObject other) -> {
+            double openDouble = open.getDoubleValue();
+            double otherDouble = other.getDoubleValue();
 
-            return fltClass.createObject(openDouble - otherDouble);
+            return createFlt(openDouble - otherDouble);
         };
 
         addBinaryFunctionToClass(fltClass, "subtract", fltSubtractFunction);
 
         // `multiply` (`int`):
 
-        RuntimeFunction intTimesFunction = (RuntimeContext context) -> {
-            Long openLong = (Long) context.getOpenBaseValue();
-            Long otherLong = (Long) context.getObject("other").getBaseValue();
+        Intrinsic intTimesFunction = (CreatedObject open, CreatedObject other) -> {
+            long openLong = open.getLongValue();
+            long otherLong = other.getLongValue();
 
-            return intClass.createObject(openLong * otherLong);
+            return createInt(openLong * otherLong);
         };
 
         addBinaryFunctionToClass(intClass, "multiply", intTimesFunction);
 
         // `multiply` (`flt`):
 
-        RuntimeFunction fltTimesFunction = (RuntimeContext context) -> {
-            Double openDouble = (Double) context.getOpenBaseValue();
-            Double otherDouble = (Double) context.getObject("other").getBaseValue();
+        Intrinsic fltTimesFunction = (CreatedObject open, CreatedObject other) -> {
+            double openDouble = open.getDoubleValue();
+            double otherDouble = other.getDoubleValue();
 
-            return fltClass.createObject(openDouble * otherDouble);
+            return createFlt(openDouble * otherDouble);
         };
 
         addBinaryFunctionToClass(fltClass, "multiply", fltTimesFunction);
 
         // `divide` (`int`):
 
-        RuntimeFunction intDivideFunction = (RuntimeContext context) -> {
-            Long openLong = (Long) context.getOpenBaseValue();
-            Long otherLong = (Long) context.getObject("other").getBaseValue();
+        Intrinsic intDivideFunction = (CreatedObject open, CreatedObject other) -> {
+            long openLong = open.getLongValue();
+            long otherLong = other.getLongValue();
 
-            return intClass.createObject(openLong / otherLong);
+            return createInt(openLong / otherLong);
         };
 
         addBinaryFunctionToClass(intClass, "divide", intDivideFunction);
 
         // `divide` (`flt`):
 
-        RuntimeFunction fltDivideFunction = (RuntimeContext context) -> {
-            Double openDouble = (Double) context.getOpenBaseValue();
-            Double otherDouble = (Double) context.getObject("other").getBaseValue();
+        Intrinsic fltDivideFunction = (CreatedObject open, CreatedObject other) -> {
+            double openDouble = open.getDoubleValue();
+            double otherDouble = other.getDoubleValue();
 
-            return fltClass.createObject(openDouble / otherDouble);
+            return createFlt(openDouble / otherDouble);
         };
 
         addBinaryFunctionToClass(fltClass, "divide", fltDivideFunction);
 
         // `modulo` (`int`):
 
-        RuntimeFunction intModuloFunction = (RuntimeContext context) -> {
-            Long openLong = (Long) context.getOpenBaseValue();
-            Long otherLong = (Long) context.getObject("other").getBaseValue();
+        Intrinsic intModuloFunction = (CreatedObject open, CreatedObject other) -> {
+            long openLong = open.getLongValue();
+            long otherLong = other.getLongValue();
 
-            return intClass.createObject(openLong % otherLong);
+            return createInt(openLong % otherLong);
         };
 
         addBinaryFunctionToClass(intClass, "modulo", intModuloFunction);
 
         // `modulo` (`flt`):
 
-        RuntimeFunction fltModuloFunction = (RuntimeContext context) -> {
-            Double openDouble = (Double) context.getOpenBaseValue();
-            Double otherDouble = (Double) context.getObject("other").getBaseValue();
+        Intrinsic fltModuloFunction = (CreatedObject open, CreatedObject other) -> {
+            double openDouble = open.getDoubleValue();
+            double otherDouble = other.getDoubleValue();
 
-            return fltClass.createObject(openDouble % otherDouble);
+            return createFlt(openDouble % otherDouble);
         };
 
         addBinaryFunctionToClass(fltClass, "modulo", fltModuloFunction);
 
         // `exponent` (`int`):
 
-        RuntimeFunction intExponentFunction = (RuntimeContext context) -> {
-            Long openLong = (Long) context.getOpenBaseValue();
-            Long otherLong = (Long) context.getObject("other").getBaseValue();
+        Intrinsic intExponentFunction = (CreatedObject open, CreatedObject other) -> {
+            long openLong = open.getLongValue();
+            long otherLong = other.getLongValue();
 
-            return intClass.createObject(openLong % otherLong);
+            return createInt(openLong % otherLong);
         };
 
         addBinaryFunctionToClass(intClass, "exponent", intModuloFunction);
 
         // `and` (`bln`):
 
-        RuntimeFunction andFunction = (RuntimeContext context) -> {
+        Intrinsic andFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Boolean) context.getOpenBaseValue()
-                    && (Boolean) context.getObject("other").getBaseValue()
+                open.getBooleanValue()
+                    && other.getBooleanValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(blnClass, "and", andFunction);
 
         // `or` (`bln`):
 
-        RuntimeFunction orFunction = (RuntimeContext context) -> {
+        Intrinsic orFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Boolean) context.getOpenBaseValue()
-                    || (Boolean) context.getObject("other").getBaseValue()
+                open.getBooleanValue()
+                    || other.getBooleanValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(blnClass, "or", orFunction);
 
         // `isGreater` (`int`):
 
-        RuntimeFunction intIsGreaterFunction = (RuntimeContext context) -> {
+        Intrinsic intIsGreaterFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Long) context.getOpenBaseValue()
-                    > (Long) context.getObject("other").getBaseValue()
+                open.getLongValue()
+                    > other.getLongValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(intClass, "isGreater", intIsGreaterFunction);
 
         // `isGreater` (`flt`):
 
-        RuntimeFunction fltIsGreaterFunction = (RuntimeContext context) -> {
+        Intrinsic fltIsGreaterFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Double) context.getOpenBaseValue()
-                    > (Double) context.getObject("other").getBaseValue()
+                open.getDoubleValue()
+                    > other.getDoubleValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(fltClass, "isGreater", fltIsGreaterFunction);
 
         // `isLess` (`int`):
 
-        RuntimeFunction intIsLessFunction = (RuntimeContext context) -> {
+        Intrinsic intIsLessFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Long) context.getOpenBaseValue()
-                    < (Long) context.getObject("other").getBaseValue()
+                open.getLongValue()
+                    < other.getLongValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(intClass, "isLess", intIsLessFunction);
 
         // `isLess` (`flt`):
 
-        RuntimeFunction fltIsLessFunction = (RuntimeContext context) -> {
+        Intrinsic fltIsLessFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Double) context.getOpenBaseValue()
-                    < (Double) context.getObject("other").getBaseValue()
+                open.getDoubleValue()
+                    < other.getDoubleValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(fltClass, "isLess", fltIsLessFunction);
 
         // `isGreaterOrEqual` (`int`):
 
-        RuntimeFunction intIsGreaterOrEqualFunction = (RuntimeContext context) -> {
+        Intrinsic intIsGreaterOrEqualFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Long) context.getOpenBaseValue()
-                    >= (Long) context.getObject("other").getBaseValue()
+                open.getLongValue()
+                    >= other.getLongValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(intClass, "isGreaterOrEqual", intIsGreaterOrEqualFunction);
 
         // `isGreaterOrEqual` (`flt`):
 
-        RuntimeFunction fltIsGreaterOrEqualFunction = (RuntimeContext context) -> {
+        Intrinsic fltIsGreaterOrEqualFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Double) context.getOpenBaseValue()
-                    >= (Double) context.getObject("other").getBaseValue()
+                open.getDoubleValue()
+                    >= other.getDoubleValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(fltClass, "isGreaterOrEqual", fltIsGreaterOrEqualFunction);
 
         // `isLessOrEqual` (`int`):
 
-        RuntimeFunction intIsLessOrEqualFunction = (RuntimeContext context) -> {
+        Intrinsic intIsLessOrEqualFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Long) context.getOpenBaseValue()
-                    <= (Long) context.getObject("other").getBaseValue()
+                open.getLongValue()
+                    <= other.getLongValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(intClass, "isLessOrEqual", intIsLessOrEqualFunction);
 
         // `isLessOrEqual` (`flt`):
 
-        RuntimeFunction fltIsLessOrEqualFunction = (RuntimeContext context) -> {
+        Intrinsic fltIsLessOrEqualFunction = (CreatedObject open, CreatedObject other) -> {
             if (
-                (Double) context.getOpenBaseValue()
-                    <= (Double) context.getObject("other").getBaseValue()
+                open.getDoubleValue()
+                    <= other.getDoubleValue()
             ) {
-                return blnClass.createObject(true);
+                return createBln(true);
             }
 
-            return blnClass.createObject(false);
+            return createBln(false);
         };
 
         addBinaryFunctionToClass(fltClass, "isLessOrEqual", fltIsLessOrEqualFunction);
@@ -346,7 +364,7 @@ public class RuntimeConstants {
         // `getStr` (`bln`):
 
         RuntimeFunction blnGetStr = (RuntimeContext context) -> {
-            if ((Boolean) context.getOpenBaseValue() == true) {
+            if (context.getOpenObject().getBooleanValue()) {
                 return strClass.createObject("true");
             }
 
@@ -359,7 +377,7 @@ public class RuntimeConstants {
 
         RuntimeFunction intGetStr = (RuntimeContext context) -> {
             return strClass.createObject(
-                ((Long) context.getOpenBaseValue()).toString()
+                Long.toString(context.getOpenObject().getLongValue())
             );
         };
 
@@ -369,7 +387,7 @@ public class RuntimeConstants {
 
         RuntimeFunction fltGetStr = (RuntimeContext context) -> {
             return strClass.createObject(
-                ((Double) context.getOpenBaseValue()).toString()
+                Double.toString(context.getOpenObject().getDoubleValue())
             );
         };
 
@@ -378,7 +396,7 @@ public class RuntimeConstants {
         // `getInt` (`Str`):
 
         RuntimeFunction strGetInt = (RuntimeContext context) -> {
-            return intClass.createObject(
+            return createInt(
                 Long.parseLong((String) context.getOpenBaseValue())
             );
         };
@@ -388,7 +406,7 @@ public class RuntimeConstants {
         // `getInt` (`Str`):
 
         RuntimeFunction strGetFlt = (RuntimeContext context) -> {
-            return fltClass.createObject(
+            return createFlt(
                 Double.parseDouble((String) context.getOpenBaseValue())
             );
         };
@@ -403,7 +421,7 @@ public class RuntimeConstants {
         RuntimeContext.setClass("Flt", fltClass);
     }
 
-    static <B> void addBinaryFunctionToClass(CreatedClass<B> classToUse, String name, RuntimeFunction function) {
+    static <B> void addBinaryFunctionToClass(CreatedClass<B> classToUse, String name, Intrinsic function) {
         ParameterMap parameters = new ParameterMap();
         parameters.put("other", classToUse);
 
@@ -420,6 +438,37 @@ public class RuntimeConstants {
         classToUse.addMethod(name, new CreatedFunction<B>(parameters, function, returnType, name));
     }
 
+    /**
+     * Creates an `Int`. Values between `MIN_CACHED_INT` and `MAX_CACHED_INT`
+     * return the same object every time, since nothing can change an `Int`.
+     *
+     * @param value The `Int`'s value.
+     * @return The `Int`.
+     */
+    static CreatedObject<Long> createInt(long value) {
+        if (value >= MIN_CACHED_INT && value <= MAX_CACHED_INT) {
+            return cachedInts[(int) (value - MIN_CACHED_INT)];
+        }
+
+        return new IntValue(intClass, value);
+    }
+
+    static CreatedObject<Double> createFlt(double value) {
+        return new FltValue(fltClass, value);
+    }
+
+    /**
+     * @param value The `Bln`'s value.
+     * @return The one `Bln` with that value.
+     */
+    static CreatedObject<Boolean> createBln(boolean value) {
+        if (value) {
+            return trueObject;
+        }
+
+        return falseObject;
+    }
+
     static CreatedClass<Object> getObjClass() {
         return objClass;
     }
@@ -441,46 +490,6 @@ public class RuntimeConstants {
     }
 }
 
-class CreatedFunctionBln extends CreatedFunction<Boolean> {
-    public CreatedFunctionBln(
-        ParameterMap parameters,
-        RuntimeFunction baseBody,
-        CreatedClass returnType
-    ) {
-        super(parameters, baseBody, returnType);
-    }
-}
-
-class CreatedFunctionStr extends CreatedFunction<String> {
-    public CreatedFunctionStr(
-        ParameterMap parameters,
-        RuntimeFunction baseBody,
-        CreatedClass returnType
-    ) {
-        super(parameters, baseBody, returnType);
-    }
-}
-
-class CreatedFunctionInt extends CreatedFunction<Long> {
-    public CreatedFunctionInt(
-        ParameterMap parameters,
-        RuntimeFunction baseBody,
-        CreatedClass returnType
-    ) {
-        super(parameters, baseBody, returnType);
-    }
-}
-
-class CreatedFunctionFlt extends CreatedFunction<Double> {
-    public CreatedFunctionFlt(
-        ParameterMap parameters,
-        RuntimeFunction baseBody,
-        CreatedClass returnType
-    ) {
-        super(parameters, baseBody, returnType);
-    }
-}
-
 class BaseValueException extends RuntimeException {
     public BaseValueException(String message) {
         super(message);
@@ -9,10 +9,17 @@ public class RuntimeContext {
     = new LinkedHashMap<String, CreatedFunction>();
     private static LinkedHashMap<String, CreatedClass> classes
         = new LinkedHashMap<String, CreatedClass>();
+    // Changes whenever a class or global function is declared, so that
+    // `JitCode` can tell whether what it was compiled against still holds.
+    private static int declarationVersion = 0;
 
     private CreatedObject openObject;
-    private LinkedHashMap<String, CreatedObject> locals
-        = new LinkedHashMap<String, CreatedObject>();
+    // Only created once a local is set by name, since `NodeEngine` and
+    // `BytecodeInterpreter` keep their locals in slots instead.
+    private LinkedHashMap<String, CreatedObject> locals;
+    // The frame of slots that `SlotResolver` resolved the locals of
+    // `NodeEngine`'s code to.
+    private CreatedObject[] slots;
 
     public static void setGlobal(String name, CreatedObject createdObject) {
         globals.put(name, createdObject);
@@ -31,17 +38,50 @@ public class RuntimeContext {
     }
 
     public void setLocal(String name, CreatedObject createdObject) {
+        if (locals == null) {
+            locals = new LinkedHashMap<String, CreatedObject>();
+        }
+
         locals.put(name, createdObject);
     }
 
     public void updateObject(String name, CreatedObject createdObject) {
-        if (locals.containsKey(name)) {
+        if (locals != null && locals.containsKey(name)) {
+            locals.put(name, createdObject);
+            return;
+        }
+
+        int index = openObject.getObjectClass().getShape().getIndex(name);
+
+        if (index != -1) {
+            openObject.setProperty(index, createdObject);
+            return;
+        }
+
+        if (globals.containsKey(name)) {
+            globals.put(name, createdObject);
+        }
+    }
+
+    /**
+     * Updates a variable like `updateObject(String, CreatedObject)` does,
+     * using a site's cache to find it among the open object's properties.
+     *
+     * @param cache The site's cache.
+     * @param createdObject The variable's new value.
+     */
+    void updateObject(PropertyCache cache, CreatedObject createdObject) {
+        String name = cache.getName();
+
+        if (locals != null && locals.containsKey(name)) {
             locals.put(name, createdObject);
             return;
         }
 
-        if (openObject.checkHasProperty(name)) {
-            openObject.setProperty(name, createdObject);
+        int index = cache.getIndex(openObject);
+
+        if (index != -1) {
+            openObject.setProperty(index, createdObject);
             return;
         }
 
@@ -52,15 +92,45 @@ public class RuntimeContext {
 
     public static void setClass(String name, CreatedClass createdClass) {
         classes.put(name, createdClass);
+        declarationVersion++;
     }
 
     public CreatedObject getObject(String name) {
-        if (locals.containsKey(name)) {
+        if (locals != null && locals.containsKey(name)) {
             return locals.get(name);
         }
 
-        if (openObject.checkHasProperty(name)) {
-            return openObject.getProperty(name);
+        int index = openObject.getObjectClass().getShape().getIndex(name);
+
+        if (index != -1) {
+            return openObject.getProperty(index);
+        }
+
+        if (globals.containsKey(name)) {
+            return globals.get(name);
+        }
+
+        return getGlobal("und");
+    }
+
+    /**
+     * Looks up a variable like `getObject(String)` does, using a site's cache
+     * to find it among the open object's properties.
+     *
+     * @param cache The site's cache.
+     * @return The variable's value.
+     */
+    CreatedObject getObject(PropertyCache cache) {
+        String name = cache.getName();
+
+        if (locals != null && locals.containsKey(name)) {
+            return locals.get(name);
+        }
+
+        int index = cache.getIndex(openObject);
+
+        if (index != -1) {
+            return openObject.getProperty(index);
         }
 
         if (globals.containsKey(name)) {
@@ -87,6 +157,14 @@ public class RuntimeContext {
         );
     }
 
+    CreatedObject[] getSlots() {
+        return slots;
+    }
+
+    void setSlots(CreatedObject[] slots) {
+        this.slots = slots;
+    }
+
     public CreatedObject getOpenObject() {
         return openObject;
     }
@@ -110,6 +188,22 @@ public class RuntimeContext {
         CreatedFunction createdFunction
     ) {
         globalFunctions.put(name, createdFunction);
+        declarationVersion++;
+    }
+
+    /**
+     * Returns a global function, without looking at the methods of an open
+     * object first like `getFunction` does.
+     *
+     * @param name The function's name.
+     * @return The function, or `null` if there is none.
+     */
+    static CreatedFunction getGlobalFunction(String name) {
+        return globalFunctions.get(name);
+    }
+
+    static int getDeclarationVersion() {
+        return declarationVersion;
     }
     public Object getOpenBaseValue() {
         return openObject.getBaseValue();
@@ -0,0 +1,61 @@
+package flannelscript.runtime;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The layout of the properties of a class's objects, which all of them
+ * share. Each property has a fixed index into an object's array of property
+ * values. The properties of the class it extends come first, at the same
+ * indexes as in that class's shape.
+ */
+class Shape {
+    private final HashMap<String, Integer> indexes;
+    private final String[] names;
+
+    /**
+     * @param extendsShape The shape of the class it extends, or `null` if it
+     * does not extend one.
+     * @param propertyNames The names of the class's own properties. Those
+     * that it inherits keep their inherited index.
+     */
+    Shape(Shape extendsShape, Iterable<String> propertyNames) {
+        String[] names;
+
+        if (extendsShape == null) {
+            indexes = new HashMap<String, Integer>();
+            names = new String[0];
+        } else {
+            indexes = new HashMap<String, Integer>(extendsShape.indexes);
+            names = extendsShape.names;
+        }
+
+        for (String name : propertyNames) {
+            if (!indexes.containsKey(name)) {
+                indexes.put(name, names.length);
+                names = Arrays.copyOf(names, names.length + 1);
+                names[names.length - 1] = name;
+            }
+        }
+
+        this.names = names;
+    }
+
+    /**
+     * @param name A property's name.
+     * @return The property's index, or `-1` if there is no such property.
+     */
+    int getIndex(String name) {
+        Integer index = indexes.get(name);
+
+        if (index == null) {
+            return -1;
+        }
+
+        return index;
+    }
+
+    int getPropertyCount() {
+        return names.length;
+    }
+}
@@ -0,0 +1,87 @@
+package flannelscript.runtime;
+
+import java.util.HashMap;
+
+import flannelscript.ir.Block;
+import flannelscript.ir.FunctionDeclaration;
+import flannelscript.ir.IfStatement;
+import flannelscript.ir.Statement;
+import flannelscript.ir.VariableDeclaration;
+import flannelscript.ir.WhileStatement;
+
+/**
+ * Resolves the local variables of a unit of code, i.e., top-level code or the
+ * body of a function or method, to indexed slots in its frame. A function's
+ * parameters get the first slots, in order, followed by every variable that
+ * is declared anywhere in the unit, including inside of `while` and `if`
+ * blocks.
+ *
+ * Names that are not resolved to a slot belong to the open object or are
+ * globals, and are still looked up by name.
+ */
+class SlotResolver {
+    private final HashMap<String, Integer> slots = new HashMap<String, Integer>();
+
+    private SlotResolver() {
+    }
+
+    static SlotResolver resolveProgram(Block program) {
+        SlotResolver resolver = new SlotResolver();
+
+        resolver.declareSlots(program);
+        return resolver;
+    }
+
+    static SlotResolver resolveFunction(FunctionDeclaration declaration) {
+        SlotResolver resolver = new SlotResolver();
+
+        for (int i = 0; i < declaration.getParameterCount(); i++) {
+            resolver.declareSlot(declaration.getParameter(i).getName());
+        }
+
+        resolver.declareSlots(declaration.getBody());
+        return resolver;
+    }
+
+    boolean hasSlot(String name) {
+        return slots.containsKey(name);
+    }
+
+    /**
+     * @param name A variable's name.
+     * @return The variable's slot, or `-1` if it does not have one.
+     */
+    int getSlot(String name) {
+        Integer slot = slots.get(name);
+
+        if (slot == null) {
+            return -1;
+        }
+
+        return slot;
+    }
+
+    int getSlotCount() {
+        return slots.size();
+    }
+
+    private void declareSlot(String name) {
+        if (!slots.containsKey(name)) {
+            slots.put(name, slots.size());
+        }
+    }
+
+    private void declareSlots(Block block) {
+        for (int i = 0; i < block.getStatementCount(); i++) {
+            Statement statement = block.getStatement(i);
+
+            if (statement instanceof VariableDeclaration) {
+                declareSlot(((VariableDeclaration) statement).getName());
+            } else if (statement instanceof WhileStatement) {
+                declareSlots(((WhileStatement) statement).getBody());
+            } else if (statement instanceof IfStatement) {
+                declareSlots(((IfStatement) statement).getBody());
+            }
+        }
+    }
+}
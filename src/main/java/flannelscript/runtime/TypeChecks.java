@@ -0,0 +1,26 @@
+package flannelscript.runtime;
+
+/**
+ * Whether the runtime checks the classes of values as it runs a program:
+ * that a declared variable or property gets a value of its type, that a
+ * function gets arguments of its parameters' types and returns its return
+ * type, and that conditions are `Bln`s. `while` and `if` statements also
+ * evaluate their condition an extra time before running, only to check it.
+ *
+ * The checks are only turned off for programs that `TypeChecker` has shown
+ * can't fail them.
+ */
+public class TypeChecks {
+    private static boolean isEnabled = true;
+
+    private TypeChecks() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    static boolean isEnabled() {
+        return isEnabled;
+    }
+}
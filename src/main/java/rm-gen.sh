@@ -3,6 +3,7 @@
 find ./flannelscript/parser -type f \
     -not -name '.gitignore' \
     -not -name 'ASTNode.java' \
+    -not -name 'LexerTokenManager.java' \
     -not -name 'example.flns.lexed' \
     -not -name 'Parser.jjt' \
     -delete
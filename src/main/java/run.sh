@@ -1,4 +1,3 @@
 #!/usr/bin/env bash
 
-javac ./flannelscript/lexer/Lexer.java
-/bin/bash ./parse.sh --direct "`java flannelscript.lexer.Lexer $1`"
+/bin/bash ./parse.sh --source "$1"